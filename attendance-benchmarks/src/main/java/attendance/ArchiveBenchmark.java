@@ -0,0 +1,97 @@
+// Historical queries answered from a TermArchive's run-length form against the same queries on
+// the live term it was frozen from: one person's range counts, whole-term percentages and a
+// pooled cohort percentage. Setup prints the archive's size per person.
+package attendance;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ArchiveBenchmark {
+    @Param({"100000"})
+    public int persons;
+
+    @Param({"200"})
+    public int days;
+
+    AttendanceManager manager;
+    TermArchive archive;
+    String[] ids;
+    LocalDate from;
+    LocalDate to;
+    Path file;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int person;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        TermCalendar calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), days);
+        manager = RegistryState.newManager(calendar);
+        manager.setPolicyEngine(new AttendancePolicyEngine());
+        manager.setNotificationOutbox(new NotificationOutbox(manager, batch -> { }));
+        ids = new String[persons];
+        Random random = new Random(42);
+        for (int i = 0; i < persons; i++) {
+            Person person = RegistryState.newPerson(i);
+            manager.registerPerson(person);
+            ids[i] = person.getId();
+            for (int day = 0; day < days; day++) {
+                manager.markAttendance(i, day, random.nextInt(100) < 95);
+            }
+        }
+        file = Files.createTempFile("term", ".term");
+        TermArchive.write(manager, file);
+        archive = TermArchive.open(file);
+        from = calendar.dateOf(days / 4);
+        to = calendar.dateOf(days * 3 / 4);
+        System.err.printf("archive: %d bytes, %.1f bytes/person%n", archive.getSizeBytes(),
+                          archive.getSizeBytes() / (double) persons);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long archiveRangeCounts(Cursor cursor) {
+        if (++cursor.person == persons) cursor.person = 0;
+        return archive.getAttendanceCounts(ids[cursor.person], from, to);
+    }
+
+    @Benchmark
+    public long liveRangeCounts(Cursor cursor) {
+        if (++cursor.person == persons) cursor.person = 0;
+        return manager.findPerson(ids[cursor.person]).getAttendanceCounts(from, to);
+    }
+
+    @Benchmark
+    public double archivePercentage(Cursor cursor) {
+        if (++cursor.person == persons) cursor.person = 0;
+        return archive.getAttendancePercentage(ids[cursor.person]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double archiveCohortPercentage() {
+        return archive.getAttendancePercentage(from, to);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public double liveCohortPercentage() {
+        return manager.getAttendancePercentage(from, to);
+    }
+}
@@ -0,0 +1,118 @@
+// Heap footprint and GC pauses of a district-scale registry with the attendance matrix on the
+// heap (AttendanceBits' own arrays) or in an OffHeapAttendanceStore. Registers the persons, marks
+// every school day, then runs check-ins by ID for a while; run each mode in its own JVM.
+//
+//   java -Xmx4g -cp attendance-benchmarks/target/benchmarks.jar attendance.AttendanceStorageFootprint \
+//        [heap|offheap] [persons=1000000] [days=200] [seconds=10]
+package attendance;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import java.lang.management.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+public class AttendanceStorageFootprint {
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "heap";
+        int persons = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int days = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        if (!mode.equals("heap") && !mode.equals("offheap")) {
+            throw new IllegalArgumentException("Mode must be heap or offheap, got: " + mode);
+        }
+        if (persons <= 0 || days <= 0 || seconds <= 0) {
+            throw new IllegalArgumentException("Persons, days and seconds must be positive");
+        }
+
+        TermCalendar calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), days);
+        AttendanceManager manager = RegistryState.newManager(calendar);
+        manager.setPolicyEngine(new AttendancePolicyEngine());
+        manager.setNotificationOutbox(new NotificationOutbox(manager, batch -> { }));
+        OffHeapAttendanceStore store = null;
+        if (mode.equals("offheap")) {
+            store = new OffHeapAttendanceStore(days);
+            manager.setAttendanceStore(store);
+        }
+
+        long buildStart = System.nanoTime();
+        Random random = new Random(42);
+        for (int i = 0; i < persons; i++) {
+            manager.registerPerson(RegistryState.newPerson(i));
+            for (int day = 0; day < days; day++) {
+                manager.markAttendance(i, day, random.nextInt(100) < 85);
+            }
+        }
+        long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        long fullGcMillis = fullGc();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long heapUsed = memory.getHeapMemoryUsage().getUsed();
+        long direct = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if (pool.getName().equals("direct")) direct = pool.getMemoryUsed();
+        }
+
+        // Check-ins by ID allocate a little per call, as the HTTP API does, so young collections run
+        List<Long> pauses = Collections.synchronizedList(new ArrayList<>());
+        listenForPauses(pauses);
+        long collectionsBefore = collections();
+        AtomicLong marks = new AtomicLong();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        while (System.nanoTime() < end) {
+            for (int k = 0; k < 10_000; k++) {
+                int person = random.nextInt(persons);
+                manager.markAttendanceForPerson((person % 20 == 0 ? "T" : "S") + person,
+                                                calendar.dateOf(random.nextInt(days)), random.nextInt(100) < 85);
+            }
+            marks.addAndGet(10_000);
+        }
+        long collections = collections() - collectionsBefore;
+        // Notifications arrive on a service thread after the pause
+        Thread.sleep(500);
+        List<Long> sorted;
+        synchronized (pauses) {
+            sorted = new ArrayList<>(pauses);
+        }
+        Collections.sort(sorted);
+        long total = 0;
+        for (long pause : sorted) total += pause;
+        System.out.printf("%s: %d persons x %d days, built in %d ms%n", mode, persons, days, buildMillis);
+        System.out.printf("heap used after full GC: %d MB, direct buffers: %d MB%n", heapUsed >> 20, direct >> 20);
+        System.out.printf("full GC after building: %d ms%n", fullGcMillis);
+        System.out.printf("%d check-ins in %d s: %d collections, %d ms total, max %d ms%n", marks.get(), seconds,
+                          collections, total, sorted.isEmpty() ? 0 : sorted.get(sorted.size() - 1));
+        if (store != null) {
+            manager.setAttendanceStore(null);
+            store.close();
+        }
+    }
+
+    private static long fullGc() {
+        long start = System.nanoTime();
+        System.gc();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static long collections() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += collector.getCollectionCount();
+        }
+        return count;
+    }
+
+    private static void listenForPauses(List<Long> pauses) {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                if (notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+                    GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                    pauses.add(info.getGcInfo().getDuration());
+                }
+            }, null, null);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+// Open-loop load generator for AttendanceHttpServer. Sends single check-ins at a fixed rate and
+// measures each latency from the request's scheduled send time, so a stalled server shows up as
+// queueing delay rather than as a quietly lower request rate. Without a URL it serves a fresh
+// registry in-process on a free port.
+//
+//   java -cp attendance-benchmarks/target/benchmarks.jar attendance.CheckInLoadGenerator \
+//        [rate/s=2000] [seconds=10] [persons=10000] [connections=8] [url]
+package attendance;
+
+import java.io.*;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+public class CheckInLoadGenerator {
+    private static final int SCHOOL_DAYS = 50;
+    // Discarded run that lets the JIT finish; its backlog drains before measuring starts
+    private static final int WARMUP_SECONDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int persons = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        int connections = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+        String url = args.length > 4 ? args[4] : null;
+        if (rate <= 0 || seconds <= 0 || persons <= 0 || connections <= 0) {
+            throw new IllegalArgumentException("Rate, seconds, persons and connections must be positive");
+        }
+
+        TermCalendar calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), SCHOOL_DAYS);
+        AttendanceHttpServer server = null;
+        if (url == null) {
+            // This tool owns its JVM, so it can give the in-process server TCP_NODELAY (see AttendanceHttpServer)
+            if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+                System.setProperty("sun.net.httpserver.nodelay", "true");
+            }
+            AttendanceManager manager = RegistryState.newManager(calendar);
+            // Crossings are still detected, but no rule prints over the report
+            manager.setPolicyEngine(new AttendancePolicyEngine());
+            for (int i = 0; i < persons; i++) {
+                manager.registerPerson(RegistryState.newPerson(i));
+            }
+            server = AttendanceHttpServer.start(manager, 0);
+            url = "http://localhost:" + server.getPort();
+        }
+
+        try {
+            run(url, calendar, rate, WARMUP_SECONDS, persons, connections);
+            Result result = run(url, calendar, rate, seconds, persons, connections);
+            System.out.printf("%d requests at %d/s for %d s over %d connections against %s%n",
+                              result.sent, rate, seconds, connections, url);
+            System.out.printf("achieved %.0f/s, %d errors%n", result.completed / result.elapsedSeconds, result.errors);
+            System.out.printf("latency us: p50=%d p90=%d p99=%d p99.9=%d max=%d%n",
+                               result.percentile(50), result.percentile(90), result.percentile(99),
+                               result.percentile(99.9), result.percentile(100));
+        } finally {
+            if (server != null) server.close();
+        }
+    }
+
+    private static final class Result {
+        long[] latencyMicros;
+        int sent;
+        int completed;
+        int errors;
+        double elapsedSeconds;
+
+        long percentile(double p) {
+            if (latencyMicros.length == 0) return 0;
+            int index = (int) Math.ceil(p / 100.0 * latencyMicros.length) - 1;
+            return latencyMicros[Math.max(0, Math.min(latencyMicros.length - 1, index))];
+        }
+    }
+
+    private static Result run(String url, TermCalendar calendar, int rate, int seconds, int persons, int connections)
+            throws Exception {
+        URI base = URI.create(url);
+        int total = rate * seconds;
+        long[] latencies = new long[total];
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        long interval = 1_000_000_000L / rate;
+        long start = System.nanoTime() + 50_000_000L;
+
+        // Request n belongs to connection n % connections; each connection keeps its own schedule
+        Thread[] workers = new Thread[connections];
+        for (int c = 0; c < connections; c++) {
+            int connection = c;
+            workers[c] = new Thread(() -> {
+                Random random = new Random(42 + connection);
+                Socket socket = null;
+                InputStream in = null;
+                try {
+                    for (int n = connection; n < total; n += connections) {
+                        long intended = start + n * interval;
+                        long wait;
+                        while ((wait = intended - System.nanoTime()) > 0) {
+                            LockSupport.parkNanos(wait);
+                        }
+                        int person = random.nextInt(persons);
+                        // Same IDs as RegistryState.newPerson
+                        String id = (person % 20 == 0 ? "T" : "S") + person;
+                        LocalDate date = calendar.dateOf(random.nextInt(calendar.size()));
+                        String status = random.nextInt(100) < 85 ? "P" : "A";
+                        String request = "POST /checkin?id=" + id + "&date=" + date + "&status=" + status + " HTTP/1.1\r\n" +
+                                         "Host: " + base.getHost() + "\r\nContent-Length: 0\r\n\r\n";
+                        int code;
+                        try {
+                            if (socket == null) {
+                                socket = new Socket(base.getHost(), base.getPort());
+                                socket.setTcpNoDelay(true);
+                                in = new BufferedInputStream(socket.getInputStream());
+                            }
+                            code = exchange(socket, in, request);
+                        } catch (IOException e) {
+                            code = -1;
+                            if (socket != null) socket.close();
+                            socket = null;
+                        }
+                        latencies[n] = (System.nanoTime() - intended) / 1000;
+                        if (code != 200) errors.incrementAndGet();
+                        completed.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    errors.incrementAndGet();
+                } finally {
+                    try {
+                        if (socket != null) socket.close();
+                    } catch (IOException ignored) {
+                    }
+                }
+            }, "load-" + c);
+            workers[c].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long end = System.nanoTime();
+
+        Result result = new Result();
+        result.sent = total;
+        result.completed = completed.get();
+        result.errors = errors.get();
+        result.elapsedSeconds = (end - start) / 1e9;
+        result.latencyMicros = latencies;
+        Arrays.sort(latencies);
+        return result;
+    }
+
+    // Writes one request on a keep-alive connection and reads the response; returns the status code
+    private static int exchange(Socket socket, InputStream in, String request) throws IOException {
+        socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+        StringBuilder headers = new StringBuilder(256);
+        while (headers.length() < 4 || headers.lastIndexOf("\r\n\r\n") != headers.length() - 4) {
+            int b = in.read();
+            if (b < 0) throw new EOFException("Connection closed mid-response");
+            headers.append((char) b);
+        }
+        String text = headers.toString();
+        int code = Integer.parseInt(text.substring(9, 12));
+        int lengthAt = text.toLowerCase(Locale.ROOT).indexOf("content-length:");
+        int length = lengthAt < 0 ? 0 : Integer.parseInt(text.substring(lengthAt + 15, text.indexOf('\r', lengthAt)).trim());
+        if (in.readNBytes(length).length != length) throw new EOFException("Connection closed mid-body");
+        return code;
+    }
+}
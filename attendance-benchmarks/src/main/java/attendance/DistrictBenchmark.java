@@ -0,0 +1,64 @@
+// District-wide aggregation across school shards: fork-join statistics and issue scans, with a
+// sequential shard loop as the single-core baseline. Throughput should grow with cores up to the shard count.
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistrictBenchmark {
+    @Param({"1", "4", "16"})
+    public int schools;
+
+    @Param({"10000"})
+    public int personsPerSchool;
+
+    AttendanceDistrict district;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TermCalendar calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 50);
+        LocalDate[] dates = calendar.getSchoolDays().toArray(new LocalDate[0]);
+        district = new AttendanceDistrict("Benchmark District");
+        Random random = new Random(42);
+        for (int school = 0; school < schools; school++) {
+            AttendanceManager manager = new AttendanceManager("School " + school, calendar);
+            manager.setEventSink(new NoOpEventSink());
+            manager.setPolicyEngine(new AttendancePolicyEngine());
+            for (int i = 0; i < personsPerSchool; i++) {
+                Person person = RegistryState.newPerson(school * personsPerSchool + i);
+                manager.registerPerson(person);
+                for (LocalDate date : dates) {
+                    person.markAttendance(date, random.nextInt(100) < 85);
+                }
+            }
+            district.addSchool(manager);
+        }
+    }
+
+    @Benchmark
+    public AttendanceStatistics computeStatistics() {
+        return district.computeStatistics();
+    }
+
+    @Benchmark
+    public AttendanceStatistics computeStatisticsSequential() {
+        AttendanceStatistics total = AttendanceStatistics.EMPTY;
+        for (AttendanceManager school : district.getSchools()) {
+            total = total.merge(school.computeStatistics());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Map<String, List<Person>> getPersonsBelow() {
+        return district.getPersonsBelow(80.0);
+    }
+}
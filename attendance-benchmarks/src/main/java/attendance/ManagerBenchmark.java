@@ -0,0 +1,57 @@
+// AttendanceManager operations: registration, bulk marking and the two report paths
+package attendance;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManagerBenchmark {
+    @State(Scope.Thread)
+    public static class FreshManager {
+        AttendanceManager manager;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            manager = RegistryState.newManager();
+            next = 0;
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void registerPerson(FreshManager fresh) {
+        fresh.manager.registerPerson(RegistryState.newPerson(fresh.next++));
+    }
+
+    @Benchmark
+    public BulkMarkResult bulkMarkAttendance(RegistryState state) {
+        return state.manager.bulkMarkAttendance(state.ids, state.dates[state.days - 1], true);
+    }
+
+    @Benchmark
+    public void identifyAttendanceIssues(RegistryState state) {
+        state.manager.identifyAttendanceIssues(80.0);
+    }
+
+    @Benchmark
+    public void generateComprehensiveReport(RegistryState state) {
+        state.manager.generateComprehensiveReport();
+    }
+
+    @Benchmark
+    public int streamTextReport(RegistryState state) throws IOException {
+        return state.manager.report(ReportWriter.Format.TEXT).writeTo(Writer.nullWriter());
+    }
+
+    @Benchmark
+    public int streamCsvReport(RegistryState state) throws IOException {
+        return state.manager.report(ReportWriter.Format.CSV).writeTo(Writer.nullWriter());
+    }
+}
@@ -0,0 +1,43 @@
+// Cost of the always-on instrumentation: a fully timed operation (both System.nanoTime calls and the
+// histogram record), a mark-path call under the default 1-in-16 sampling, and one mark count;
+// single-threaded and with four threads sharing the same counters
+package attendance;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+    AttendanceMetrics metrics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        metrics = RegistryState.newManager().getMetrics();
+    }
+
+    @Benchmark
+    public void recordLatency() {
+        metrics.record(AttendanceMetrics.Operation.MARK, System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordLatencyContended() {
+        metrics.record(AttendanceMetrics.Operation.MARK, System.nanoTime());
+    }
+
+    @Benchmark
+    public void recordSampledMark() {
+        metrics.record(AttendanceMetrics.Operation.MARK, metrics.startMark());
+    }
+
+    @Benchmark
+    public void markRecorded() {
+        metrics.markRecorded();
+    }
+}
@@ -0,0 +1,60 @@
+// Per-person hot paths: recording a mark (by Person, by ID and by handle) and reading attendance percentages.
+// Run under the GC profiler, markAttendanceByHandle should report gc.alloc.rate.norm of ~0 B/op.
+package attendance;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonBenchmark {
+    @State(Scope.Thread)
+    public static class Cursor {
+        int person;
+        int day;
+        boolean present;
+    }
+
+    @Benchmark
+    public void markAttendance(RegistryState state, Cursor cursor) {
+        Person person = state.people.get(cursor.person);
+        person.markAttendance(state.dates[cursor.day], cursor.present);
+        advance(state, cursor);
+    }
+
+    @Benchmark
+    public void markAttendanceForPerson(RegistryState state, Cursor cursor) {
+        state.manager.markAttendanceForPerson(state.ids.get(cursor.person), state.dates[cursor.day], cursor.present);
+        advance(state, cursor);
+    }
+
+    @Benchmark
+    public void markAttendanceByHandle(RegistryState state, Cursor cursor) {
+        state.manager.markAttendance(state.handles[cursor.person], cursor.day, cursor.present);
+        advance(state, cursor);
+    }
+
+    @Benchmark
+    public double getAttendancePercentage(RegistryState state, Cursor cursor) {
+        if (++cursor.person == state.persons) cursor.person = 0;
+        return state.people.get(cursor.person).getAttendancePercentage();
+    }
+
+    // Second half of the marked days, answered from the Fenwick trees instead of a scan
+    @Benchmark
+    public double getAttendancePercentageRange(RegistryState state, Cursor cursor) {
+        if (++cursor.person == state.persons) cursor.person = 0;
+        return state.people.get(cursor.person).getAttendancePercentage(state.dates[state.days / 2], state.dates[state.days - 1]);
+    }
+
+    private static void advance(RegistryState state, Cursor cursor) {
+        if (++cursor.person == state.persons) {
+            cursor.person = 0;
+            cursor.present = !cursor.present;
+            if (++cursor.day == state.days) cursor.day = 0;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+// Shared benchmark fixture: a registry of students and teachers with a number of marked school days
+package attendance;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.*;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+public class RegistryState {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int persons;
+
+    @Param({"10", "50", "200"})
+    public int days;
+
+    TermCalendar calendar;
+    AttendanceManager manager;
+    List<String> ids;
+    List<Person> people;
+    int[] handles;
+    LocalDate[] dates;
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), days);
+        manager = newManager(calendar);
+        ids = new ArrayList<>(persons);
+        people = new ArrayList<>(persons);
+        for (int i = 0; i < persons; i++) {
+            Person person = newPerson(i);
+            manager.registerPerson(person);
+            ids.add(person.getId());
+            people.add(person);
+        }
+        dates = calendar.getSchoolDays().toArray(new LocalDate[0]);
+        handles = new int[persons];
+        for (int i = 0; i < persons; i++) {
+            handles[i] = manager.handleOf(ids.get(i));
+        }
+        Random random = new Random(42);
+        for (Person person : people) {
+            for (LocalDate date : dates) {
+                person.markAttendance(date, random.nextInt(100) < 85);
+            }
+        }
+        // Reports print to stdout; benchmarks measure the work, not the terminal
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    static AttendanceManager newManager() {
+        return newManager(AttendanceManager.defaultCalendar());
+    }
+
+    static AttendanceManager newManager(TermCalendar calendar) {
+        AttendanceManager manager = new AttendanceManager("Benchmark Academy", calendar);
+        manager.setEventSink(new NoOpEventSink());
+        return manager;
+    }
+
+    static Person newPerson(int i) {
+        if (i % 20 == 0) {
+            Teacher teacher = new Teacher("Teacher " + i, "T" + i, "Physics", i % 30, 60000);
+            teacher.addQualification("MSc Physics");
+            return teacher;
+        }
+        Student student = new Student("Student " + i, "S" + i, "Grade " + (9 + i % 4), (i % 40) / 10.0);
+        student.addSubject("Mathematics");
+        student.addSubject("Physics");
+        return student;
+    }
+}
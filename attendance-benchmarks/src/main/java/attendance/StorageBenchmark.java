@@ -0,0 +1,97 @@
+// Per-operation cost of keeping attendance words in an OffHeapAttendanceStore rather than in
+// AttendanceBits' own arrays: check-ins by handle, percentage and range reads, and a registry scan.
+// AttendanceStorageFootprint measures what the store saves in heap and GC time.
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorageBenchmark {
+    @Param({"heap", "offheap"})
+    public String storage;
+
+    @Param({"100000"})
+    public int persons;
+
+    @Param({"200"})
+    public int days;
+
+    AttendanceManager manager;
+    List<Person> people;
+    LocalDate from;
+    LocalDate to;
+    OffHeapAttendanceStore store;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int person;
+        int day;
+        boolean present;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TermCalendar calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), days);
+        manager = RegistryState.newManager(calendar);
+        manager.setPolicyEngine(new AttendancePolicyEngine());
+        manager.setNotificationOutbox(new NotificationOutbox(manager, batch -> { }));
+        if (storage.equals("offheap")) {
+            store = new OffHeapAttendanceStore(days);
+            manager.setAttendanceStore(store);
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < persons; i++) {
+            manager.registerPerson(RegistryState.newPerson(i));
+            for (int day = 0; day < days; day++) {
+                manager.markAttendance(i, day, random.nextInt(100) < 85);
+            }
+        }
+        people = manager.getAllPersons();
+        from = calendar.dateOf(days / 4);
+        to = calendar.dateOf(days * 3 / 4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (store != null) {
+            manager.setAttendanceStore(null);
+            store.close();
+        }
+    }
+
+    @Benchmark
+    public void markAttendanceByHandle(Cursor cursor) {
+        manager.markAttendance(cursor.person, cursor.day, cursor.present);
+        if (++cursor.day == days) {
+            cursor.day = 0;
+            cursor.present = !cursor.present;
+        }
+        if (++cursor.person == persons) cursor.person = 0;
+    }
+
+    @Benchmark
+    public double getAttendancePercentage(Cursor cursor) {
+        if (++cursor.person == persons) cursor.person = 0;
+        return people.get(cursor.person).getAttendancePercentage();
+    }
+
+    @Benchmark
+    public long getAttendanceCountsInRange(Cursor cursor) {
+        if (++cursor.person == persons) cursor.person = 0;
+        return people.get(cursor.person).getAttendanceCounts(from, to);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AttendanceStatistics computeStatistics() {
+        return manager.computeStatistics();
+    }
+}
@@ -0,0 +1,118 @@
+// A burst of raw kiosk events (repeat swipes, late corrections, unknown IDs and non-school days)
+// pushed through the SwipePipeline and flushed, against the same burst marked synchronously with
+// markAttendanceForPerson as callers do today. Scores are per event.
+package attendance;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SwipePipelineBenchmark {
+    static final int BURST = 65_536;
+    static final long WINDOW_MILLIS = 60_000;
+
+    @Param({"100000"})
+    public int persons;
+
+    @Param({"1024", "16384"})
+    public int capacity;
+
+    @Param({"256"})
+    public int batchSize;
+
+    AttendanceManager manager;
+    SwipePipeline pipeline;
+    String[] ids = new String[BURST];
+    long[] days = new long[BURST];
+    LocalDate[] dates = new LocalDate[BURST];
+    long[] times = new long[BURST];
+    // 0 swipe, 1 correction to present, 2 correction to absent
+    byte[] kinds = new byte[BURST];
+    long timeBase;
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TermCalendar calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 200);
+        manager = RegistryState.newManager(calendar);
+        String[] registered = new String[persons];
+        for (int i = 0; i < persons; i++) {
+            Person person = RegistryState.newPerson(i);
+            manager.registerPerson(person);
+            registered[i] = person.getId();
+        }
+        // One morning: arrivals spread over 30 minutes, a fifth of them swiping again within the window
+        Random random = new Random(42);
+        long day = calendar.epochDayOf(10);
+        long time = 0;
+        for (int i = 0; i < BURST; i++) {
+            time += random.nextInt(55);
+            int roll = random.nextInt(100);
+            ids[i] = registered[random.nextInt(persons)];
+            days[i] = day;
+            times[i] = time;
+            if (roll < 20 && i > 0) {
+                int earlier = Math.max(0, i - 1 - random.nextInt(64));
+                ids[i] = ids[earlier];
+            } else if (roll < 22) {
+                ids[i] = "UNKNOWN-" + i;
+            } else if (roll < 23) {
+                days[i] = LocalDate.of(2025, 9, 6).toEpochDay();
+            } else if (roll < 25) {
+                kinds[i] = (byte) (random.nextBoolean() ? 1 : 2);
+                days[i] = calendar.epochDayOf(random.nextInt(10));
+            }
+            dates[i] = LocalDate.ofEpochDay(days[i]);
+        }
+        pipeline = new SwipePipeline(manager, capacity, SwipePipeline.OverflowPolicy.BLOCK)
+            .batchSize(batchSize)
+            .dedupWindow(WINDOW_MILLIS);
+        // Policy warnings and rejected IDs print; the benchmark measures the marking, not the terminal
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.close();
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+        System.out.println(pipeline);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public long pipeline() {
+        // Each burst is a later morning, so windows from the previous burst have expired
+        long base = timeBase += 2 * WINDOW_MILLIS + times[BURST - 1];
+        for (int i = 0; i < BURST; i++) {
+            if (kinds[i] == 0) {
+                pipeline.swipe(ids[i], days[i], base + times[i]);
+            } else {
+                pipeline.correct(ids[i], days[i], kinds[i] == 1);
+            }
+        }
+        pipeline.flush();
+        return pipeline.getAppliedCount();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void synchronousMarks() {
+        for (int i = 0; i < BURST; i++) {
+            manager.markAttendanceForPerson(ids[i], dates[i], kinds[i] != 2);
+        }
+    }
+}
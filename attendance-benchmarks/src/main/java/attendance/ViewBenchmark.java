@@ -0,0 +1,90 @@
+// Read views against the defensive copies they replace: whole-registry record reads and person
+// lists, opening a view, and check-ins while a view is open. The copy* methods reproduce the
+// previous per-call copies as the baseline.
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ViewBenchmark {
+    @State(Scope.Thread)
+    public static class Cursor {
+        int person;
+        int day;
+        boolean present;
+    }
+
+    // A view held open for the whole trial, as a long report would
+    @State(Scope.Benchmark)
+    public static class OpenView {
+        AttendanceView view;
+
+        @Setup(Level.Trial)
+        public void setUp(RegistryState state) {
+            view = state.manager.openView();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            view.close();
+        }
+    }
+
+    @Benchmark
+    public int readAttendanceRecords(RegistryState state) {
+        int marks = 0;
+        for (Person person : state.manager.getAllPersons()) {
+            for (Map.Entry<LocalDate, Boolean> mark : person.getAttendanceRecord().entrySet()) {
+                if (mark.getValue()) marks++;
+            }
+        }
+        return marks;
+    }
+
+    @Benchmark
+    public int copyAttendanceRecords(RegistryState state) {
+        int marks = 0;
+        for (Person person : new ArrayList<>(state.manager.persons())) {
+            Map<LocalDate, Boolean> record = new LinkedHashMap<>();
+            person.forEachMark((day, present) -> record.put(LocalDate.ofEpochDay(day), present));
+            for (Map.Entry<LocalDate, Boolean> mark : record.entrySet()) {
+                if (mark.getValue()) marks++;
+            }
+        }
+        return marks;
+    }
+
+    @Benchmark
+    public List<Person> getAllPersons(RegistryState state) {
+        return state.manager.getAllPersons();
+    }
+
+    @Benchmark
+    public List<Person> copyAllPersons(RegistryState state) {
+        return new ArrayList<>(state.manager.persons());
+    }
+
+    @Benchmark
+    public AttendanceStatistics viewStatistics(RegistryState state) {
+        try (AttendanceView view = state.manager.openView()) {
+            return view.computeStatistics();
+        }
+    }
+
+    @Benchmark
+    public void markAttendanceByHandleWithViewOpen(RegistryState state, OpenView open, Cursor cursor) {
+        state.manager.markAttendance(state.handles[cursor.person], cursor.day, cursor.present);
+        if (++cursor.day == state.days) {
+            cursor.day = 0;
+            cursor.present = !cursor.present;
+            if (++cursor.person == state.persons) cursor.person = 0;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+// Sink that queues events in a bounded buffer and writes them from a background thread.
+// Publishing never blocks: when the queue is full the event is dropped and counted.
+package attendance;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+class AsyncEventSink implements AttendanceEventSink, Closeable {
+    private static final int DRAIN_BATCH = 256;
+
+    private final BlockingQueue<AttendanceEvent> queue;
+    private final Writer out;
+    private final Thread writerThread;
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean running = true;
+
+    public AsyncEventSink(int capacity) {
+        this(new OutputStreamWriter(System.out, Charset.defaultCharset()), capacity);
+    }
+
+    public AsyncEventSink(Writer out, int capacity) {
+        if (out == null) {
+            throw new IllegalArgumentException("Writer cannot be null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive, got: " + capacity);
+        }
+        this.out = out;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writerThread = new Thread(this::drainLoop, "attendance-event-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public boolean isEnabled() { return running; }
+
+    @Override
+    public void publish(AttendanceEvent event) {
+        if (!running || !queue.offer(event)) {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    public long getDroppedCount() { return droppedCount.get(); }
+    public int getPendingCount() { return queue.size(); }
+
+    // Stops accepting events, writes whatever is still queued and flushes the writer
+    @Override
+    public void close() throws IOException {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.flush();
+    }
+
+    private void drainLoop() {
+        List<AttendanceEvent> batch = new ArrayList<>(DRAIN_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (queue.drainTo(batch, DRAIN_BATCH) == 0) {
+                    AttendanceEvent first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    queue.drainTo(batch, DRAIN_BATCH - 1);
+                }
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // close() interrupts to cut the poll short; keep draining until the queue is empty
+            } catch (IOException e) {
+                System.err.println("Event sink write failed: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<AttendanceEvent> batch) throws IOException {
+        for (AttendanceEvent event : batch) {
+            out.write(event.format());
+            out.write(System.lineSeparator());
+        }
+        out.flush();
+    }
+}
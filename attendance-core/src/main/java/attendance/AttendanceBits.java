@@ -0,0 +1,545 @@
+// Compact per-person attendance storage: one "marked" and one "present" bit per day number,
+// with running counters so the percentage never has to scan the bits. Day numbers are epoch
+// days until the person is registered, then the manager's TermCalendar school-day index.
+// Writes lock the record itself; counters are published as one volatile word for lock-free reads.
+// Fenwick trees over per-word popcounts answer any date range in O(log words), and stay
+// correct when an earlier day is marked or corrected after later ones.
+// Readers that want the whole record get an immutable Version, copied once per change and shared
+// until the next write; while AttendanceView read views are open, a write first keeps the version
+// it replaces, so each view keeps seeing the record as it was when the view was opened.
+// A registered person's words can instead live in an AttendanceStore row (off-heap, say), read
+// and written under the same lock; the counters always stay here.
+package attendance;
+
+import java.util.*;
+import java.util.function.LongUnaryOperator;
+
+class AttendanceBits {
+    interface MarkConsumer {
+        void accept(long day, boolean present);
+    }
+
+    // Previous state of a day, as returned by mark
+    static final int UNMARKED = 0;
+    static final int ABSENT = 1;
+    static final int PRESENT = 2;
+
+    private static final long[] EMPTY = new long[0];
+    private static final int[] EMPTY_TREE = new int[1];
+
+    // Day number represented by bit 0; only ever moves back in whole words
+    private long origin;
+    private long[] marked;
+    private long[] present;
+    // 1-based Fenwick trees indexed by word, summing Long.bitCount of each word
+    private int[] markedTree = EMPTY_TREE;
+    private int[] presentTree = EMPTY_TREE;
+    // presentCount in the high 32 bits, markedCount in the low 32 bits
+    private volatile long counts;
+    // Copy of the current state, or null when a write has happened since the last one was taken
+    private Version snapshot;
+    // Replaced versions still visible to open views, newest first
+    private Retained retained;
+    private long preservedEpoch;
+    // When set, the words live in this row of the store, marked/present and the trees are empty,
+    // and day numbers are school-day indexes
+    private AttendanceStore store;
+    private int row;
+
+    // Immutable copy of a record, shared by every reader until the record changes
+    static final class Version {
+        private final long origin;
+        private final long[] marked;
+        private final long[] present;
+        private final long counts;
+
+        private Version(long origin, long[] marked, long[] present, long counts) {
+            this.origin = origin;
+            this.marked = marked;
+            this.present = present;
+            this.counts = counts;
+        }
+
+        public long getCounts() { return counts; }
+        public int getMarkedCount() { return (int) counts; }
+        public int getPresentCount() { return (int) (counts >>> 32); }
+
+        public int stateOf(long day) {
+            return AttendanceBits.stateOf(origin, marked, present, day);
+        }
+
+        public void forEachMark(MarkConsumer consumer) {
+            AttendanceBits.forEachMark(origin, marked, present, consumer);
+        }
+
+        // Day number of the first mark after the given one, or Long.MAX_VALUE when there is none
+        long nextMarkedDay(long afterDay) {
+            long offset = afterDay < origin ? 0 : afterDay - origin + 1;
+            if (offset >= (long) marked.length << 6) return Long.MAX_VALUE;
+            int word = (int) (offset >>> 6);
+            long bits = marked[word] & (-1L << offset);
+            while (bits == 0) {
+                if (++word == marked.length) return Long.MAX_VALUE;
+                bits = marked[word];
+            }
+            return origin + ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+        }
+    }
+
+    // A replaced version and the newest view epoch that still sees it
+    private static final class Retained {
+        final long epoch;
+        final Version version;
+        Retained older;
+
+        Retained(long epoch, Version version, Retained older) {
+            this.epoch = epoch;
+            this.version = version;
+            this.older = older;
+        }
+    }
+
+    public AttendanceBits() {
+        this.marked = EMPTY;
+        this.present = EMPTY;
+    }
+
+    // Records the day and returns what it held before: UNMARKED, ABSENT or PRESENT
+    public synchronized int mark(long day, boolean isPresent) {
+        int word;
+        long bit;
+        long markedWord;
+        long presentWord;
+        if (store == null) {
+            int offset = offsetFor(day);
+            word = offset >>> 6;
+            bit = 1L << offset;
+            markedWord = marked[word];
+            presentWord = present[word];
+        } else {
+            if (day < 0 || day >= (long) store.getWordsPerRow() << 6) {
+                throw new IllegalArgumentException("Day " + day + " is outside the attendance store's row");
+            }
+            word = (int) (day >>> 6);
+            bit = 1L << day;
+            markedWord = store.getMarked(row, word);
+            presentWord = store.getPresent(row, word);
+        }
+        int markedCount = (int) counts;
+        int presentCount = (int) (counts >>> 32);
+        boolean wasPresent = (presentWord & bit) != 0;
+        int previous = (markedWord & bit) == 0 ? UNMARKED : wasPresent ? PRESENT : ABSENT;
+        if (previous == UNMARKED) {
+            markedWord |= bit;
+            markedCount++;
+        } else if (wasPresent) {
+            presentCount--;
+        }
+        if (isPresent) {
+            presentWord |= bit;
+            presentCount++;
+        } else {
+            presentWord &= ~bit;
+        }
+        if (store == null) {
+            marked[word] = markedWord;
+            present[word] = presentWord;
+            if (previous == UNMARKED) {
+                adjust(markedTree, word, 1);
+            }
+            if (isPresent != wasPresent) {
+                adjust(presentTree, word, isPresent ? 1 : -1);
+            }
+        } else {
+            store.set(row, word, markedWord, presentWord);
+        }
+        counts = ((long) presentCount << 32) | markedCount;
+        snapshot = null;
+        return previous;
+    }
+
+    // Called before a write with the newest view epoch and the oldest still open (Long.MAX_VALUE
+    // when none): keeps the current version for views opened since the last write, and drops
+    // versions only closed views could see
+    public synchronized void preserve(long epoch, long oldestOpen) {
+        if (retained != null) {
+            retained = prune(retained, oldestOpen);
+        }
+        if (epoch > preservedEpoch && epoch >= oldestOpen) {
+            retained = new Retained(epoch, snapshot(), retained);
+            preservedEpoch = epoch;
+        }
+    }
+
+    private static Retained prune(Retained newest, long oldestOpen) {
+        if (newest.epoch < oldestOpen) return null;
+        for (Retained kept = newest; kept.older != null; kept = kept.older) {
+            if (kept.older.epoch < oldestOpen) {
+                kept.older = null;
+                break;
+            }
+        }
+        return newest;
+    }
+
+    // The current state as an immutable version, copied only if the record changed since the last
+    // call; versions of stored rows are not cached, so reading them does not grow the heap
+    public synchronized Version snapshot() {
+        Version version = snapshot;
+        if (version == null) {
+            long[] markedWords = store == null ? marked : storedWords(false);
+            long[] presentWords = store == null ? present : storedWords(true);
+            int words = markedWords.length;
+            while (words > 0 && markedWords[words - 1] == 0) words--;
+            version = new Version(store == null ? origin : 0, Arrays.copyOf(markedWords, words),
+                                  Arrays.copyOf(presentWords, words), counts);
+            if (store == null) {
+                snapshot = version;
+            }
+        }
+        return version;
+    }
+
+    private long[] storedWords(boolean presentWords) {
+        long[] words = new long[store.getWordsPerRow()];
+        for (int word = 0; word < words.length; word++) {
+            words[word] = presentWords ? store.getPresent(row, word) : store.getMarked(row, word);
+        }
+        return words;
+    }
+
+    // Moves the words into the store's row, or back into arrays here when target is null;
+    // the counters and any versions kept for views are unaffected
+    public synchronized void moveTo(AttendanceStore target, int targetRow) {
+        if (target == null ? store == null : target == store && targetRow == row) return;
+        long[] markedWords = new long[(target != null ? target : store).getWordsPerRow()];
+        long[] presentWords = new long[markedWords.length];
+        if (store != null) {
+            for (int word = 0; word < Math.min(markedWords.length, store.getWordsPerRow()); word++) {
+                markedWords[word] = store.getMarked(row, word);
+                presentWords[word] = store.getPresent(row, word);
+            }
+        } else {
+            long[] words = markedWords;
+            long[] presentBits = presentWords;
+            long last = getLastMarkedDay();
+            if (last != Long.MIN_VALUE && (getFirstMarkedDay() < 0 || last >= (long) words.length << 6)) {
+                throw new IllegalArgumentException("Day " + last + " does not fit the attendance store's row");
+            }
+            forEachMark(origin, marked, present, (day, isPresent) -> {
+                words[(int) (day >>> 6)] |= 1L << day;
+                if (isPresent) presentBits[(int) (day >>> 6)] |= 1L << day;
+            });
+        }
+        if (target != null) {
+            for (int word = 0; word < markedWords.length; word++) {
+                target.set(targetRow, word, markedWords[word], presentWords[word]);
+            }
+            origin = 0;
+            marked = EMPTY;
+            present = EMPTY;
+            markedTree = EMPTY_TREE;
+            presentTree = EMPTY_TREE;
+        } else {
+            origin = 0;
+            marked = markedWords;
+            present = presentWords;
+            rebuildTrees();
+        }
+        store = target;
+        row = target != null ? targetRow : 0;
+        snapshot = null;
+    }
+
+    // The version a view opened at the epoch sees: the oldest one kept for it, else the current state
+    public synchronized Version versionAt(long epoch) {
+        Version visible = null;
+        for (Retained kept = retained; kept != null && kept.epoch >= epoch; kept = kept.older) {
+            visible = kept.version;
+        }
+        return visible != null ? visible : snapshot();
+    }
+
+    // Counts as a view opened at the epoch sees them, without copying the current state
+    public synchronized long countsAt(long epoch) {
+        Version visible = null;
+        for (Retained kept = retained; kept != null && kept.epoch >= epoch; kept = kept.older) {
+            visible = kept.version;
+        }
+        return visible != null ? visible.counts : counts;
+    }
+
+    // What the day currently holds: UNMARKED, ABSENT or PRESENT
+    public synchronized int stateOf(long day) {
+        if (store != null) {
+            if (day < 0 || day >= (long) store.getWordsPerRow() << 6) return UNMARKED;
+            long bit = 1L << day;
+            int word = (int) (day >>> 6);
+            return (store.getMarked(row, word) & bit) == 0 ? UNMARKED
+                 : (store.getPresent(row, word) & bit) != 0 ? PRESENT : ABSENT;
+        }
+        return stateOf(origin, marked, present, day);
+    }
+
+    private static int stateOf(long origin, long[] marked, long[] present, long day) {
+        long offset = day - origin;
+        if (marked.length == 0 || offset < 0 || offset >= (long) marked.length << 6) return UNMARKED;
+        int word = (int) (offset >>> 6);
+        long bit = 1L << offset;
+        return (marked[word] & bit) == 0 ? UNMARKED : (present[word] & bit) != 0 ? PRESENT : ABSENT;
+    }
+
+    // Counts for the inclusive day-number range, packed like getCounts()
+    public synchronized long getCounts(long fromDay, long toDay) {
+        if (store != null) return storedCounts(fromDay, toDay);
+        if (marked.length == 0 || toDay < fromDay) return 0;
+        long last = origin + ((long) marked.length << 6) - 1;
+        if (toDay < origin || fromDay > last) return 0;
+        int from = (int) (Math.max(fromDay, origin) - origin);
+        int to = (int) (Math.min(toDay, last) - origin);
+        long markedCount = countThrough(marked, markedTree, to) - countThrough(marked, markedTree, from - 1);
+        long presentCount = countThrough(present, presentTree, to) - countThrough(present, presentTree, from - 1);
+        return (presentCount << 32) | markedCount;
+    }
+
+    // Stored rows are a few words long, so a range is counted word by word
+    private long storedCounts(long fromDay, long toDay) {
+        long last = ((long) store.getWordsPerRow() << 6) - 1;
+        if (toDay < fromDay || toDay < 0 || fromDay > last) return 0;
+        int from = (int) Math.max(fromDay, 0);
+        int to = (int) Math.min(toDay, last);
+        long markedCount = 0;
+        long presentCount = 0;
+        for (int word = from >>> 6; word <= to >>> 6; word++) {
+            long mask = -1L;
+            if (word == from >>> 6) mask &= -1L << from;
+            if (word == to >>> 6) mask &= -1L >>> (63 - (to & 63));
+            markedCount += Long.bitCount(store.getMarked(row, word) & mask);
+            presentCount += Long.bitCount(store.getPresent(row, word) & mask);
+        }
+        return (presentCount << 32) | markedCount;
+    }
+
+    public double getPercentage(long fromDay, long toDay) {
+        return percentageOf(getCounts(fromDay, toDay));
+    }
+
+    // Percentage for counts packed as present << 32 | marked
+    static double percentageOf(long counts) {
+        int markedCount = (int) counts;
+        if (markedCount == 0) return 0.0;
+        return ((int) (counts >>> 32) * 100.0) / markedCount;
+    }
+
+    public boolean isEmpty() {
+        return getMarkedCount() == 0;
+    }
+
+    // Present count in the high 32 bits, marked count in the low 32 bits, read atomically
+    public long getCounts() { return counts; }
+    public int getMarkedCount() { return (int) counts; }
+    public int getPresentCount() { return (int) (counts >>> 32); }
+
+    public double getPercentage() {
+        return percentageOf(counts);
+    }
+
+    // Visits every marked day in day-number order
+    public synchronized void forEachMark(MarkConsumer consumer) {
+        if (store != null) {
+            for (int word = 0; word < store.getWordsPerRow(); word++) {
+                long bits = store.getMarked(row, word);
+                long presentWord = store.getPresent(row, word);
+                while (bits != 0) {
+                    int bit = Long.numberOfTrailingZeros(bits);
+                    consumer.accept(((long) word << 6) + bit, (presentWord & (1L << bit)) != 0);
+                    bits &= bits - 1;
+                }
+            }
+            return;
+        }
+        forEachMark(origin, marked, present, consumer);
+    }
+
+    private static void forEachMark(long origin, long[] marked, long[] present, MarkConsumer consumer) {
+        for (int word = 0; word < marked.length; word++) {
+            long bits = marked[word];
+            while (bits != 0) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                long day = origin + ((long) word << 6) + bit;
+                consumer.accept(day, (present[word] & (1L << bit)) != 0);
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    // Earliest marked day number, or Long.MAX_VALUE when nothing is marked
+    public synchronized long getFirstMarkedDay() {
+        if (store != null) {
+            for (int word = 0; word < store.getWordsPerRow(); word++) {
+                long bits = store.getMarked(row, word);
+                if (bits != 0) return ((long) word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            return Long.MAX_VALUE;
+        }
+        for (int word = 0; word < marked.length; word++) {
+            if (marked[word] != 0) {
+                return origin + ((long) word << 6) + Long.numberOfTrailingZeros(marked[word]);
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    // Latest marked day number, or Long.MIN_VALUE when nothing is marked
+    public synchronized long getLastMarkedDay() {
+        if (store != null) {
+            for (int word = store.getWordsPerRow() - 1; word >= 0; word--) {
+                long bits = store.getMarked(row, word);
+                if (bits != 0) return ((long) word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+            }
+            return Long.MIN_VALUE;
+        }
+        for (int word = marked.length - 1; word >= 0; word--) {
+            if (marked[word] != 0) {
+                return origin + ((long) word << 6) + 63 - Long.numberOfLeadingZeros(marked[word]);
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+
+    // Replaces an empty record with whole words, bit d of the arrays being day origin + d;
+    // the arrays are taken over, not copied
+    public synchronized void load(long origin, long[] markedWords, long[] presentWords) {
+        if (store != null || counts != 0) {
+            throw new IllegalStateException("Can only load words into an empty heap record");
+        }
+        if (markedWords.length != presentWords.length) {
+            throw new IllegalArgumentException("Marked and present words differ in length");
+        }
+        setWords(origin, markedWords, presentWords);
+    }
+
+    // Installs the words and derives the trees and counters from them in one pass
+    private void setWords(long origin, long[] markedWords, long[] presentWords) {
+        int markedCount = 0;
+        int presentCount = 0;
+        for (int word = 0; word < markedWords.length; word++) {
+            presentWords[word] &= markedWords[word];
+            markedCount += Long.bitCount(markedWords[word]);
+            presentCount += Long.bitCount(presentWords[word]);
+        }
+        this.origin = markedCount == 0 ? 0 : origin;
+        marked = markedCount == 0 ? EMPTY : markedWords;
+        present = markedCount == 0 ? EMPTY : presentWords;
+        rebuildTrees();
+        counts = ((long) presentCount << 32) | markedCount;
+        snapshot = null;
+    }
+
+    // Renumbers every mark through the mapping, dropping those it maps to a negative number;
+    // returns how many were dropped. The mapped marks are written straight into new words
+    public synchronized int renumber(LongUnaryOperator mapping) {
+        if (store != null) {
+            throw new IllegalStateException("Cannot renumber a record held in an attendance store");
+        }
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        int dropped = 0;
+        for (int word = 0; word < marked.length; word++) {
+            for (long bits = marked[word]; bits != 0; bits &= bits - 1) {
+                long day = mapping.applyAsLong(origin + ((long) word << 6) + Long.numberOfTrailingZeros(bits));
+                if (day < 0) {
+                    dropped++;
+                } else {
+                    first = Math.min(first, day);
+                    last = Math.max(last, day);
+                }
+            }
+        }
+        if (last == Long.MIN_VALUE) {
+            setWords(0, EMPTY, EMPTY);
+            return dropped;
+        }
+        if (last - first > Integer.MAX_VALUE - 64) {
+            throw new IllegalArgumentException("Day " + last + " is too far from the first recorded day");
+        }
+        long[] markedWords = new long[(int) ((last - first) >>> 6) + 1];
+        long[] presentWords = new long[markedWords.length];
+        for (int word = 0; word < marked.length; word++) {
+            for (long bits = marked[word]; bits != 0; bits &= bits - 1) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                long day = mapping.applyAsLong(origin + ((long) word << 6) + bit);
+                if (day < 0) continue;
+                long offset = day - first;
+                markedWords[(int) (offset >>> 6)] |= 1L << offset;
+                if ((present[word] & (1L << bit)) != 0) {
+                    presentWords[(int) (offset >>> 6)] |= 1L << offset;
+                }
+            }
+        }
+        setWords(first, markedWords, presentWords);
+        return dropped;
+    }
+
+    private int offsetFor(long day) {
+        if (marked.length == 0) {
+            origin = day;
+        } else if (day < origin) {
+            if (origin - day > Integer.MAX_VALUE - 64) {
+                throw new IllegalArgumentException("Day " + day + " is too far from the first recorded day");
+            }
+            int shiftWords = (int) ((origin - day + 63) >>> 6);
+            marked = shift(marked, shiftWords);
+            present = shift(present, shiftWords);
+            origin -= (long) shiftWords << 6;
+            rebuildTrees();
+        }
+        long offset = day - origin;
+        if (offset > Integer.MAX_VALUE - 64) {
+            throw new IllegalArgumentException("Day " + day + " is too far from the first recorded day");
+        }
+        int words = (int) (offset >>> 6) + 1;
+        if (words > marked.length) {
+            int capacity = Math.max(words, marked.length * 2);
+            marked = Arrays.copyOf(marked, capacity);
+            present = Arrays.copyOf(present, capacity);
+            rebuildTrees();
+        }
+        return (int) offset;
+    }
+
+    // Set bits at offsets [0, offset]; an offset of -1 counts nothing
+    private static int countThrough(long[] words, int[] tree, int offset) {
+        if (offset < 0) return 0;
+        int word = offset >>> 6;
+        int count = Long.bitCount(words[word] & (-1L >>> (63 - (offset & 63))));
+        for (int i = word; i > 0; i -= i & -i) count += tree[i];
+        return count;
+    }
+
+    private static void adjust(int[] tree, int word, int delta) {
+        for (int i = word + 1; i < tree.length; i += i & -i) tree[i] += delta;
+    }
+
+    // Linear-time Fenwick construction after the word arrays are reallocated
+    private void rebuildTrees() {
+        markedTree = buildTree(marked);
+        presentTree = buildTree(present);
+    }
+
+    private static int[] buildTree(long[] words) {
+        int[] tree = new int[words.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] += Long.bitCount(words[i - 1]);
+            int parent = i + (i & -i);
+            if (parent < tree.length) tree[parent] += tree[i];
+        }
+        return tree;
+    }
+
+    private static long[] shift(long[] words, int shiftWords) {
+        long[] shifted = new long[words.length + shiftWords];
+        System.arraycopy(words, 0, shifted, shiftWords, words.length);
+        return shifted;
+    }
+}
@@ -0,0 +1,243 @@
+// A district of schools, one AttendanceManager shard per institution. Single-person operations
+// route to one shard by institution or by ID prefix; district-wide statistics and issue scans
+// fork one task per shard on a fork-join pool and merge the partial results, so the shards are
+// scanned in parallel and no shard is ever locked by another's work.
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+class AttendanceDistrict {
+    private final String districtName;
+    private final ConcurrentMap<String, AttendanceManager> schools = new ConcurrentSkipListMap<>();
+    // ID prefix to institution; copy-on-write, since routes change rarely and are read per operation
+    private volatile Map<String, String> routes = Collections.emptyMap();
+    private volatile int longestPrefix;
+    private volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    public AttendanceDistrict(String districtName) {
+        if (districtName == null || districtName.trim().isEmpty()) {
+            throw new IllegalArgumentException("District name cannot be null or empty");
+        }
+        this.districtName = districtName.trim();
+    }
+
+    // Adds a school under its institution name; IDs starting with any of the prefixes route to it
+    public synchronized void addSchool(AttendanceManager school, String... idPrefixes) {
+        if (school == null) {
+            throw new IllegalArgumentException("School cannot be null");
+        }
+        String name = school.getInstitutionName();
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("School must have an institution name");
+        }
+        Map<String, String> updated = new HashMap<>(routes);
+        int longest = longestPrefix;
+        for (String prefix : idPrefixes) {
+            if (prefix == null || prefix.isEmpty()) {
+                throw new IllegalArgumentException("ID prefix cannot be null or empty");
+            }
+            String existing = updated.get(prefix);
+            if (existing != null && !existing.equals(name)) {
+                throw new IllegalArgumentException("ID prefix " + prefix + " already routes to " + existing);
+            }
+            updated.put(prefix, name);
+            longest = Math.max(longest, prefix.length());
+        }
+        if (schools.putIfAbsent(name, school) != null) {
+            throw new IllegalArgumentException("School already in district: " + name);
+        }
+        routes = updated;
+        longestPrefix = longest;
+    }
+
+    public AttendanceManager getSchool(String institutionName) {
+        return schools.get(institutionName);
+    }
+
+    public Collection<AttendanceManager> getSchools() {
+        return Collections.unmodifiableCollection(schools.values());
+    }
+
+    public String getDistrictName() { return districtName; }
+
+    public void setPool(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        this.pool = pool;
+    }
+
+    // The school whose longest matching prefix covers the ID, or null when no prefix matches
+    public AttendanceManager route(String id) {
+        if (id == null) return null;
+        Map<String, String> table = routes;
+        for (int length = Math.min(id.length(), longestPrefix); length > 0; length--) {
+            String name = table.get(id.substring(0, length));
+            if (name != null) return schools.get(name);
+        }
+        return null;
+    }
+
+    // The ID must not route to another school, or lookups by ID would never find the person
+    public void registerPerson(String institutionName, Person person) {
+        AttendanceManager school = schools.get(institutionName);
+        if (school == null) {
+            System.err.println("❌ Registration failed: No school named " + institutionName);
+            return;
+        }
+        if (person != null) {
+            AttendanceManager routed = route(person.getId());
+            if (routed != null && routed != school) {
+                System.err.println("❌ Registration failed: ID " + person.getId() + " routes to " +
+                                   routed.getInstitutionName() + ", not " + institutionName);
+                return;
+            }
+        }
+        school.registerPerson(person);
+    }
+
+    // Routed by prefix; IDs no prefix covers are looked up in every school
+    public Person findPerson(String id) {
+        AttendanceManager school = route(id);
+        if (school != null) return school.findPerson(id);
+        for (AttendanceManager candidate : schools.values()) {
+            Person person = candidate.findPerson(id);
+            if (person != null) return person;
+        }
+        return null;
+    }
+
+    public void markAttendanceForPerson(String id, LocalDate date, boolean present) {
+        Person person = findPerson(id);
+        if (person == null) {
+            System.err.println("❌ Attendance marking failed: No person found with ID: " + id);
+            return;
+        }
+        person.getManager().markAttendanceForPerson(id, date, present);
+    }
+
+    // Merged statistics of every school, each computed on its own fork-join task
+    public AttendanceStatistics computeStatistics() {
+        return forEachSchool(AttendanceManager::computeStatistics, AttendanceStatistics::merge, AttendanceStatistics.EMPTY);
+    }
+
+    public Map<String, AttendanceStatistics> computeStatisticsBySchool() {
+        return forEachSchool(school -> Collections.singletonMap(school.getInstitutionName(), school.computeStatistics()),
+                             AttendanceDistrict::concat, Collections.emptyMap());
+    }
+
+    // Everyone below the threshold, by school in institution order, lowest first within each school
+    public Map<String, List<Person>> getPersonsBelow(double threshold) {
+        return forEachSchool(school -> Collections.singletonMap(school.getInstitutionName(), school.getPersonsBelow(threshold)),
+                             AttendanceDistrict::concat, Collections.emptyMap());
+    }
+
+    // The k lowest across the district: each school contributes its own bottom k, merged pairwise
+    public List<Person> getLowestAttendance(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative, got: " + k);
+        }
+        return forEachSchool(school -> school.getLowestAttendance(k), (a, b) -> lowest(a, b, k), Collections.emptyList());
+    }
+
+    public void generateStatistics() {
+        Map<String, AttendanceStatistics> bySchool = computeStatisticsBySchool();
+        AttendanceStatistics total = AttendanceStatistics.EMPTY;
+        for (AttendanceStatistics statistics : bySchool.values()) {
+            total = total.merge(statistics);
+        }
+        System.out.println("\n" + "=".repeat(40));
+        System.out.println("📊 DISTRICT STATISTICS: " + districtName);
+        System.out.println("=".repeat(40));
+        System.out.println("Schools: " + bySchool.size());
+        total.print();
+        for (Map.Entry<String, AttendanceStatistics> entry : bySchool.entrySet()) {
+            AttendanceStatistics statistics = entry.getValue();
+            System.out.println("  " + entry.getKey() + ": " + statistics.getRegistered() + " registered, " +
+                               String.format("%.1f%%", statistics.getAverageAttendance()) + " average, " +
+                               statistics.getBelowRequirement() + " below requirement");
+        }
+    }
+
+    public void identifyAttendanceIssues(double threshold) {
+        System.out.println("\n🚨 DISTRICT ATTENDANCE ISSUES (Below " + threshold + "%):");
+        System.out.println("-".repeat(50));
+        int found = 0;
+        for (Map.Entry<String, List<Person>> entry : getPersonsBelow(threshold).entrySet()) {
+            for (Person person : entry.getValue()) {
+                System.out.println("⚠️  " + entry.getKey() + " - " + person.getRole() + ": " + person.getName() +
+                                   " (" + person.getId() + ") - " +
+                                   String.format("%.1f%%", person.getAttendancePercentage()));
+                found++;
+            }
+        }
+        if (found == 0) {
+            System.out.println("✅ No attendance issues found!");
+        }
+    }
+
+    // Runs compute on every school in parallel and reduces the results in institution order
+    private <T> T forEachSchool(Function<AttendanceManager, T> compute, BinaryOperator<T> merge, T empty) {
+        AttendanceManager[] shards = schools.values().toArray(new AttendanceManager[0]);
+        if (shards.length == 0) return empty;
+        return pool.invoke(new ShardTask<>(shards, 0, shards.length, compute, merge));
+    }
+
+    // Splits the shard range in halves down to single schools, so each school is one task
+    private static final class ShardTask<T> extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final AttendanceManager[] shards;
+        private final int from;
+        private final int to;
+        private final Function<AttendanceManager, T> compute;
+        private final BinaryOperator<T> merge;
+
+        ShardTask(AttendanceManager[] shards, int from, int to,
+                  Function<AttendanceManager, T> compute, BinaryOperator<T> merge) {
+            this.shards = shards;
+            this.from = from;
+            this.to = to;
+            this.compute = compute;
+            this.merge = merge;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - from == 1) {
+                return compute.apply(shards[from]);
+            }
+            int middle = (from + to) >>> 1;
+            ShardTask<T> left = new ShardTask<>(shards, from, middle, compute, merge);
+            left.fork();
+            T right = new ShardTask<>(shards, middle, to, compute, merge).compute();
+            return merge.apply(left.join(), right);
+        }
+    }
+
+    private static <V> Map<String, V> concat(Map<String, V> a, Map<String, V> b) {
+        Map<String, V> merged = new LinkedHashMap<>(a);
+        merged.putAll(b);
+        return merged;
+    }
+
+    // Merges two ascending bottom-k lists into the k lowest overall
+    private static List<Person> lowest(List<Person> a, List<Person> b, int k) {
+        List<Person> merged = new ArrayList<>(Math.min(k, a.size() + b.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < k && (i < a.size() || j < b.size())) {
+            if (j == b.size() || (i < a.size() &&
+                    a.get(i).getAttendancePercentage() <= b.get(j).getAttendancePercentage())) {
+                merged.add(a.get(i++));
+            } else {
+                merged.add(b.get(j++));
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,88 @@
+// Immutable record of something worth reporting; the message is only built when a sink asks for it
+package attendance;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+class AttendanceEvent {
+    enum Type { REGISTERED, MARKED, PARENT_NOTIFIED, SUBSTITUTE_ARRANGED, STUDENT_WARNING, TEACHER_ABSENCE_PROTOCOL }
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+
+    private final Type type;
+    private final Person person;
+    private final LocalDate date;
+    private final boolean present;
+    private final String detail;
+
+    private AttendanceEvent(Type type, Person person, LocalDate date, boolean present, String detail) {
+        this.type = type;
+        this.person = person;
+        this.date = date;
+        this.present = present;
+        this.detail = detail;
+    }
+
+    static AttendanceEvent registered(Person person) {
+        return new AttendanceEvent(Type.REGISTERED, person, null, false, null);
+    }
+
+    static AttendanceEvent marked(Person person, LocalDate date, boolean present) {
+        return new AttendanceEvent(Type.MARKED, person, date, present, null);
+    }
+
+    static AttendanceEvent parentNotified(Student student, LocalDate date) {
+        return new AttendanceEvent(Type.PARENT_NOTIFIED, student, date, false, null);
+    }
+
+    static AttendanceEvent substituteArranged(Teacher teacher, LocalDate date, String subject) {
+        return new AttendanceEvent(Type.SUBSTITUTE_ARRANGED, teacher, date, false, subject);
+    }
+
+    // Low-attendance follow-ups; the detail carries the person's running count
+    static AttendanceEvent studentWarning(Student student, int warningCount) {
+        return new AttendanceEvent(Type.STUDENT_WARNING, student, null, false, Integer.toString(warningCount));
+    }
+
+    static AttendanceEvent teacherAbsenceProtocol(Teacher teacher, int substituteRequests) {
+        return new AttendanceEvent(Type.TEACHER_ABSENCE_PROTOCOL, teacher, null, false, Integer.toString(substituteRequests));
+    }
+
+    public Type getType() { return type; }
+    public Person getPerson() { return person; }
+    public LocalDate getDate() { return date; }
+    public boolean isPresent() { return present; }
+
+    public String format() {
+        switch (type) {
+            case REGISTERED:
+                return "✅ " + person.getRole() + " " + person.getName() +
+                       " registered successfully (ID: " + person.getId() + ")";
+            case MARKED:
+                return "✓ " + person.getRole() + " " + person.getName() + " marked " +
+                       (present ? "PRESENT" : "ABSENT") + " on " + date.format(DATE_FORMAT);
+            case PARENT_NOTIFIED:
+                return "📧 Automated parent notification sent for " + person.getName();
+            case SUBSTITUTE_ARRANGED:
+                return "📋 Substitute arrangement initiated for " + detail + " class";
+            case STUDENT_WARNING:
+                return "🚨 STUDENT WARNING #" + detail + " for " + person.getName() +
+                       "\n   - Parents will be contacted" +
+                       "\n   - Academic probation risk" +
+                       (Integer.parseInt(detail) >= 3 ? "\n   - CRITICAL: Consider academic counseling" : "");
+            case TEACHER_ABSENCE_PROTOCOL:
+                return "🏫 TEACHER ABSENCE PROTOCOL #" + detail + " for " + person.getName() +
+                       "\n   - Substitute teacher arrangement needed" +
+                       "\n   - Department head notification sent" +
+                       "\n   - Student impact assessment required" +
+                       (Integer.parseInt(detail) >= 5 ? "\n   - HR review recommended" : "");
+            default:
+                throw new IllegalStateException("Unknown event type: " + type);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
@@ -0,0 +1,9 @@
+// Destination for attendance events raised on the marking and registration paths
+package attendance;
+
+interface AttendanceEventSink {
+    // Callers skip building events entirely when this returns false
+    boolean isEnabled();
+
+    void publish(AttendanceEvent event);
+}
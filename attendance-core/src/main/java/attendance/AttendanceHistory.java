@@ -0,0 +1,207 @@
+// A school's attendance across terms. Closed terms are TermArchive files in one directory; only
+// their headers are read up front, and each file is mapped when a query first reaches its dates,
+// so years of history cost neither heap nor start-up time. The live term is an ordinary
+// AttendanceManager holding nothing older than its own calendar. Queries by person ID pool the
+// archives' run-length counts with the live records.
+package attendance;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+class AttendanceHistory {
+    private static final String SUFFIX = ".term";
+
+    private final Path directory;
+    private volatile AttendanceManager liveTerm;
+    // Archived terms in date order; copy-on-write, since terms close a few times a year
+    private volatile List<ArchivedTerm> terms = Collections.emptyList();
+
+    private static final class ArchivedTerm {
+        final Path file;
+        final LocalDate start;
+        final LocalDate end;
+        private TermArchive archive;
+
+        ArchivedTerm(Path file, LocalDate start, LocalDate end) {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+        }
+
+        synchronized TermArchive archive() {
+            if (archive == null) {
+                try {
+                    archive = TermArchive.open(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot load term archive " + file, e);
+                }
+            }
+            return archive;
+        }
+
+        synchronized boolean isLoaded() {
+            return archive != null;
+        }
+
+        boolean overlaps(LocalDate from, LocalDate to) {
+            return !start.isAfter(to) && !end.isBefore(from);
+        }
+    }
+
+    // Reads the header of every archive already in the directory, creating it if needed
+    public AttendanceHistory(Path directory, AttendanceManager liveTerm) throws IOException {
+        if (directory == null || liveTerm == null) {
+            throw new IllegalArgumentException("Directory and live term cannot be null");
+        }
+        this.directory = directory;
+        this.liveTerm = liveTerm;
+        Files.createDirectories(directory);
+        List<ArchivedTerm> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : files) {
+                LocalDate[] term = TermArchive.readTerm(file);
+                found.add(new ArchivedTerm(file, term[0], term[1]));
+            }
+        }
+        found.sort(Comparator.comparing(term -> term.start));
+        this.terms = Collections.unmodifiableList(found);
+    }
+
+    public AttendanceManager getLiveTerm() { return liveTerm; }
+    public Path getDirectory() { return directory; }
+    public int getArchivedTermCount() { return terms.size(); }
+
+    // Archives the live term to the directory and makes its successor live; returns the successor.
+    // The closing term refuses marks from the start (AttendanceManager.freeze), so none can land
+    // after the archive is written. The successor is only built once the archive is on disk; if
+    // either step fails the archive is removed and the closing term is reopened and stays live.
+    public AttendanceManager closeTerm(TermCalendar next) throws IOException {
+        return closeTerm(next, null);
+    }
+
+    // As closeTerm(TermCalendar), for a logged live term: the successor logs to nextLog
+    public synchronized AttendanceManager closeTerm(TermCalendar next, AttendanceLog nextLog) throws IOException {
+        AttendanceManager closing = liveTerm;
+        closing.checkNextTerm(next);
+        closing.freeze();
+        try {
+            TermCalendar calendar = closing.getCalendar();
+            Path file = directory.resolve(calendar.getStart() + "_" + calendar.getEnd() + SUFFIX);
+            TermArchive.write(closing, file);
+            AttendanceManager successor;
+            try {
+                successor = nextLog == null ? closing.startNextTerm(next) : closing.startNextTerm(next, nextLog);
+            } catch (IOException | RuntimeException e) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw e;
+            }
+            List<ArchivedTerm> updated = new ArrayList<>(terms);
+            updated.add(new ArchivedTerm(file, calendar.getStart(), calendar.getEnd()));
+            updated.sort(Comparator.comparing(term -> term.start));
+            terms = Collections.unmodifiableList(updated);
+            liveTerm = successor;
+            return successor;
+        } catch (IOException | RuntimeException e) {
+            closing.thaw();
+            throw e;
+        }
+    }
+
+    // The archive covering the date, loaded on first use; null when no closed term covers it
+    public TermArchive getArchive(LocalDate date) {
+        for (ArchivedTerm term : terms) {
+            if (term.overlaps(date, date)) return term.archive();
+        }
+        return null;
+    }
+
+    public int getLoadedArchiveCount() {
+        int loaded = 0;
+        for (ArchivedTerm term : terms) {
+            if (term.isLoaded()) loaded++;
+        }
+        return loaded;
+    }
+
+    // Present count in the high 32 bits, marked count in the low 32 bits, over every term the
+    // inclusive range touches; only the archives it touches are loaded
+    public long getAttendanceCounts(String id, LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range cannot be null");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end " + to + " is before start " + from);
+        }
+        long present = 0;
+        long marked = 0;
+        for (ArchivedTerm term : terms) {
+            if (!term.overlaps(from, to)) continue;
+            long counts = term.archive().getAttendanceCounts(id, from, to);
+            present += counts >>> 32;
+            marked += (int) counts;
+        }
+        AttendanceManager live = liveTerm;
+        TermCalendar calendar = live.getCalendar();
+        Person person = live.findPerson(id);
+        if (person != null && !calendar.getStart().isAfter(to) && !calendar.getEnd().isBefore(from)) {
+            long counts = person.getAttendanceCounts(from, to);
+            present += counts >>> 32;
+            marked += (int) counts;
+        }
+        return (present << 32) | marked;
+    }
+
+    public double getAttendancePercentage(String id, LocalDate from, LocalDate to) {
+        return AttendanceBits.percentageOf(getAttendanceCounts(id, from, to));
+    }
+
+    // Every archived term plus the live one
+    public double getAttendancePercentage(String id) {
+        List<ArchivedTerm> archived = terms;
+        LocalDate from = archived.isEmpty() ? liveTerm.getCalendar().getStart() : archived.get(0).start;
+        return getAttendancePercentage(id, from, liveTerm.getCalendar().getEnd());
+    }
+
+    // Whole-term percentage for each term the person was registered in, keyed by term start
+    public Map<LocalDate, Double> getAttendancePercentageByTerm(String id) {
+        Map<LocalDate, Double> byTerm = new LinkedHashMap<>();
+        for (ArchivedTerm term : terms) {
+            double percentage = term.archive().getAttendancePercentage(id);
+            if (!Double.isNaN(percentage)) {
+                byTerm.put(term.start, percentage);
+            }
+        }
+        AttendanceManager live = liveTerm;
+        Person person = live.findPerson(id);
+        if (person != null) {
+            byTerm.put(live.getCalendar().getStart(), person.getAttendancePercentage());
+        }
+        return byTerm;
+    }
+
+    public void displayHistory(String id) {
+        Map<LocalDate, Double> byTerm;
+        try {
+            byTerm = getAttendancePercentageByTerm(id);
+        } catch (UncheckedIOException e) {
+            System.err.println("❌ History unavailable: " + e.getMessage());
+            return;
+        }
+        if (byTerm.isEmpty()) {
+            System.err.println("❌ No attendance history for ID: " + id);
+            return;
+        }
+        System.out.println("\n📚 ATTENDANCE HISTORY: " + id);
+        for (Map.Entry<LocalDate, Double> term : byTerm.entrySet()) {
+            System.out.println("  Term from " + term.getKey() + ": " + String.format("%.1f%%", term.getValue()));
+        }
+        System.out.println("  Overall: " + String.format("%.1f%%", getAttendancePercentage(id)));
+    }
+}
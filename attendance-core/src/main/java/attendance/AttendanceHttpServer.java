@@ -0,0 +1,340 @@
+// Embedded HTTP API for badge kiosks, on the JDK's built-in server. Each request runs on its own
+// virtual thread where the JDK has them (21+), otherwise on a cached pool of daemon threads.
+//
+//   POST /checkin?id=S001[&date=2025-09-01][&status=P|A]     one mark; date defaults to today
+//   POST /checkin/batch?[date=..][&status=P|A]               body: one ID per line
+//   GET  /persons/{id}                                        profile and attendance
+//   GET  /reports?[format=text|csv|json][&page=0&size=100]   streamed ReportWriter output
+//   GET  /reports/daily?[date=..]                            present/absent totals by role
+//   GET  /metrics                                             AttendanceMetrics text dump
+//
+// Responses are JSON except reports and metrics; errors are {"error": "..."} with 400, 404, 405, 409,
+// 413 or 500. Run with -Dsun.net.httpserver.nodelay=true: the JDK server has no per-server socket options,
+// and without TCP_NODELAY the separate header and body writes stall ~40 ms on delayed ACKs.
+package attendance;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+
+class AttendanceHttpServer implements Closeable {
+    private static final int MAX_BATCH_BODY = 16 * 1024 * 1024;
+
+    // Status carried from a handler to the response
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private interface Endpoint {
+        void handle(HttpExchange exchange, Map<String, String> params) throws IOException;
+    }
+
+    private final AttendanceManager manager;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public AttendanceHttpServer(AttendanceManager manager, InetSocketAddress address) throws IOException {
+        if (manager == null || address == null) {
+            throw new IllegalArgumentException("Manager and address cannot be null");
+        }
+        this.manager = manager;
+        this.server = HttpServer.create(address, 1024);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        route("/checkin", "POST", this::checkIn);
+        route("/checkin/batch", "POST", this::checkInBatch);
+        route("/persons/", "GET", this::person);
+        route("/reports", "GET", this::report);
+        route("/reports/daily", "GET", this::dailyTotals);
+        route("/metrics", "GET", this::metrics);
+    }
+
+    // Binds to the port (0 picks a free one) on all interfaces and starts serving
+    public static AttendanceHttpServer start(AttendanceManager manager, int port) throws IOException {
+        AttendanceHttpServer server = new AttendanceHttpServer(manager, new InetSocketAddress(port));
+        server.server.start();
+        return server;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // Stops accepting connections and gives in-flight requests a second to finish
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    private static ExecutorService newRequestExecutor() {
+        try {
+            return AttendanceManager.newVirtualThreadExecutor();
+        } catch (UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "attendance-http");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void route(String path, String method, Endpoint endpoint) {
+        server.createContext(path, exchange -> {
+            try {
+                try {
+                    // Contexts match by prefix; only /persons/ takes a trailing path segment
+                    String requestPath = exchange.getRequestURI().getPath();
+                    if (!path.endsWith("/") && !requestPath.equals(path)) {
+                        throw new HttpError(404, "No such endpoint: " + requestPath);
+                    }
+                    if (!method.equals(exchange.getRequestMethod())) {
+                        exchange.getResponseHeaders().set("Allow", method);
+                        throw new HttpError(405, method + " required");
+                    }
+                    endpoint.handle(exchange, params(exchange.getRequestURI().getRawQuery()));
+                } catch (HttpError e) {
+                    sendJson(exchange, e.status, "{\"error\":" + json(e.getMessage()) + "}");
+                } catch (IllegalArgumentException e) {
+                    sendJson(exchange, 400, "{\"error\":" + json(e.getMessage()) + "}");
+                } catch (IllegalStateException e) {
+                    // A frozen term refuses marks; the request was fine, the term is not
+                    sendJson(exchange, 409, "{\"error\":" + json(e.getMessage()) + "}");
+                }
+            } catch (IOException e) {
+                // The client went away; nothing left to tell it
+            } catch (RuntimeException e) {
+                System.err.println("❌ HTTP request failed: " + e);
+                sendServerError(exchange);
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    // A 500 for a failure the handler did not map to a status; once a response has started there is
+    // nothing left to send, and closing the exchange ends it
+    private static void sendServerError(HttpExchange exchange) {
+        if (exchange.getResponseCode() != -1) return;
+        try {
+            sendJson(exchange, 500, "{\"error\":\"Internal server error\"}");
+        } catch (IOException e) {
+            // The client went away
+        }
+    }
+
+    private void checkIn(HttpExchange exchange, Map<String, String> params) throws IOException {
+        Person person = requirePerson(params.get("id"));
+        LocalDate date = dateParam(params);
+        boolean present = statusParam(params);
+        int dayIndex = schoolDay(date);
+        manager.markAttendance(person.getHandle(), dayIndex, present);
+        sendJson(exchange, 200, "{\"id\":" + json(person.getId()) + ",\"date\":\"" + date +
+                                "\",\"present\":" + present + "}");
+    }
+
+    private void checkInBatch(HttpExchange exchange, Map<String, String> params) throws IOException {
+        LocalDate date = dateParam(params);
+        boolean present = statusParam(params);
+        schoolDay(date);
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BATCH_BODY + 1);
+        if (body.length > MAX_BATCH_BODY) {
+            throw new HttpError(413, "Batch body is larger than " + MAX_BATCH_BODY + " bytes");
+        }
+        List<String> ids = new ArrayList<>();
+        for (String line : new String(body, StandardCharsets.UTF_8).split("\n")) {
+            String id = line.trim();
+            if (!id.isEmpty()) ids.add(id);
+        }
+        BulkMarkResult result = manager.bulkMarkAttendance(ids, date, present);
+        StringBuilder text = new StringBuilder(64 + result.getFailureCount() * 16);
+        text.append("{\"date\":\"").append(date).append("\",\"present\":").append(present)
+            .append(",\"marked\":").append(result.getSuccessCount()).append(",\"failed\":[");
+        List<String> failed = result.getFailedIds();
+        for (int i = 0; i < failed.size(); i++) {
+            if (i > 0) text.append(',');
+            text.append(json(failed.get(i)));
+        }
+        sendJson(exchange, 200, text.append("]}").toString());
+    }
+
+    private void person(HttpExchange exchange, Map<String, String> params) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        Person person = requirePerson(path.substring("/persons/".length()));
+        double attendance = person.getAttendancePercentage();
+        AttendanceBits bits = person.getAttendanceBits();
+        StringBuilder text = new StringBuilder(256);
+        text.append("{\"id\":").append(json(person.getId()))
+            .append(",\"name\":").append(json(person.getName()))
+            .append(",\"role\":").append(json(person.getRole()))
+            .append(",\"attendance\":").append(String.format(Locale.ROOT, "%.1f", attendance))
+            .append(",\"required\":").append(person.getMinimumAttendanceRequirement())
+            .append(",\"meetsRequirement\":").append(attendance >= person.getMinimumAttendanceRequirement())
+            .append(",\"markedDays\":").append(bits.getMarkedCount())
+            .append(",\"presentDays\":").append(bits.getPresentCount());
+        if (person instanceof Student) {
+            Student student = (Student) person;
+            text.append(",\"grade\":").append(json(student.getGrade()))
+                .append(",\"gpa\":").append(student.getGpa())
+                .append(",\"subjects\":").append(jsonArray(student.getSubjects()));
+        } else if (person instanceof Teacher) {
+            Teacher teacher = (Teacher) person;
+            text.append(",\"subject\":").append(json(teacher.getSubject()))
+                .append(",\"experience\":").append(teacher.getYearsExperience())
+                .append(",\"qualifications\":").append(jsonArray(teacher.getQualifications()));
+        }
+        sendJson(exchange, 200, text.append('}').toString());
+    }
+
+    private void report(HttpExchange exchange, Map<String, String> params) throws IOException {
+        ReportWriter.Format format;
+        try {
+            format = ReportWriter.Format.valueOf(params.getOrDefault("format", "text").toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(400, "Unknown report format: " + params.get("format"));
+        }
+        ReportWriter writer = manager.report(format);
+        if (params.containsKey("page") || params.containsKey("size")) {
+            writer.page(intParam(params, "page", 0), intParam(params, "size", 100));
+        }
+        String contentType = format == ReportWriter.Format.JSON ? "application/json"
+                           : format == ReportWriter.Format.CSV ? "text/csv" : "text/plain";
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        // Length 0 means chunked: the report streams without being held in memory
+        exchange.sendResponseHeaders(200, 0);
+        writer.writeTo(Channels.newChannel(exchange.getResponseBody()));
+    }
+
+    private void dailyTotals(HttpExchange exchange, Map<String, String> params) throws IOException {
+        DayTotals totals = manager.getDailyTotals(dateParam(params));
+        StringBuilder text = new StringBuilder(128);
+        text.append("{\"date\":\"").append(totals.getDate()).append("\",\"present\":").append(totals.getPresent())
+            .append(",\"absent\":").append(totals.getAbsent()).append(",\"roles\":{");
+        List<String> roles = totals.getRoles();
+        for (int i = 0; i < roles.size(); i++) {
+            String role = roles.get(i);
+            if (i > 0) text.append(',');
+            text.append(json(role)).append(":{\"present\":").append(totals.getPresent(role))
+                .append(",\"absent\":").append(totals.getAbsent(role)).append('}');
+        }
+        sendJson(exchange, 200, text.append("}}").toString());
+    }
+
+    private void metrics(HttpExchange exchange, Map<String, String> params) throws IOException {
+        byte[] bytes = manager.getMetrics().dump().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private Person requirePerson(String id) {
+        if (id == null || id.isEmpty()) {
+            throw new HttpError(400, "Missing person ID");
+        }
+        Person person = manager.findPerson(id);
+        if (person == null) {
+            throw new HttpError(404, "No person found with ID: " + id);
+        }
+        return person;
+    }
+
+    private int schoolDay(LocalDate date) {
+        int dayIndex = manager.getCalendar().indexOf(date);
+        if (dayIndex < 0) {
+            throw new HttpError(400, "Not a school day: " + date);
+        }
+        return dayIndex;
+    }
+
+    private static LocalDate dateParam(Map<String, String> params) {
+        String value = params.get("date");
+        if (value == null) return LocalDate.now();
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new HttpError(400, "Invalid date: " + value);
+        }
+    }
+
+    // P, present or true mark present; A, absent or false mark absent; present when omitted
+    private static boolean statusParam(Map<String, String> params) {
+        String value = params.getOrDefault("status", "P");
+        switch (value.toLowerCase()) {
+            case "p": case "present": case "true": return true;
+            case "a": case "absent": case "false": return false;
+            default: throw new HttpError(400, "Invalid status: " + value);
+        }
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, "Invalid " + name + ": " + value);
+        }
+    }
+
+    private static Map<String, String> params(String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) return Collections.emptyMap();
+        Map<String, String> params = new HashMap<>();
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static String jsonArray(List<String> values) {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) text.append(',');
+            text.append(json(values.get(i)));
+        }
+        return text.append(']').toString();
+    }
+
+    private static String json(String value) {
+        StringBuilder text = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                text.append('\\').append(c);
+            } else if (c < 0x20) {
+                text.append(String.format("\\u%04x", (int) c));
+            } else {
+                text.append(c);
+            }
+        }
+        return text.append('"').toString();
+    }
+}
@@ -0,0 +1,588 @@
+// Append-only write-ahead log of registrations, profile changes and attendance marks.
+//
+// File layout: an 8-byte header (magic, version) followed by records of
+//   [int length][int crc32][byte type][payload]
+// where length and crc32 cover the type byte and payload. Writers encode into a
+// shared buffer and a single flusher thread writes and fsyncs whatever has
+// accumulated, so concurrent writers share one fsync (group commit). Writers block once
+// MAX_PENDING_BYTES are waiting for the flusher, so a stalled disk slows them instead of
+// growing the buffer without bound.
+package attendance;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.LongFunction;
+import java.util.zip.CRC32;
+
+class AttendanceLog implements Closeable {
+    enum Durability {
+        // Callers wait until their record has been fsynced
+        SYNC,
+        // Callers return once the record is buffered; the flusher fsyncs every commit interval
+        ASYNC
+    }
+
+    interface ReplayHandler {
+        void registered(Person person);
+        // The whole current profile of an already registered person
+        void profileUpdated(Person profile);
+        void marked(String id, LocalDate date, boolean present);
+    }
+
+    private static final int MAGIC = 0x4154574C; // "ATWL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final int MAX_PENDING_BYTES = 8 << 20;
+
+    private static final byte TYPE_STUDENT = 1;
+    private static final byte TYPE_TEACHER = 2;
+    private static final byte TYPE_MARK = 3;
+    private static final byte TYPE_STUDENT_PROFILE = 4;
+    private static final byte TYPE_TEACHER_PROFILE = 5;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Durability durability;
+    private final long commitIntervalNanos;
+    private final CRC32 crc = new CRC32();
+    private final Object lock = new Object();
+
+    // Guarded by lock
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer flushing = ByteBuffer.allocate(64 * 1024);
+    private long appendedLsn;
+    private long durableLsn;
+    private boolean replayed;
+    private boolean closed;
+    private IOException failure;
+
+    private Thread flusher;
+
+    private AttendanceLog(Path file, FileChannel channel, Durability durability, long commitIntervalNanos) {
+        this.file = file;
+        this.channel = channel;
+        this.durability = durability;
+        this.commitIntervalNanos = commitIntervalNanos;
+    }
+
+    // Opens (or creates) a log. commitIntervalMicros is how long the flusher lingers to
+    // gather more writers into one fsync: larger values mean fewer fsyncs, higher latency.
+    public static AttendanceLog open(Path file, Durability durability, long commitIntervalMicros) throws IOException {
+        if (file == null || durability == null) {
+            throw new IllegalArgumentException("Log file and durability cannot be null");
+        }
+        if (commitIntervalMicros < 0) {
+            throw new IllegalArgumentException("Commit interval cannot be negative, got: " + commitIntervalMicros);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                               StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+                header.flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+                channel.force(true);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                channel.read(header, 0);
+                header.flip();
+                if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                    throw new IOException("Not an attendance log (or unsupported version): " + file);
+                }
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new AttendanceLog(file, channel, durability, commitIntervalMicros * 1000L);
+    }
+
+    public Path getFile() { return file; }
+    public Durability getDurability() { return durability; }
+
+    // Position just past the last appended record; replaying from here skips everything logged so far
+    public long getAppendedPosition() {
+        synchronized (lock) {
+            return replayed ? appendedLsn : HEADER_SIZE;
+        }
+    }
+
+    // Feeds every intact record to the handler, cuts off a torn or corrupt tail and
+    // readies the log for appends. Returns the number of records replayed.
+    public long replay(ReplayHandler handler) throws IOException {
+        return replay(handler, HEADER_SIZE);
+    }
+
+    // Runs action with the appended position while no record can be appended, so whatever the
+    // action captures (a read view, for snapshots) lines up exactly with that position
+    <T> T atAppendedPosition(LongFunction<T> action) {
+        synchronized (lock) {
+            return action.apply(getAppendedPosition());
+        }
+    }
+
+    // Replays only the records at or after fromPosition, e.g. those written after a snapshot
+    public long replay(ReplayHandler handler, long fromPosition) throws IOException {
+        synchronized (lock) {
+            if (replayed) {
+                throw new IllegalStateException("Log has already been replayed");
+            }
+        }
+        if (fromPosition < HEADER_SIZE || fromPosition > channel.size()) {
+            throw new IOException("Log position " + fromPosition + " is outside " + file +
+                                  " (" + channel.size() + " bytes); the log is older than the snapshot");
+        }
+        long position = fromPosition;
+        long records = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        channel.position(position);
+        buffer.limit(0);
+        while (true) {
+            if (!fill(buffer, RECORD_HEADER_SIZE)) break;
+            int length = buffer.getInt(buffer.position());
+            int checksum = buffer.getInt(buffer.position() + 4);
+            if (length <= 0 || length > MAX_RECORD_SIZE) break;
+            if (buffer.capacity() < RECORD_HEADER_SIZE + length) {
+                ByteBuffer larger = ByteBuffer.allocate(RECORD_HEADER_SIZE + length);
+                larger.put(buffer).flip();
+                buffer = larger;
+            }
+            if (!fill(buffer, RECORD_HEADER_SIZE + length)) break;
+            int start = buffer.position() + RECORD_HEADER_SIZE;
+            crc.reset();
+            crc.update(buffer.array(), start, length);
+            if ((int) crc.getValue() != checksum) break;
+            ByteBuffer record = buffer.duplicate();
+            record.position(start).limit(start + length);
+            decode(record, handler);
+            buffer.position(start + length);
+            position += RECORD_HEADER_SIZE + length;
+            records++;
+        }
+        if (channel.size() > position) {
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+        synchronized (lock) {
+            appendedLsn = position;
+            durableLsn = position;
+            replayed = true;
+            flusher = new Thread(this::flushLoop, "attendance-log-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+        return records;
+    }
+
+    public long appendRegistration(Person person) {
+        return appendProfile(person, false);
+    }
+
+    // Records a registered person's profile after one of its details changed; replay applies it
+    // to the person the earlier registration created
+    public long appendProfileUpdate(Person person) {
+        return appendProfile(person, true);
+    }
+
+    private long appendProfile(Person person, boolean update) {
+        ByteBuffer record = ByteBuffer.allocate(256);
+        if (person instanceof Student) {
+            Student student = (Student) person;
+            record = putString(record, student.getId());
+            record = putString(record, student.getName());
+            record = putString(record, student.getGrade());
+            record = ensure(record, 8).putDouble(student.getGpa());
+            record = putStrings(record, student.getSubjects());
+            return append(update ? TYPE_STUDENT_PROFILE : TYPE_STUDENT, record);
+        }
+        if (person instanceof Teacher) {
+            Teacher teacher = (Teacher) person;
+            record = putString(record, teacher.getId());
+            record = putString(record, teacher.getName());
+            record = putString(record, teacher.getSubject());
+            record = ensure(record, 12).putInt(teacher.getYearsExperience()).putDouble(teacher.getSalary());
+            record = putStrings(record, teacher.getQualifications());
+            return append(update ? TYPE_TEACHER_PROFILE : TYPE_TEACHER, record);
+        }
+        throw new IllegalArgumentException("Unsupported person type: " + person.getClass().getSimpleName());
+    }
+
+    // Encodes straight into the shared buffer; returns the log position to wait on
+    public long appendMark(String id, LocalDate date, boolean present) {
+        return appendMark(id, date.toEpochDay(), present);
+    }
+
+    public long appendMark(String id, long epochDay, boolean present) {
+        int idBytes = utf8Length(id);
+        int length = 1 + varIntLength(idBytes) + idBytes + 4 + 1;
+        synchronized (lock) {
+            ByteBuffer buffer = reserve(RECORD_HEADER_SIZE + length);
+            int start = buffer.position();
+            buffer.position(start + RECORD_HEADER_SIZE);
+            buffer.put(TYPE_MARK);
+            putVarInt(buffer, idBytes);
+            putUtf8(buffer, id, idBytes);
+            buffer.putInt((int) epochDay);
+            buffer.put((byte) (present ? 1 : 0));
+            return seal(buffer, start, length);
+        }
+    }
+
+    // Blocks until the given position is durable when running in SYNC mode
+    public void awaitDurable(long lsn) {
+        if (durability != Durability.SYNC) return;
+        synchronized (lock) {
+            boolean interrupted = false;
+            while (durableLsn < lsn && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (durableLsn < lsn) {
+                throw new UncheckedIOException("Attendance log write failed", failure);
+            }
+        }
+    }
+
+    // Waits for everything appended so far to reach the disk, whatever the durability mode
+    public void sync() {
+        synchronized (lock) {
+            long lsn = appendedLsn;
+            while (durableLsn < lsn && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            if (durableLsn < lsn) {
+                throw new UncheckedIOException("Attendance log write failed", failure);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        Thread thread;
+        synchronized (lock) {
+            if (closed) return;
+            closed = true;
+            thread = flusher;
+            lock.notifyAll();
+        }
+        if (thread != null) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        channel.close();
+        synchronized (lock) {
+            if (failure != null) throw failure;
+        }
+    }
+
+    private long append(byte type, ByteBuffer payload) {
+        payload.flip();
+        int length = 1 + payload.remaining();
+        if (length > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Log record too large: " + length + " bytes");
+        }
+        synchronized (lock) {
+            ByteBuffer buffer = reserve(RECORD_HEADER_SIZE + length);
+            int start = buffer.position();
+            buffer.position(start + RECORD_HEADER_SIZE);
+            buffer.put(type);
+            buffer.put(payload);
+            return seal(buffer, start, length);
+        }
+    }
+
+    // Called with lock held: fills in length and checksum and publishes the record
+    private long seal(ByteBuffer buffer, int start, int length) {
+        crc.reset();
+        crc.update(buffer.array(), start + RECORD_HEADER_SIZE, length);
+        buffer.putInt(start, length);
+        buffer.putInt(start + 4, (int) crc.getValue());
+        appendedLsn += RECORD_HEADER_SIZE + length;
+        if (buffer.position() == RECORD_HEADER_SIZE + length) {
+            lock.notifyAll();
+        }
+        return appendedLsn;
+    }
+
+    // Called with lock held and the log writable; waits while the flusher is behind by
+    // MAX_PENDING_BYTES, which releases the lock to it
+    private ByteBuffer reserve(int bytes) {
+        boolean interrupted = false;
+        while (pending.position() > 0 && pending.position() + bytes > MAX_PENDING_BYTES && failure == null && !closed) {
+            try {
+                lock.wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        checkWritable();
+        if (pending.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+        return pending;
+    }
+
+    private void checkWritable() {
+        if (!replayed) {
+            throw new IllegalStateException("Log must be replayed before appending");
+        }
+        if (closed) {
+            throw new IllegalStateException("Log is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Attendance log write failed", failure);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer batch;
+            long batchLsn;
+            synchronized (lock) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        // Only close() stops the flusher
+                    }
+                }
+                if (pending.position() == 0) {
+                    return;
+                }
+                if (commitIntervalNanos > 0 && !closed) {
+                    long deadline = System.nanoTime() + commitIntervalNanos;
+                    long remaining;
+                    while ((remaining = deadline - System.nanoTime()) > 0 && !closed) {
+                        try {
+                            lock.wait(remaining / 1_000_000, (int) (remaining % 1_000_000));
+                        } catch (InterruptedException e) {
+                            // Keep lingering until the deadline
+                        }
+                    }
+                }
+                batch = pending;
+                pending = flushing;
+                flushing = batch;
+                batchLsn = appendedLsn;
+            }
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+                batch.clear();
+                synchronized (lock) {
+                    durableLsn = batchLsn;
+                    lock.notifyAll();
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    private boolean fill(ByteBuffer buffer, int needed) throws IOException {
+        if (buffer.remaining() >= needed) return true;
+        buffer.compact();
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) < 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    private void decode(ByteBuffer record, ReplayHandler handler) {
+        byte type = record.get();
+        switch (type) {
+            case TYPE_STUDENT:
+            case TYPE_STUDENT_PROFILE: {
+                String id = getString(record);
+                String name = getString(record);
+                String grade = getString(record);
+                Student student = new Student(name, id, grade, record.getDouble());
+                for (String subject : getStrings(record)) {
+                    student.addSubject(subject);
+                }
+                if (type == TYPE_STUDENT) {
+                    handler.registered(student);
+                } else {
+                    handler.profileUpdated(student);
+                }
+                break;
+            }
+            case TYPE_TEACHER:
+            case TYPE_TEACHER_PROFILE: {
+                String id = getString(record);
+                String name = getString(record);
+                String subject = getString(record);
+                int years = record.getInt();
+                Teacher teacher = new Teacher(name, id, subject, years, record.getDouble());
+                for (String qualification : getStrings(record)) {
+                    teacher.addQualification(qualification);
+                }
+                if (type == TYPE_TEACHER) {
+                    handler.registered(teacher);
+                } else {
+                    handler.profileUpdated(teacher);
+                }
+                break;
+            }
+            case TYPE_MARK: {
+                String id = getString(record);
+                LocalDate date = LocalDate.ofEpochDay(record.getInt());
+                handler.marked(id, date, record.get() != 0);
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown log record type: " + type);
+        }
+    }
+
+    private static ByteBuffer ensure(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) return buffer;
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+        buffer.flip();
+        return larger.put(buffer);
+    }
+
+    private static ByteBuffer putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer = ensure(buffer, 5 + bytes.length);
+        putVarInt(buffer, bytes.length);
+        return buffer.put(bytes);
+    }
+
+    private static ByteBuffer putStrings(ByteBuffer buffer, List<String> values) {
+        buffer = ensure(buffer, 5);
+        putVarInt(buffer, values.size());
+        for (String value : values) {
+            buffer = putString(buffer, value);
+        }
+        return buffer;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = getVarInt(buffer);
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static List<String> getStrings(ByteBuffer buffer) {
+        int count = getVarInt(buffer);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(getString(buffer));
+        }
+        return values;
+    }
+
+    // Same rule as String.getBytes(UTF_8), which registrations use: a surrogate pair is 4 bytes
+    // and an unpaired surrogate is written as '?', so marks and registrations of an ID match
+    private static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) length += 1;
+            else if (c < 0x800) length += 2;
+            else if (isSurrogatePair(value, i)) { length += 4; i++; }
+            else if (Character.isSurrogate(c)) length += 1;
+            else length += 3;
+        }
+        return length;
+    }
+
+    // Allocation-free UTF-8 encode; byteLength comes from utf8Length
+    private static void putUtf8(ByteBuffer buffer, String value, int byteLength) {
+        if (byteLength == value.length()) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                buffer.put(Character.isSurrogate(c) ? (byte) '?' : (byte) c);
+            }
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6))).put((byte) (0x80 | (c & 0x3F)));
+            } else if (isSurrogatePair(value, i)) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (cp >> 18))).put((byte) (0x80 | ((cp >> 12) & 0x3F)))
+                      .put((byte) (0x80 | ((cp >> 6) & 0x3F))).put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12))).put((byte) (0x80 | ((c >> 6) & 0x3F)))
+                      .put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static boolean isSurrogatePair(String value, int index) {
+        return Character.isHighSurrogate(value.charAt(index)) && index + 1 < value.length() &&
+               Character.isLowSurrogate(value.charAt(index + 1));
+    }
+
+    private static int varIntLength(int value) {
+        int length = 1;
+        while ((value >>>= 7) != 0) length++;
+        return length;
+    }
+
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalStateException("Malformed varint in attendance log");
+    }
+}
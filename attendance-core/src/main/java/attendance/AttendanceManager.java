@@ -0,0 +1,825 @@
+// AttendanceManager class
+// Safe for concurrent check-ins: the registry is a ConcurrentHashMap and each
+// person's attendance record serializes its own writes.
+package attendance;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+class AttendanceManager {
+    private final ConcurrentMap<String, Person> personRegistry;
+    private final TermCalendar calendar;
+    private String institutionName;
+    private volatile Executor bulkExecutor = ForkJoinPool.commonPool();
+    private volatile int bulkBatchSize = 1024;
+    private volatile AttendanceEventSink eventSink = new ConsoleEventSink();
+    private final AttendanceMetrics metrics = new AttendanceMetrics(this);
+    private volatile AttendancePolicyEngine policyEngine = AttendancePolicyEngine.standard();
+    private volatile NotificationOutbox notificationOutbox =
+        new NotificationOutbox(this, NotificationOutbox.eventSinkTransport(this));
+    private volatile AttendanceLog log;
+    private final Object registrationLock = new Object();
+    private final AttendanceThresholdIndex thresholdIndex = new AttendanceThresholdIndex();
+    private final PersonIndex personIndex = new PersonIndex();
+    private final DailyRollup dailyRollup;
+    // Registered persons by handle; grown and written under registrationLock. Slots below
+    // registeredCount never change again, which is what lets read views share the table
+    private volatile Person[] byHandle = new Person[64];
+    private int handleCount;
+    private volatile int registeredCount;
+    // Read views: the epoch handed to the newest, and the oldest still open (Long.MAX_VALUE when none)
+    private final TreeSet<Long> openViews = new TreeSet<>();
+    private volatile long viewEpoch;
+    private volatile long oldestOpenView = Long.MAX_VALUE;
+    // Where registered persons' attendance words live; null keeps them on the heap. Guarded by registrationLock
+    private AttendanceStore attendanceStore;
+    // Set while the term is being archived: marks and registrations are refused
+    private volatile boolean frozen;
+    // Restored marks that fell outside the calendar, reported once recovery finishes
+    private int droppedMarks;
+
+    public AttendanceManager(String institutionName) {
+        this(institutionName, defaultCalendar());
+    }
+
+    public AttendanceManager(String institutionName, TermCalendar calendar) {
+        if (calendar == null) {
+            throw new IllegalArgumentException("Calendar cannot be null");
+        }
+        this.institutionName = institutionName;
+        this.personRegistry = new ConcurrentHashMap<>();
+        this.calendar = calendar;
+        this.dailyRollup = new DailyRollup(calendar);
+    }
+
+    // Durable manager: rebuilds the registry and attendance from the log, then logs every change.
+    // The calendar is always explicit here: marks outside it are dropped on restore, so a default
+    // that moves with the current date would lose history as it ages.
+    public AttendanceManager(String institutionName, TermCalendar calendar, AttendanceLog log) throws IOException {
+        this(institutionName, calendar);
+        attachLog(log, 0);
+        reportDroppedMarks();
+    }
+
+    // Starts from a snapshot; when a log is given, only the records written after the snapshot are replayed
+    public AttendanceManager(AttendanceSnapshot snapshot, TermCalendar calendar, AttendanceLog log) throws IOException {
+        this(snapshot.getInstitutionName(), calendar);
+        snapshot.restoreInto(this);
+        if (log != null) {
+            attachLog(log, snapshot.getLogPosition());
+        }
+        reportDroppedMarks();
+    }
+
+    // Ten weekdays starting ten days ago, the window the system has always tracked by default; only for
+    // in-memory managers, since it moves with the current date
+    static TermCalendar defaultCalendar() {
+        return TermCalendar.weekdaysFrom(LocalDate.now().minusDays(10), 10);
+    }
+
+    private void reportDroppedMarks() {
+        if (droppedMarks > 0) {
+            System.err.println("⚠️  Skipped " + droppedMarks + " restored marks outside the term calendar (" + calendar +
+                               ") or for unknown IDs");
+        }
+    }
+
+    // Restored marks skipped during recovery
+    int getDroppedMarkCount() {
+        return droppedMarks;
+    }
+
+    private void attachLog(AttendanceLog log, long fromPosition) throws IOException {
+        if (log == null) {
+            throw new IllegalArgumentException("Log cannot be null");
+        }
+        AttendanceLog.ReplayHandler handler = new AttendanceLog.ReplayHandler() {
+            @Override
+            public void registered(Person person) {
+                restorePerson(person);
+            }
+
+            @Override
+            public void profileUpdated(Person profile) {
+                Person person = personRegistry.get(profile.getId());
+                if (person != null) {
+                    person.restoreProfile(profile);
+                }
+            }
+
+            @Override
+            public void marked(String id, LocalDate date, boolean present) {
+                // A mark for an unknown ID means the log and snapshot disagree; count it rather than hide it
+                Person person = personRegistry.get(id);
+                if (person == null || !person.restoreAttendance(date, present)) {
+                    droppedMarks++;
+                }
+            }
+        };
+        if (fromPosition > 0) {
+            log.replay(handler, fromPosition);
+        } else {
+            log.replay(handler);
+        }
+        this.log = log;
+    }
+
+    // Adds a recovered person without logging or events; replays may repeat a registration
+    void restorePerson(Person person) {
+        synchronized (registrationLock) {
+            if (personRegistry.containsKey(person.getId())) return;
+            index(person);
+            personRegistry.put(person.getId(), person);
+        }
+    }
+
+    // A person belongs to one manager at a time; caller holds the person's record lock
+    private static void checkUnowned(Person person) {
+        AttendanceManager owner = person.getManager();
+        if (owner != null) {
+            throw new IllegalArgumentException("Person " + person.getId() + " is already registered with " +
+                                               owner.getInstitutionName());
+        }
+    }
+
+    // Assigns the next handle and adds the person to every index; caller holds registrationLock
+    private void index(Person person) {
+        Person[] table = byHandle;
+        int handle = handleCount;
+        if (handle == table.length) {
+            table = Arrays.copyOf(table, table.length * 2);
+        }
+        // Counting existing marks and attaching under the record's lock lets no mark slip between them.
+        // The secondary indexes are filled after attaching and under the same lock, which the Student
+        // and Teacher setters also take, so a profile change lands either before the add or after it
+        synchronized (person.getAttendanceBits()) {
+            checkUnowned(person);
+            handleCount++;
+            person.setHandle(handle);
+            droppedMarks += person.attachTo(this);
+            personIndex.add(person);
+            dailyRollup.add(person);
+            if (attendanceStore != null) {
+                attendanceStore.ensureCapacity(handle + 1);
+                person.getAttendanceBits().moveTo(attendanceStore, handle);
+            }
+        }
+        thresholdIndex.add(person);
+        // Published last, so markAttendance(int, ...) only ever sees fully attached persons
+        table[handle] = person;
+        byHandle = table;
+        registeredCount = handleCount;
+    }
+
+    // Moves every registered person's attendance words into the store, one row per handle, or back
+    // onto the heap when store is null; later registrations follow. The previous store is detached
+    // but not closed: close it to free its memory.
+    public void setAttendanceStore(AttendanceStore store) {
+        synchronized (registrationLock) {
+            AttendanceStore previous = attendanceStore;
+            if (store == previous) return;
+            if (store != null) {
+                if ((long) store.getWordsPerRow() << 6 < calendar.size()) {
+                    throw new IllegalArgumentException("Attendance store rows hold " + (store.getWordsPerRow() << 6) +
+                                                       " days; the calendar has " + calendar.size());
+                }
+                store.attach(this);
+                store.ensureCapacity(handleCount);
+            }
+            Person[] table = byHandle;
+            for (int handle = 0; handle < handleCount; handle++) {
+                table[handle].getAttendanceBits().moveTo(store, handle);
+            }
+            attendanceStore = store;
+            if (previous != null) {
+                previous.detach(this);
+            }
+        }
+    }
+
+    public AttendanceStore getAttendanceStore() {
+        synchronized (registrationLock) {
+            return attendanceStore;
+        }
+    }
+
+    // Opens a consistent view of the registry and attendance as they stand now; close it when done
+    public AttendanceView openView() {
+        synchronized (openViews) {
+            long epoch = viewEpoch + 1;
+            openViews.add(epoch);
+            oldestOpenView = openViews.first();
+            // Published after oldestOpenView, so a writer that sees this epoch also sees it open
+            viewEpoch = epoch;
+            int size = registeredCount;
+            return new AttendanceView(this, epoch, byHandle, size);
+        }
+    }
+
+    void closeView(long epoch) {
+        synchronized (openViews) {
+            openViews.remove(epoch);
+            oldestOpenView = openViews.isEmpty() ? Long.MAX_VALUE : openViews.first();
+        }
+    }
+
+    long getViewEpoch() {
+        return viewEpoch;
+    }
+
+    long getOldestOpenView() {
+        return oldestOpenView;
+    }
+
+    // A manager for the following term with the same institution, event sink, policy engine, bulk
+    // executor and notification outbox settings (NotificationOutbox.forNextTerm), and a copy of every
+    // registered profile without attendance. This manager keeps the closed term until it is archived
+    // (TermArchive, AttendanceHistory.closeTerm) and dropped. The log and attendance store hold this
+    // term's records, so they are not shared: a logged term must start its successor with
+    // startNextTerm(TermCalendar, AttendanceLog), and a successor that should live in a store needs
+    // its own through setAttendanceStore.
+    public AttendanceManager startNextTerm(TermCalendar next) {
+        checkNextTerm(next);
+        if (log != null) {
+            throw new IllegalStateException("This term is logged; give the next term its own log");
+        }
+        return carryOver(new AttendanceManager(institutionName, next));
+    }
+
+    // As startNextTerm(TermCalendar), logging the successor, and the profiles it starts with, to nextLog
+    public AttendanceManager startNextTerm(TermCalendar next, AttendanceLog nextLog) throws IOException {
+        checkNextTerm(next);
+        if (nextLog == null) {
+            throw new IllegalArgumentException("Log cannot be null");
+        }
+        if (nextLog == log) {
+            throw new IllegalArgumentException("The next term needs a log of its own");
+        }
+        return carryOver(new AttendanceManager(institutionName, next, nextLog));
+    }
+
+    void checkNextTerm(TermCalendar next) {
+        if (next == null) {
+            throw new IllegalArgumentException("Next term calendar cannot be null");
+        }
+        if (!next.getStart().isAfter(calendar.getEnd())) {
+            throw new IllegalArgumentException("Next term must start after " + calendar.getEnd() + ", got: " + next.getStart());
+        }
+    }
+
+    private AttendanceManager carryOver(AttendanceManager successor) {
+        successor.setEventSink(eventSink);
+        successor.setPolicyEngine(policyEngine);
+        successor.setBulkExecutor(bulkExecutor);
+        successor.setBulkBatchSize(bulkBatchSize);
+        successor.setNotificationOutbox(notificationOutbox.forNextTerm(successor));
+        List<Person> profiles = new ArrayList<>();
+        for (Person person : getAllPersons()) {
+            profiles.add(person.copyProfile());
+        }
+        successor.registerAll(profiles);
+        return successor;
+    }
+
+    // Refuses further marks and registrations and waits for those already under way, so the records
+    // stay fixed while the term is archived; thaw() reopens the term if archiving fails
+    void freeze() {
+        synchronized (registrationLock) {
+            frozen = true;
+            // A mark checks the flag under its record's lock, so taking each lock once drains any in flight
+            Person[] table = byHandle;
+            for (int handle = 0; handle < registeredCount; handle++) {
+                synchronized (table[handle].getAttendanceBits()) {
+                    // Acquiring the lock is the wait
+                }
+            }
+        }
+    }
+
+    void thaw() {
+        frozen = false;
+    }
+
+    void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Term " + calendar + " is closed for marking");
+        }
+    }
+
+    // Writes a point-in-time columnar snapshot; with a log attached it records how much of the log
+    // it covers. The roster, the log position and the read view are all taken under
+    // registrationLock and with appends held off, so every registration and mark logged before the
+    // position is in the snapshot, and anything after it is replayed on restore.
+    public void writeSnapshot(Path file) throws IOException {
+        long[] logPosition = new long[1];
+        AttendanceView view;
+        synchronized (registrationLock) {
+            AttendanceLog currentLog = log;
+            view = currentLog == null ? openView() : currentLog.atAppendedPosition(position -> {
+                logPosition[0] = position;
+                return openView();
+            });
+        }
+        try (view) {
+            AttendanceSnapshot.write(view, file, logPosition[0]);
+        }
+    }
+
+    // Marks a person brings to registration must fall on this manager's school days
+    private void checkSchoolDays(Person person) {
+        person.forEachMark((day, present) -> {
+            if (calendar.indexOf(day) < 0) {
+                throw new IllegalArgumentException("Person " + person.getId() + " has attendance on a non-school day: "
+                                                   + LocalDate.ofEpochDay(day));
+            }
+        });
+    }
+
+    public void registerPerson(Person person) {
+        long start = System.nanoTime();
+        try {
+            if (person == null) {
+                throw new IllegalArgumentException("Person cannot be null");
+            }
+            AttendanceLog currentLog = log;
+            long logPosition = 0;
+            synchronized (registrationLock) {
+                checkNotFrozen();
+                if (personRegistry.containsKey(person.getId())) {
+                    throw new IllegalArgumentException("Person with ID " + person.getId() + " already exists");
+                }
+                // The record's lock spans the ownership check, logging and indexing, so another manager
+                // cannot claim the person and no unowned mark can land between the log and the attach
+                synchronized (person.getAttendanceBits()) {
+                    checkUnowned(person);
+                    checkSchoolDays(person);
+                    if (currentLog != null) {
+                        logPosition = currentLog.appendRegistration(person);
+                        for (Map.Entry<LocalDate, Boolean> mark : person.getAttendanceRecord().entrySet()) {
+                            logPosition = currentLog.appendMark(person.getId(), mark.getKey(), mark.getValue());
+                        }
+                    }
+                    index(person);
+                }
+                personRegistry.put(person.getId(), person);
+            }
+            if (currentLog != null) {
+                currentLog.awaitDurable(logPosition);
+            }
+            AttendanceEventSink sink = eventSink;
+            if (sink.isEnabled()) {
+                sink.publish(AttendanceEvent.registered(person));
+            }
+        } catch (Exception e) {
+            System.err.println("❌ Registration failed: " + e.getMessage());
+        } finally {
+            metrics.record(AttendanceMetrics.Operation.REGISTER, start);
+        }
+    }
+
+    // Registers persons in order under one lock acquisition and waits for the log once.
+    // Returns the positions of persons rejected as null, duplicate IDs, owned by another manager
+    // or marked on non-school days.
+    BitSet registerAll(List<? extends Person> persons) {
+        BitSet rejected = new BitSet();
+        List<Person> accepted = new ArrayList<>(persons.size());
+        AttendanceLog currentLog = log;
+        long logPosition = 0;
+        synchronized (registrationLock) {
+            checkNotFrozen();
+            for (int i = 0; i < persons.size(); i++) {
+                Person person = persons.get(i);
+                if (person == null || personRegistry.containsKey(person.getId())) {
+                    rejected.set(i);
+                    continue;
+                }
+                synchronized (person.getAttendanceBits()) {
+                    try {
+                        checkUnowned(person);
+                        checkSchoolDays(person);
+                    } catch (IllegalArgumentException e) {
+                        rejected.set(i);
+                        continue;
+                    }
+                    if (currentLog != null) {
+                        logPosition = currentLog.appendRegistration(person);
+                        for (Map.Entry<LocalDate, Boolean> mark : person.getAttendanceRecord().entrySet()) {
+                            logPosition = currentLog.appendMark(person.getId(), mark.getKey(), mark.getValue());
+                        }
+                    }
+                    index(person);
+                }
+                personRegistry.put(person.getId(), person);
+                accepted.add(person);
+            }
+        }
+        if (currentLog != null) {
+            currentLog.awaitDurable(logPosition);
+        }
+        AttendanceEventSink sink = eventSink;
+        if (sink.isEnabled()) {
+            for (Person person : accepted) {
+                sink.publish(AttendanceEvent.registered(person));
+            }
+        }
+        return rejected;
+    }
+
+    public Person findPerson(String id) {
+        return personRegistry.get(id);
+    }
+
+    public Person getPersonById(String id) {
+        return personRegistry.get(id);
+    }
+
+    // Resolves the ID and date once, then takes the handle-based path
+    public void markAttendanceForPerson(String id, LocalDate date, boolean present) {
+        long start = metrics.startMark();
+        try {
+            Person person = findPerson(id);
+            if (person == null) {
+                throw new IllegalArgumentException("No person found with ID: " + id);
+            }
+            if (date == null) {
+                throw new IllegalArgumentException("Date cannot be null");
+            }
+            int dayIndex = calendar.indexOf(date);
+            if (dayIndex < 0) {
+                throw new IllegalArgumentException("Not a school day: " + date);
+            }
+            // The handle path's own timing is skipped so each call reads the clock only twice
+            person.recordAttendance(dayIndex, present, true);
+        } catch (Exception e) {
+            metrics.markFailed();
+            System.err.println("❌ Attendance marking failed: " + e.getMessage());
+        } finally {
+            metrics.record(AttendanceMetrics.Operation.MARK_BY_ID, start);
+        }
+    }
+
+    // Allocation-free hot path: the handle comes from registration (Person.getHandle) and the
+    // day index from the calendar. Nothing is allocated per call while the event sink is disabled.
+    public void markAttendance(int handle, int dayIndex, boolean present) {
+        long start = metrics.startMark();
+        try {
+            Person person = personAt(handle);
+            if (person == null) {
+                throw new IllegalArgumentException("No person registered with handle: " + handle);
+            }
+            if (dayIndex < 0 || dayIndex >= calendar.size()) {
+                throw new IllegalArgumentException("School day index " + dayIndex + " is outside 0.." + (calendar.size() - 1));
+            }
+            person.recordAttendance(dayIndex, present, true);
+        } catch (RuntimeException e) {
+            metrics.markFailed();
+            throw e;
+        } finally {
+            metrics.record(AttendanceMetrics.Operation.MARK, start);
+        }
+    }
+
+    // Handle of a registered person, or -1 when the ID is unknown
+    public int handleOf(String id) {
+        Person person = personRegistry.get(id);
+        return person == null ? -1 : person.getHandle();
+    }
+
+    // Marks every ID, splitting lists larger than the batch size across the bulk executor
+    public BulkMarkResult bulkMarkAttendance(List<String> ids, LocalDate date, boolean present) {
+        if (ids == null) {
+            throw new IllegalArgumentException("ID list cannot be null");
+        }
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        long start = System.nanoTime();
+        try {
+            return bulkMark(ids, date, present);
+        } finally {
+            metrics.record(AttendanceMetrics.Operation.BULK_MARK, start);
+        }
+    }
+
+    private BulkMarkResult bulkMark(List<String> ids, LocalDate date, boolean present) {
+        int batchSize = bulkBatchSize;
+        Executor executor = bulkExecutor;
+        if (ids.size() <= batchSize || executor == null) {
+            return markBatch(ids, date, present);
+        }
+        List<CompletableFuture<BulkMarkResult>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<String> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> markBatch(batch, date, present), executor));
+        }
+        List<BulkMarkResult> parts = new ArrayList<>(batches.size());
+        for (CompletableFuture<BulkMarkResult> batch : batches) {
+            parts.add(batch.join());
+        }
+        return BulkMarkResult.merge(parts);
+    }
+
+    private BulkMarkResult markBatch(List<String> ids, LocalDate date, boolean present) {
+        int successful = 0;
+        List<String> failedIds = new ArrayList<>();
+        for (String id : ids) {
+            Person person = id == null ? null : personRegistry.get(id);
+            if (person == null) {
+                metrics.markFailed();
+                failedIds.add(id);
+                continue;
+            }
+            try {
+                person.recordAttendance(date, present, false);
+                successful++;
+            } catch (RuntimeException e) {
+                metrics.markFailed();
+                failedIds.add(id);
+            }
+        }
+        return new BulkMarkResult(successful, failedIds);
+    }
+
+    long logMark(Person person, int dayIndex, boolean present) {
+        AttendanceLog currentLog = log;
+        return currentLog != null ? currentLog.appendMark(person.getId(), calendar.epochDayOf(dayIndex), present) : 0;
+    }
+
+    // previous is the day's former AttendanceBits state, so overwrites move counts instead of adding them
+    void attendanceChanged(Person person, int dayIndex, int previous, boolean present) {
+        dailyRollup.record(person.getRole(), dayIndex, previous, present);
+        thresholdIndex.update(person);
+    }
+
+    // Called under the person's record lock after a profile detail changed
+    long logProfile(Person person) {
+        AttendanceLog currentLog = log;
+        return currentLog != null ? currentLog.appendProfileUpdate(person) : 0;
+    }
+
+    void gradeChanged(Student student, String previousGrade) {
+        personIndex.gradeChanged(student, previousGrade);
+    }
+
+    void subjectAdded(Student student, String subject) {
+        personIndex.subjectAdded(student, subject);
+    }
+
+    void teachingSubjectChanged(Teacher teacher, String previousSubject) {
+        personIndex.teachingSubjectChanged(teacher, previousSubject);
+    }
+
+    Person personAt(int handle) {
+        Person[] table = byHandle;
+        return handle >= 0 && handle < table.length ? table[handle] : null;
+    }
+
+    PersonIndex getPersonIndex() {
+        return personIndex;
+    }
+
+    void awaitDurable(long logPosition) {
+        AttendanceLog currentLog = log;
+        if (currentLog != null && logPosition > 0) {
+            currentLog.awaitDurable(logPosition);
+        }
+    }
+
+    public AttendanceEventSink getEventSink() {
+        return eventSink;
+    }
+
+    public void setEventSink(AttendanceEventSink eventSink) {
+        if (eventSink == null) {
+            throw new IllegalArgumentException("Event sink cannot be null");
+        }
+        this.eventSink = eventSink;
+    }
+
+    public AttendanceMetrics getMetrics() {
+        return metrics;
+    }
+
+    public AttendancePolicyEngine getPolicyEngine() {
+        return policyEngine;
+    }
+
+    // Existing persons are re-banded against the new engine's thresholds without firing rules;
+    // marks racing with the switch may be evaluated once against the new engine
+    public void setPolicyEngine(AttendancePolicyEngine policyEngine) {
+        if (policyEngine == null) {
+            throw new IllegalArgumentException("Policy engine cannot be null");
+        }
+        synchronized (registrationLock) {
+            this.policyEngine = policyEngine;
+            for (Person person : personRegistry.values()) {
+                person.resetPolicyBand(policyEngine);
+            }
+        }
+    }
+
+    public NotificationOutbox getNotificationOutbox() {
+        return notificationOutbox;
+    }
+
+    // Alerts still queued in the previous outbox stay there; flush or close it first
+    public void setNotificationOutbox(NotificationOutbox outbox) {
+        if (outbox == null) {
+            throw new IllegalArgumentException("Notification outbox cannot be null");
+        }
+        this.notificationOutbox = outbox;
+    }
+
+    public Executor getBulkExecutor() {
+        return bulkExecutor;
+    }
+
+    public void setBulkExecutor(Executor executor) {
+        this.bulkExecutor = executor;
+    }
+
+    public int getBulkBatchSize() {
+        return bulkBatchSize;
+    }
+
+    public void setBulkBatchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, got: " + batchSize);
+        }
+        this.bulkBatchSize = batchSize;
+    }
+
+    // Virtual-thread-per-task executor on JDK 21+, looked up reflectively so older JDKs still compile
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads require JDK 21 or newer", e);
+        }
+    }
+
+    public void generateComprehensiveReport() {
+        long start = System.nanoTime();
+        try {
+            printComprehensiveReport();
+        } finally {
+            metrics.record(AttendanceMetrics.Operation.REPORT, start);
+        }
+    }
+
+    // Streams the TEXT report to standard output: one row per person from a single view, then the totals
+    private void printComprehensiveReport() {
+        try {
+            // Not closed: that would close System.out; writeTo flushes it
+            report(ReportWriter.Format.TEXT).writeTo(new OutputStreamWriter(System.out));
+        } catch (IOException e) {
+            System.err.println("❌ Report failed: " + e.getMessage());
+        }
+    }
+
+    // One pass over the registry; AttendanceDistrict merges these across schools
+    public AttendanceStatistics computeStatistics() {
+        int registered = 0;
+        int studentCount = 0;
+        int teacherCount = 0;
+        double totalAttendance = 0;
+        int belowRequirement = 0;
+        for (Person person : personRegistry.values()) {
+            registered++;
+            if (person instanceof Student) {
+                studentCount++;
+            } else if (person instanceof Teacher) {
+                teacherCount++;
+            }
+            double attendance = person.getAttendancePercentage();
+            totalAttendance += attendance;
+            if (attendance < person.getMinimumAttendanceRequirement()) {
+                belowRequirement++;
+            }
+        }
+        return new AttendanceStatistics(registered, studentCount, teacherCount, totalAttendance,
+                                        belowRequirement, calendar.size());
+    }
+
+    public void identifyAttendanceIssues(double threshold) {
+        System.out.println("\n🚨 ATTENDANCE ISSUES (Below " + threshold + "%):");
+        System.out.println("-".repeat(50));
+        List<Person> issues = thresholdIndex.findBelow(threshold);
+        for (Person person : issues) {
+            System.out.println("⚠️  " + person.getRole() + ": " + person.getName() +
+                             " (" + person.getId() + ") - " +
+                             String.format("%.1f%%", person.getAttendancePercentage()));
+        }
+        if (issues.isEmpty()) {
+            System.out.println("✅ No attendance issues found!");
+        }
+    }
+
+    // Everyone strictly below the threshold, answered from the threshold index
+    public List<Person> getPersonsBelow(double threshold) {
+        return thresholdIndex.findBelow(threshold);
+    }
+
+    public List<Person> getPersonsBelow(String role, double threshold) {
+        return thresholdIndex.findBelow(role, threshold);
+    }
+
+    // The k persons with the lowest attendance, lowest first
+    public List<Person> getLowestAttendance(int k) {
+        return thresholdIndex.findBottom(k);
+    }
+
+    // Pooled attendance (all present marks over all marks) for everyone in the inclusive range
+    public double getAttendancePercentage(LocalDate from, LocalDate to) {
+        return getAttendancePercentage(personRegistry.values(), from, to);
+    }
+
+    public double getAttendancePercentage(String role, LocalDate from, LocalDate to) {
+        return query().role(role).attendancePercentage(from, to);
+    }
+
+    public static double getAttendancePercentage(Collection<? extends Person> cohort, LocalDate from, LocalDate to) {
+        if (cohort == null) {
+            throw new IllegalArgumentException("Cohort cannot be null");
+        }
+        long present = 0;
+        long marked = 0;
+        for (Person person : cohort) {
+            long counts = person.getAttendanceCounts(from, to);
+            marked += (int) counts;
+            present += (int) (counts >>> 32);
+        }
+        return marked == 0 ? 0.0 : present * 100.0 / marked;
+    }
+
+    // Present and absent counts by role for one day, from counters kept by the mark path
+    public DayTotals getDailyTotals(LocalDate date) {
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        return dailyRollup.totals(date);
+    }
+
+    // One entry per school day in the inclusive range, independent of registry size
+    public List<DayTotals> getDailyTotals(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range cannot be null");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end " + to + " is before start " + from);
+        }
+        return dailyRollup.totals(calendar.ceilingIndex(from), calendar.floorIndex(to));
+    }
+
+    public int countBelowRequirement(String role) {
+        return thresholdIndex.countBelowRequirement(role);
+    }
+
+    public int countBelowRequirement() {
+        return thresholdIndex.countBelowRequirement();
+    }
+
+    // Live view of the registry for single-pass readers such as ReportWriter
+    Collection<Person> persons() {
+        return personRegistry.values();
+    }
+
+    // Composite lookup by role, grade, subject and attendance, answered from the secondary indexes
+    public PersonQuery query() {
+        return new PersonQuery(this);
+    }
+
+    public Set<String> getGrades() {
+        return personIndex.getGrades();
+    }
+
+    public Set<String> getSubjects() {
+        return personIndex.getSubjects();
+    }
+
+    public ReportWriter report(ReportWriter.Format format) {
+        return new ReportWriter(this, format);
+    }
+
+    // Everyone registered so far, in registration order; an immutable view, not a copy
+    public List<Person> getAllPersons() {
+        int size = registeredCount;
+        return Collections.unmodifiableList(Arrays.asList(byHandle).subList(0, size));
+    }
+
+    public List<LocalDate> getSchoolDays() {
+        return calendar.getSchoolDays();
+    }
+
+    public TermCalendar getCalendar() {
+        return calendar;
+    }
+
+    public String getInstitutionName() {
+        return institutionName;
+    }
+}
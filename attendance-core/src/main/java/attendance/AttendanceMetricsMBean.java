@@ -0,0 +1,17 @@
+// Management interface of AttendanceMetrics; JMX only introspects public interfaces
+package attendance;
+
+public interface AttendanceMetricsMBean {
+    String getInstitutionName();
+    int getRegisteredCount();
+    long getMarkCount();
+    long getMarkFailureCount();
+    double getMarksPerSecond();
+    int getBelowRequirementCount();
+    String[] getOperations();
+
+    // Operations: per-operation figures, named as in getOperations()
+    long getOperationCount(String operation);
+    double getLatencyMicros(String operation, double percentile);
+    String dump();
+}
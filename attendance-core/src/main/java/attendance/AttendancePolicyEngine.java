@@ -0,0 +1,157 @@
+// Low-attendance policies driven by the mark path instead of by reports.
+// Each mark places the person in a band: how many thresholds (their role's requirement plus the
+// configured tiers) their percentage is below. Only a band change signals the engine, which waits
+// out the debounce window on a background scheduler and then fires its rules once, if the person
+// still sits in a different band from the last one it fired for. Rules never run on the caller.
+package attendance;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class AttendancePolicyEngine {
+    interface Rule {
+        void onCrossing(PolicyCrossing crossing);
+    }
+
+    // The original report-time behaviour, now fired once per drop below the requirement
+    static final Rule LOW_ATTENDANCE = crossing -> {
+        Person person = crossing.getPerson();
+        if (crossing.crossedBelow(person.getMinimumAttendanceRequirement())) {
+            person.handleLowAttendance();
+        }
+    };
+
+    // One daemon thread shared by every engine that does not bring its own scheduler
+    private static final class SharedScheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "attendance-policy");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Last fired position of one person; pending while an evaluation is scheduled.
+    // Only persons between a band change and its settled evaluation keep one
+    private static final class State {
+        final AtomicBoolean pending = new AtomicBoolean();
+        int firedBand;
+        double firedPercentage;
+
+        State(int band, double percentage) {
+            this.firedBand = band;
+            this.firedPercentage = percentage;
+        }
+    }
+
+    private final double[] tiers;
+    private final List<Rule> rules = new CopyOnWriteArrayList<>();
+    private final ConcurrentMap<Person, State> states = new ConcurrentHashMap<>();
+    private volatile long debounceMillis = 250;
+    private volatile ScheduledExecutorService scheduler;
+
+    // Tiers are extra thresholds, in percent, watched in addition to each role's requirement
+    public AttendancePolicyEngine(double... tiers) {
+        for (double tier : tiers) {
+            if (tier <= 0 || tier > 100) {
+                throw new IllegalArgumentException("Tier must be in (0, 100], got: " + tier);
+            }
+        }
+        this.tiers = tiers.clone();
+        Arrays.sort(this.tiers);
+    }
+
+    // Engine with no extra tiers running LOW_ATTENDANCE, as every manager starts with
+    public static AttendancePolicyEngine standard() {
+        return new AttendancePolicyEngine().addRule(LOW_ATTENDANCE);
+    }
+
+    public AttendancePolicyEngine addRule(Rule rule) {
+        if (rule == null) {
+            throw new IllegalArgumentException("Rule cannot be null");
+        }
+        rules.add(rule);
+        return this;
+    }
+
+    public boolean removeRule(Rule rule) {
+        return rules.remove(rule);
+    }
+
+    // How long a person's band must settle before rules run; flips inside the window coalesce
+    public AttendancePolicyEngine debounce(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Debounce cannot be negative, got: " + millis);
+        }
+        this.debounceMillis = millis;
+        return this;
+    }
+
+    public AttendancePolicyEngine scheduler(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    public double[] getTiers() {
+        return tiers.clone();
+    }
+
+    // Thresholds the counts fall below; a person with no marks is not below anything
+    int bandOf(Person person, long counts) {
+        double percentage = effectivePercentage(counts);
+        int band = percentage < person.getMinimumAttendanceRequirement() ? 1 : 0;
+        for (int i = tiers.length - 1; i >= 0 && percentage < tiers[i]; i--) {
+            band++;
+        }
+        return band;
+    }
+
+    static double effectivePercentage(long counts) {
+        return (int) counts == 0 ? 100.0 : AttendanceBits.percentageOf(counts);
+    }
+
+    // Called from the mark path, under the record's lock, after the person's band changed;
+    // only allocates on a crossing
+    void signal(Person person, int previousBand, long previousCounts) {
+        State state = states.get(person);
+        if (state == null) {
+            state = states.computeIfAbsent(person, key -> new State(previousBand, effectivePercentage(previousCounts)));
+        }
+        if (state.pending.compareAndSet(false, true)) {
+            State scheduled = state;
+            ScheduledExecutorService executor = scheduler;
+            (executor != null ? executor : SharedScheduler.INSTANCE)
+                .schedule(() -> evaluate(person, scheduled), debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void evaluate(Person person, State state) {
+        PolicyCrossing crossing = null;
+        synchronized (state) {
+            state.pending.set(false);
+            // Signals arrive under the record's lock, so none can slip in between reading the counts
+            // and retiring the state; the next signal starts a fresh one from the band it leaves
+            synchronized (person.getAttendanceBits()) {
+                long counts = person.getAttendanceBits().getCounts();
+                int band = bandOf(person, counts);
+                if (band != state.firedBand) {
+                    double percentage = effectivePercentage(counts);
+                    crossing = new PolicyCrossing(person, state.firedPercentage, percentage, state.firedBand, band);
+                    state.firedBand = band;
+                    state.firedPercentage = percentage;
+                }
+                if (!state.pending.get()) {
+                    states.remove(person, state);
+                }
+            }
+        }
+        if (crossing == null) return;
+        for (Rule rule : rules) {
+            try {
+                rule.onCrossing(crossing);
+            } catch (RuntimeException e) {
+                System.err.println("Policy rule failed for " + person.getId() + ": " + e.getMessage());
+            }
+        }
+    }
+}
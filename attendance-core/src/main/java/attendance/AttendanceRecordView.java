@@ -0,0 +1,67 @@
+// Read-only Map view of one immutable attendance version, in date order. Day numbers are
+// school-day indexes when a calendar is given and epoch days otherwise; nothing is copied.
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+
+class AttendanceRecordView extends AbstractMap<LocalDate, Boolean> {
+    private final AttendanceBits.Version version;
+    private final TermCalendar calendar;
+
+    AttendanceRecordView(AttendanceBits.Version version, TermCalendar calendar) {
+        this.version = version;
+        this.calendar = calendar;
+    }
+
+    @Override
+    public int size() {
+        return version.getMarkedCount();
+    }
+
+    @Override
+    public Boolean get(Object key) {
+        if (!(key instanceof LocalDate)) return null;
+        LocalDate date = (LocalDate) key;
+        long day = calendar == null ? date.toEpochDay() : calendar.indexOf(date);
+        if (day < 0 && calendar != null) return null;
+        int state = version.stateOf(day);
+        return state == AttendanceBits.UNMARKED ? null : state == AttendanceBits.PRESENT;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Set<Entry<LocalDate, Boolean>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public int size() {
+                return version.getMarkedCount();
+            }
+
+            @Override
+            public Iterator<Entry<LocalDate, Boolean>> iterator() {
+                return new Iterator<>() {
+                    private long next = version.nextMarkedDay(Long.MIN_VALUE);
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public Entry<LocalDate, Boolean> next() {
+                        if (next == Long.MAX_VALUE) throw new NoSuchElementException();
+                        long day = next;
+                        next = version.nextMarkedDay(day);
+                        LocalDate date = calendar == null ? LocalDate.ofEpochDay(day) : calendar.dateOf((int) day);
+                        return new SimpleImmutableEntry<>(date, version.stateOf(day) == AttendanceBits.PRESENT);
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,442 @@
+// Point-in-time columnar snapshot of a manager, read back through a memory-mapped file.
+//
+// Layout: a fixed header, a section table, then one 8-byte-aligned segment per column.
+// String columns are an int offset table (count + 1 entries) followed by UTF-8 bytes;
+// the two attendance matrices hold wordsPerRow longs per person, bit d = firstDay + d.
+// Reads go straight to the mapping, so pages are only faulted in when a column is used.
+package attendance;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32;
+
+class AttendanceSnapshot {
+    private static final int MAGIC = 0x4154534E; // "ATSN"
+    private static final int VERSION = 1;
+
+    private static final int ROLE_STUDENT = 0;
+    private static final int ROLE_TEACHER = 1;
+
+    private static final int COL_ROLE = 0;
+    private static final int COL_ID = 1;
+    private static final int COL_NAME = 2;
+    private static final int COL_GRADE = 3;
+    private static final int COL_GPA = 4;
+    private static final int COL_SUBJECT = 5;
+    private static final int COL_EXPERIENCE = 6;
+    private static final int COL_SALARY = 7;
+    private static final int COL_TAG_OFFSETS = 8;
+    private static final int COL_TAGS = 9;
+    private static final int COL_MARKED = 10;
+    private static final int COL_PRESENT = 11;
+    private static final int COLUMN_COUNT = 12;
+
+    // magic, version, personCount, wordsPerRow, firstDay, dayCount, bodyCrc, logPosition, createdAt,
+    // institution name offset and length
+    private static final int HEADER_SIZE = 64;
+    private static final int SECTION_TABLE_SIZE = COLUMN_COUNT * 16;
+
+    private final Path file;
+    private final ByteBuffer data;
+    private final int personCount;
+    private final int wordsPerRow;
+    private final long firstDay;
+    private final int dayCount;
+    private final long logPosition;
+    private final long createdAt;
+    private final int bodyCrc;
+    private final String institutionName;
+    private final long[] sectionOffsets = new long[COLUMN_COUNT];
+    private Map<String, Integer> rowsById;
+
+    private AttendanceSnapshot(Path file, ByteBuffer data) throws IOException {
+        this.file = file;
+        this.data = data;
+        if (data.capacity() < HEADER_SIZE + SECTION_TABLE_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not an attendance snapshot: " + file);
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + data.getInt(4) + ": " + file);
+        }
+        this.personCount = data.getInt(8);
+        this.wordsPerRow = data.getInt(12);
+        this.firstDay = data.getLong(16);
+        this.dayCount = data.getInt(24);
+        this.bodyCrc = data.getInt(28);
+        this.logPosition = data.getLong(32);
+        this.createdAt = data.getLong(40);
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            sectionOffsets[column] = data.getLong(HEADER_SIZE + column * 16);
+        }
+        long institutionOffset = data.getLong(48);
+        int institutionLength = data.getInt(56);
+        byte[] institution = new byte[institutionLength];
+        data.duplicate().position((int) institutionOffset).get(institution);
+        this.institutionName = new String(institution, StandardCharsets.UTF_8);
+    }
+
+    public static AttendanceSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot larger than 2 GB is not supported: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.BIG_ENDIAN);
+            return new AttendanceSnapshot(file, mapped);
+        }
+    }
+
+    // Writes the state a read view saw to file, replacing it atomically. The attendance matrices
+    // span the manager's whole calendar, so no mark can fall outside a row.
+    // logPosition records how much of the write-ahead log the snapshot already covers.
+    public static void write(AttendanceView view, Path file, long logPosition) throws IOException {
+        List<Person> persons = view.getPersons();
+        int count = persons.size();
+        TermCalendar calendar = view.getCalendar();
+        long firstDay = calendar.size() == 0 ? 0 : calendar.getStart().toEpochDay();
+        int dayCount = calendar.size() == 0 ? 0 : (int) (calendar.getEnd().toEpochDay() - firstDay + 1);
+        int wordsPerRow = (dayCount + 63) >>> 6;
+
+        byte[] roles = new byte[count];
+        byte[][] ids = new byte[count][];
+        byte[][] names = new byte[count][];
+        byte[][] grades = new byte[count][];
+        byte[][] subjects = new byte[count][];
+        double[] gpas = new double[count];
+        int[] experience = new int[count];
+        double[] salaries = new double[count];
+        int[] tagOffsets = new int[count + 1];
+        List<byte[]> tags = new ArrayList<>();
+        for (int row = 0; row < count; row++) {
+            Person person = persons.get(row);
+            ids[row] = utf8(person.getId());
+            names[row] = utf8(person.getName());
+            List<String> personTags;
+            if (person instanceof Student) {
+                Student student = (Student) person;
+                roles[row] = ROLE_STUDENT;
+                grades[row] = utf8(student.getGrade());
+                subjects[row] = new byte[0];
+                gpas[row] = student.getGpa();
+                personTags = student.getSubjects();
+            } else if (person instanceof Teacher) {
+                Teacher teacher = (Teacher) person;
+                roles[row] = ROLE_TEACHER;
+                grades[row] = new byte[0];
+                subjects[row] = utf8(teacher.getSubject());
+                gpas[row] = Double.NaN;
+                experience[row] = teacher.getYearsExperience();
+                salaries[row] = teacher.getSalary();
+                personTags = teacher.getQualifications();
+            } else {
+                throw new IllegalArgumentException("Unsupported person type: " + person.getClass().getSimpleName());
+            }
+            for (String tag : personTags) {
+                tags.add(utf8(tag));
+            }
+            tagOffsets[row + 1] = tags.size();
+        }
+        byte[] institution = utf8(view.getInstitutionName());
+
+        long[] sizes = new long[COLUMN_COUNT];
+        sizes[COL_ROLE] = count;
+        sizes[COL_ID] = stringColumnSize(ids);
+        sizes[COL_NAME] = stringColumnSize(names);
+        sizes[COL_GRADE] = stringColumnSize(grades);
+        sizes[COL_GPA] = 8L * count;
+        sizes[COL_SUBJECT] = stringColumnSize(subjects);
+        sizes[COL_EXPERIENCE] = 4L * count;
+        sizes[COL_SALARY] = 8L * count;
+        sizes[COL_TAG_OFFSETS] = 4L * (count + 1);
+        sizes[COL_TAGS] = stringColumnSize(tags.toArray(new byte[0][]));
+        sizes[COL_MARKED] = 8L * count * wordsPerRow;
+        sizes[COL_PRESENT] = 8L * count * wordsPerRow;
+        long[] offsets = new long[COLUMN_COUNT];
+        long position = HEADER_SIZE + SECTION_TABLE_SIZE;
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            offsets[column] = position;
+            position = align(position + sizes[column]);
+        }
+        long institutionOffset = position;
+        long total = position + institution.length;
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot larger than 2 GB is not supported (" + total + " bytes)");
+        }
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, total);
+            for (int column = 0; column < COLUMN_COUNT; column++) {
+                out.putLong(HEADER_SIZE + column * 16, offsets[column]);
+                out.putLong(HEADER_SIZE + column * 16 + 8, sizes[column]);
+            }
+            out.position((int) offsets[COL_ROLE]);
+            out.put(roles);
+            putStringColumn(out, offsets[COL_ID], ids);
+            putStringColumn(out, offsets[COL_NAME], names);
+            putStringColumn(out, offsets[COL_GRADE], grades);
+            putStringColumn(out, offsets[COL_SUBJECT], subjects);
+            putStringColumn(out, offsets[COL_TAGS], tags.toArray(new byte[0][]));
+            for (int row = 0; row < count; row++) {
+                out.putDouble((int) offsets[COL_GPA] + 8 * row, gpas[row]);
+                out.putInt((int) offsets[COL_EXPERIENCE] + 4 * row, experience[row]);
+                out.putDouble((int) offsets[COL_SALARY] + 8 * row, salaries[row]);
+            }
+            for (int row = 0; row <= count; row++) {
+                out.putInt((int) offsets[COL_TAG_OFFSETS] + 4 * row, tagOffsets[row]);
+            }
+            final long origin = firstDay;
+            for (int row = 0; row < count; row++) {
+                final int rowBase = 8 * row * wordsPerRow;
+                view.forEachMark(persons.get(row), (day, present) -> {
+                    int offset = (int) (day - origin);
+                    int wordOffset = rowBase + 8 * (offset >>> 6);
+                    long bit = 1L << offset;
+                    int markedAt = (int) offsets[COL_MARKED] + wordOffset;
+                    out.putLong(markedAt, out.getLong(markedAt) | bit);
+                    if (present) {
+                        int presentAt = (int) offsets[COL_PRESENT] + wordOffset;
+                        out.putLong(presentAt, out.getLong(presentAt) | bit);
+                    }
+                });
+            }
+            out.position((int) institutionOffset);
+            out.put(institution);
+
+            out.putInt(0, MAGIC);
+            out.putInt(4, VERSION);
+            out.putInt(8, count);
+            out.putInt(12, wordsPerRow);
+            out.putLong(16, firstDay);
+            out.putInt(24, dayCount);
+            out.putInt(28, bodyCrc(out, total));
+            out.putLong(32, logPosition);
+            out.putLong(40, System.currentTimeMillis());
+            out.putLong(48, institutionOffset);
+            out.putInt(56, institution.length);
+            out.force();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Path getFile() { return file; }
+    public String getInstitutionName() { return institutionName; }
+    public int getPersonCount() { return personCount; }
+    public LocalDate getFirstDay() { return dayCount == 0 ? null : LocalDate.ofEpochDay(firstDay); }
+    public int getDayCount() { return dayCount; }
+    public long getLogPosition() { return logPosition; }
+    public long getCreatedAt() { return createdAt; }
+
+    public String getId(int row) { return string(COL_ID, row); }
+    public String getName(int row) { return string(COL_NAME, row); }
+
+    public String getRole(int row) {
+        return data.get((int) sectionOffsets[COL_ROLE] + checkRow(row)) == ROLE_STUDENT ? "Student" : "Teacher";
+    }
+
+    public String getGrade(int row) { return string(COL_GRADE, row); }
+    public double getGpa(int row) { return data.getDouble((int) sectionOffsets[COL_GPA] + 8 * checkRow(row)); }
+    public String getSubject(int row) { return string(COL_SUBJECT, row); }
+    public int getYearsExperience(int row) { return data.getInt((int) sectionOffsets[COL_EXPERIENCE] + 4 * checkRow(row)); }
+    public double getSalary(int row) { return data.getDouble((int) sectionOffsets[COL_SALARY] + 8 * checkRow(row)); }
+
+    // Student subjects or teacher qualifications
+    public List<String> getTags(int row) {
+        int base = (int) sectionOffsets[COL_TAG_OFFSETS];
+        int from = data.getInt(base + 4 * checkRow(row));
+        int to = data.getInt(base + 4 * (row + 1));
+        List<String> tags = new ArrayList<>(to - from);
+        for (int tag = from; tag < to; tag++) {
+            tags.add(string(COL_TAGS, tag));
+        }
+        return tags;
+    }
+
+    public boolean isMarked(int row, LocalDate date) { return bit(COL_MARKED, row, date); }
+    public boolean isPresent(int row, LocalDate date) { return bit(COL_PRESENT, row, date); }
+    public int getMarkedCount(int row) { return popcount(COL_MARKED, row); }
+    public int getPresentCount(int row) { return popcount(COL_PRESENT, row); }
+
+    public double getAttendancePercentage(int row) {
+        int marked = getMarkedCount(row);
+        return marked == 0 ? 0.0 : (getPresentCount(row) * 100.0) / marked;
+    }
+
+    // Row for an ID, or -1; the lookup table is built on first use
+    public synchronized int indexOf(String id) {
+        if (rowsById == null) {
+            rowsById = new HashMap<>(personCount * 2);
+            for (int row = 0; row < personCount; row++) {
+                rowsById.put(getId(row), row);
+            }
+        }
+        return rowsById.getOrDefault(id, -1);
+    }
+
+    // Checks the stored checksum against the file contents; touches every page
+    public boolean verifyChecksum() {
+        return bodyCrc(data, data.capacity()) == bodyCrc;
+    }
+
+    // Compares the snapshot with a manager and describes every difference found
+    public List<String> verify(AttendanceManager manager) {
+        List<String> mismatches = new ArrayList<>();
+        if (manager.getAllPersons().size() != personCount) {
+            mismatches.add("Person count differs: snapshot " + personCount + ", manager " + manager.getAllPersons().size());
+        }
+        for (int row = 0; row < personCount; row++) {
+            String id = getId(row);
+            Person person = manager.findPerson(id);
+            if (person == null) {
+                mismatches.add(id + ": missing from manager");
+                continue;
+            }
+            if (!person.getName().equals(getName(row)) || !person.getRole().equals(getRole(row))) {
+                mismatches.add(id + ": name or role differs");
+            }
+            if (person instanceof Student) {
+                Student student = (Student) person;
+                if (!student.getGrade().equals(getGrade(row)) || student.getGpa() != getGpa(row)
+                        || !student.getSubjects().equals(getTags(row))) {
+                    mismatches.add(id + ": student details differ");
+                }
+            } else if (person instanceof Teacher) {
+                Teacher teacher = (Teacher) person;
+                if (!teacher.getSubject().equals(getSubject(row)) || teacher.getYearsExperience() != getYearsExperience(row)
+                        || teacher.getSalary() != getSalary(row) || !teacher.getQualifications().equals(getTags(row))) {
+                    mismatches.add(id + ": teacher details differ");
+                }
+            }
+            final int snapshotRow = row;
+            boolean[] differs = { person.getAttendanceBits().getMarkedCount() != getMarkedCount(row) };
+            if (!differs[0]) {
+                person.forEachMark((day, present) -> {
+                    LocalDate date = LocalDate.ofEpochDay(day);
+                    if (!isMarked(snapshotRow, date) || isPresent(snapshotRow, date) != present) {
+                        differs[0] = true;
+                    }
+                });
+            }
+            if (differs[0]) {
+                mismatches.add(id + ": attendance differs");
+            }
+        }
+        return mismatches;
+    }
+
+    // Recreates every person, with subjects, qualifications and attendance, in the given manager
+    void restoreInto(AttendanceManager manager) {
+        int markedBase = (int) sectionOffsets[COL_MARKED];
+        int presentBase = (int) sectionOffsets[COL_PRESENT];
+        for (int row = 0; row < personCount; row++) {
+            Person person;
+            if (data.get((int) sectionOffsets[COL_ROLE] + row) == ROLE_STUDENT) {
+                Student student = new Student(getName(row), getId(row), getGrade(row), getGpa(row));
+                for (String subject : getTags(row)) {
+                    student.addSubject(subject);
+                }
+                person = student;
+            } else {
+                Teacher teacher = new Teacher(getName(row), getId(row), getSubject(row),
+                                              getYearsExperience(row), getSalary(row));
+                for (String qualification : getTags(row)) {
+                    teacher.addQualification(qualification);
+                }
+                person = teacher;
+            }
+            // The row's words are loaded whole, in epoch days from firstDay; restorePerson then
+            // renumbers them onto the manager's calendar in one pass over the set bits
+            long[] marked = new long[wordsPerRow];
+            long[] present = new long[wordsPerRow];
+            int at = 8 * row * wordsPerRow;
+            data.duplicate().order(data.order()).position(markedBase + at).asLongBuffer().get(marked);
+            data.duplicate().order(data.order()).position(presentBase + at).asLongBuffer().get(present);
+            person.getAttendanceBits().load(firstDay, marked, present);
+            manager.restorePerson(person);
+        }
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= personCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " outside snapshot of " + personCount + " persons");
+        }
+        return row;
+    }
+
+    private String string(int column, int index) {
+        int base = (int) sectionOffsets[column];
+        int count = column == COL_TAGS ? data.getInt((int) sectionOffsets[COL_TAG_OFFSETS] + 4 * personCount)
+                                       : personCount;
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " outside column of " + count + " values");
+        }
+        int bytesBase = base + 4 * (count + 1);
+        int from = data.getInt(base + 4 * index);
+        int to = data.getInt(base + 4 * (index + 1));
+        byte[] bytes = new byte[to - from];
+        data.duplicate().position(bytesBase + from).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean bit(int column, int row, LocalDate date) {
+        checkRow(row);
+        long offset = date.toEpochDay() - firstDay;
+        if (offset < 0 || offset >= dayCount) return false;
+        long word = data.getLong((int) sectionOffsets[column] + 8 * (row * wordsPerRow + (int) (offset >>> 6)));
+        return (word & (1L << offset)) != 0;
+    }
+
+    private int popcount(int column, int row) {
+        int base = (int) sectionOffsets[column] + 8 * checkRow(row) * wordsPerRow;
+        int count = 0;
+        for (int word = 0; word < wordsPerRow; word++) {
+            count += Long.bitCount(data.getLong(base + 8 * word));
+        }
+        return count;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long stringColumnSize(byte[][] values) {
+        long size = 4L * (values.length + 1);
+        for (byte[] value : values) {
+            size += value.length;
+        }
+        return size;
+    }
+
+    private static void putStringColumn(ByteBuffer out, long offset, byte[][] values) {
+        int base = (int) offset;
+        int bytesBase = base + 4 * (values.length + 1);
+        int position = 0;
+        for (int i = 0; i < values.length; i++) {
+            out.putInt(base + 4 * i, position);
+            out.position(bytesBase + position);
+            out.put(values[i]);
+            position += values[i].length;
+        }
+        out.putInt(base + 4 * values.length, position);
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static int bodyCrc(ByteBuffer buffer, long total) {
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.position(HEADER_SIZE).limit((int) total);
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,51 @@
+// Registry-wide counts behind the statistics block of a report. Partial results from separate
+// registries (district shards) merge exactly, since the average is kept as a sum.
+package attendance;
+
+class AttendanceStatistics {
+    static final AttendanceStatistics EMPTY = new AttendanceStatistics(0, 0, 0, 0, 0, 0);
+
+    private final int registered;
+    private final int students;
+    private final int teachers;
+    private final double attendanceSum;
+    private final int belowRequirement;
+    private final int schoolDays;
+
+    AttendanceStatistics(int registered, int students, int teachers, double attendanceSum,
+                         int belowRequirement, int schoolDays) {
+        this.registered = registered;
+        this.students = students;
+        this.teachers = teachers;
+        this.attendanceSum = attendanceSum;
+        this.belowRequirement = belowRequirement;
+        this.schoolDays = schoolDays;
+    }
+
+    // School days are not additive across schools; the merged figure is the longest term
+    public AttendanceStatistics merge(AttendanceStatistics other) {
+        return new AttendanceStatistics(registered + other.registered, students + other.students,
+                                        teachers + other.teachers, attendanceSum + other.attendanceSum,
+                                        belowRequirement + other.belowRequirement,
+                                        Math.max(schoolDays, other.schoolDays));
+    }
+
+    public int getRegistered() { return registered; }
+    public int getStudents() { return students; }
+    public int getTeachers() { return teachers; }
+    public int getBelowRequirement() { return belowRequirement; }
+    public int getSchoolDays() { return schoolDays; }
+
+    public double getAverageAttendance() {
+        return registered == 0 ? 0 : attendanceSum / registered;
+    }
+
+    public void print() {
+        System.out.println("Total Registered: " + registered);
+        System.out.println("Students: " + students);
+        System.out.println("Teachers: " + teachers);
+        System.out.println("Average Attendance: " + String.format("%.1f%%", getAverageAttendance()));
+        System.out.println("Below Requirements: " + belowRequirement);
+        System.out.println("School Days Tracked: " + schoolDays);
+    }
+}
@@ -0,0 +1,31 @@
+// Backend for registered persons' attendance words outside AttendanceBits' own arrays: one
+// fixed-width row per handle, each word a marked/present pair covering 64 school days. Every
+// row access happens under the record's lock, so a store needs no synchronisation of its own
+// beyond growth; the counters stay in AttendanceBits, where lock-free readers use them.
+// AttendanceManager.setAttendanceStore moves rows in and out.
+package attendance;
+
+interface AttendanceStore extends AutoCloseable {
+    int getWordsPerRow();
+
+    // Makes rows [0, rows) addressable; existing rows keep their contents
+    void ensureCapacity(int rows);
+
+    long getMarked(int row, int word);
+
+    long getPresent(int row, int word);
+
+    void set(int row, int word, long marked, long present);
+
+    // Bytes held outside the Java heap, or 0 for an on-heap store
+    long getAllocatedBytes();
+
+    // Called by the manager the store is given to, and when it is taken back
+    void attach(AttendanceManager owner);
+
+    void detach(AttendanceManager owner);
+
+    // Frees the rows; the store must be detached first
+    @Override
+    void close();
+}
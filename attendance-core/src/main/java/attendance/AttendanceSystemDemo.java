@@ -1,4 +1,6 @@
 // Main demonstration class
+package attendance;
+
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -201,7 +203,7 @@ public class AttendanceSystemDemo {
         System.out.println("   • Constructor chaining with super()");
         System.out.println("   • Code reuse and hierarchical relationships");
         System.out.println("\nPOLYMORPHISM:");
-        System.out.println("   • Method overriding: markAttendance(), displayInfo()");
+        System.out.println("   • Method overriding: onAttendanceMarked(), displayInfo()");
         System.out.println("   • Runtime method resolution based on object type");
         System.out.println("   • Same interface, different behaviors");
         System.out.println("   • Dynamic binding in action");
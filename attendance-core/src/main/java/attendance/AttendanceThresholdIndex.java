@@ -0,0 +1,211 @@
+// Index of persons by attendance percentage, kept current as marks arrive.
+// Each role has a histogram of 1001 buckets (one per tenth of a percent) holding intrusive
+// linked lists of persons, plus a Fenwick tree over bucket sizes for counting. Queries walk
+// buckets instead of the registry, so they cost O(buckets + result) rather than O(registry).
+// Locking is per role and only when a mark moves a person to another bucket.
+package attendance;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+class AttendanceThresholdIndex {
+    static final int BUCKETS = 1001;
+
+    // Per-person position in the index; lives on the Person for O(1) updates
+    static final class Entry {
+        final Person person;
+        final RoleBuckets role;
+        int bucket = -1;
+        Entry prev;
+        Entry next;
+
+        Entry(Person person, RoleBuckets role) {
+            this.person = person;
+            this.role = role;
+        }
+    }
+
+    static final class RoleBuckets {
+        final String role;
+        final double requirement;
+        final Entry[] heads = new Entry[BUCKETS];
+        final int[] tree = new int[BUCKETS + 1];
+        int size;
+
+        RoleBuckets(String role, double requirement) {
+            this.role = role;
+            this.requirement = requirement;
+        }
+
+        void insert(Entry entry, int bucket) {
+            entry.bucket = bucket;
+            entry.prev = null;
+            entry.next = heads[bucket];
+            if (entry.next != null) entry.next.prev = entry;
+            heads[bucket] = entry;
+            adjust(bucket, 1);
+            size++;
+        }
+
+        void unlink(Entry entry) {
+            if (entry.prev != null) entry.prev.next = entry.next;
+            else heads[entry.bucket] = entry.next;
+            if (entry.next != null) entry.next.prev = entry.prev;
+            entry.prev = entry.next = null;
+            adjust(entry.bucket, -1);
+            size--;
+        }
+
+        // Number of persons in buckets [0, bucket)
+        int countBefore(int bucket) {
+            int count = 0;
+            for (int i = bucket; i > 0; i -= i & -i) count += tree[i];
+            return count;
+        }
+
+        private void adjust(int bucket, int delta) {
+            for (int i = bucket + 1; i <= BUCKETS; i += i & -i) tree[i] += delta;
+        }
+    }
+
+    // Each role's buckets are guarded by their own monitor, so marks for different roles never contend
+    // here; the map is for lookup and the list keeps roles in registration order for queries
+    private final Map<String, RoleBuckets> roles = new ConcurrentHashMap<>();
+    private final List<RoleBuckets> roleOrder = new CopyOnWriteArrayList<>();
+
+    public void add(Person person) {
+        RoleBuckets role = roles.computeIfAbsent(person.getRole(), name -> {
+            RoleBuckets buckets = new RoleBuckets(name, person.getMinimumAttendanceRequirement());
+            roleOrder.add(buckets);
+            return buckets;
+        });
+        Entry entry = new Entry(person, role);
+        // Under the record's lock like update(), so a mark either sees the entry or lands before it is bucketed
+        synchronized (person.getAttendanceBits()) {
+            synchronized (role) {
+                person.setThresholdEntry(entry);
+                role.insert(entry, bucketOf(person));
+            }
+        }
+    }
+
+    // Moves the person to the bucket for their current counts. Updates for one person run under
+    // their record's lock, so the last one always reads the latest counts, and entry.bucket only
+    // changes under that lock: a mark that stays in its bucket never takes the role's monitor.
+    public void update(Person person) {
+        Entry entry = person.getThresholdEntry();
+        if (entry == null) return;
+        synchronized (person.getAttendanceBits()) {
+            int bucket = bucketOf(person);
+            if (bucket == entry.bucket) return;
+            synchronized (entry.role) {
+                entry.role.unlink(entry);
+                entry.role.insert(entry, bucket);
+            }
+        }
+    }
+
+    // Everyone strictly below the threshold, lowest buckets first within each role
+    public List<Person> findBelow(double threshold) {
+        List<Person> result = new ArrayList<>();
+        for (RoleBuckets role : roleOrder) {
+            collectBelow(role, threshold, result);
+        }
+        return result;
+    }
+
+    public List<Person> findBelow(String roleName, double threshold) {
+        List<Person> result = new ArrayList<>();
+        RoleBuckets role = roles.get(roleName);
+        if (role != null) collectBelow(role, threshold, result);
+        return result;
+    }
+
+    // The k persons with the lowest attendance, in ascending order: up to k from each role, merged
+    public List<Person> findBottom(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative, got: " + k);
+        }
+        List<Person> candidates = new ArrayList<>();
+        for (RoleBuckets role : roleOrder) {
+            synchronized (role) {
+                int taken = 0;
+                for (int bucket = 0; bucket < BUCKETS && taken < k; bucket++) {
+                    for (Entry entry = role.heads[bucket]; entry != null; entry = entry.next) {
+                        candidates.add(entry.person);
+                        taken++;
+                    }
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingDouble(Person::getAttendancePercentage));
+        return new ArrayList<>(candidates.subList(0, Math.min(k, candidates.size())));
+    }
+
+    public int countBelow(String roleName, double threshold) {
+        RoleBuckets role = roles.get(roleName);
+        return role == null ? 0 : countBelow(role, threshold);
+    }
+
+    // Persons of the role below that role's minimum attendance requirement
+    public int countBelowRequirement(String roleName) {
+        RoleBuckets role = roles.get(roleName);
+        return role == null ? 0 : countBelow(role, role.requirement);
+    }
+
+    public int countBelowRequirement() {
+        int count = 0;
+        for (RoleBuckets role : roleOrder) {
+            count += countBelow(role, role.requirement);
+        }
+        return count;
+    }
+
+    private static int countBelow(RoleBuckets role, double threshold) {
+        int boundary = boundaryBucket(threshold);
+        if (boundary < 0) return 0;
+        synchronized (role) {
+            if (boundary >= BUCKETS) return role.size;
+            int count = role.countBefore(boundary);
+            for (Entry entry = role.heads[boundary]; entry != null; entry = entry.next) {
+                if (entry.person.getAttendancePercentage() < threshold) count++;
+            }
+            return count;
+        }
+    }
+
+    private static void collectBelow(RoleBuckets role, double threshold, List<Person> result) {
+        int boundary = Math.min(boundaryBucket(threshold), BUCKETS);
+        synchronized (role) {
+            collectBelow(role, boundary, threshold, result);
+        }
+    }
+
+    private static void collectBelow(RoleBuckets role, int boundary, double threshold, List<Person> result) {
+        for (int bucket = 0; bucket < boundary; bucket++) {
+            for (Entry entry = role.heads[bucket]; entry != null; entry = entry.next) {
+                result.add(entry.person);
+            }
+        }
+        if (boundary >= 0 && boundary < BUCKETS) {
+            for (Entry entry = role.heads[boundary]; entry != null; entry = entry.next) {
+                if (entry.person.getAttendancePercentage() < threshold) result.add(entry.person);
+            }
+        }
+    }
+
+    // Buckets below this one are entirely under the threshold; this one needs an exact check
+    private static int boundaryBucket(double threshold) {
+        if (threshold <= 0) return -1;
+        return (int) Math.min(BUCKETS, Math.floor(threshold * 10));
+    }
+
+    // Tenths of a percent, rounded down using exact integer arithmetic
+    private static int bucketOf(Person person) {
+        AttendanceBits bits = person.getAttendanceBits();
+        long counts = bits.getCounts();
+        int marked = (int) counts;
+        int present = (int) (counts >>> 32);
+        return marked == 0 ? 0 : (int) (present * 1000L / marked);
+    }
+}
@@ -0,0 +1,123 @@
+// Consistent read-only view of a manager's registry and attendance as of the moment it was opened,
+// for long reports that run alongside live check-ins. Opening is O(1) and copies nothing: handles
+// are only ever appended, so the view keeps the handle table and count it saw, and each record is
+// read as it stands unless a write has replaced it since, in which case the writer kept the
+// replaced version for open views. Check-ins never wait on a view; while one is open, the first
+// write to each record copies that record's few words once. Close views promptly so those
+// versions can be dropped. Fields other than attendance (names, grades, subjects) are read live.
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+
+class AttendanceView implements AutoCloseable {
+    private final AttendanceManager manager;
+    private final long epoch;
+    private final Person[] table;
+    private final List<Person> persons;
+    private volatile boolean closed;
+
+    AttendanceView(AttendanceManager manager, long epoch, Person[] table, int size) {
+        this.manager = manager;
+        this.epoch = epoch;
+        this.table = table;
+        this.persons = Collections.unmodifiableList(Arrays.asList(table).subList(0, size));
+    }
+
+    public long getEpoch() { return epoch; }
+    public int size() { return persons.size(); }
+    public boolean isClosed() { return closed; }
+
+    // Everyone registered when the view was opened, in registration order
+    public List<Person> getPersons() {
+        checkOpen();
+        return persons;
+    }
+
+    public List<LocalDate> getSchoolDays() {
+        return manager.getSchoolDays();
+    }
+
+    public TermCalendar getCalendar() {
+        return manager.getCalendar();
+    }
+
+    public String getInstitutionName() {
+        return manager.getInstitutionName();
+    }
+
+    public boolean contains(Person person) {
+        if (person == null || person.getManager() != manager) return false;
+        int handle = person.getHandle();
+        return handle >= 0 && handle < persons.size() && table[handle] == person;
+    }
+
+    // Present count in the high 32 bits, marked count in the low 32 bits
+    public long getAttendanceCounts(Person person) {
+        checkMember(person);
+        return person.getAttendanceBits().countsAt(epoch);
+    }
+
+    public double getAttendancePercentage(Person person) {
+        return AttendanceBits.percentageOf(getAttendanceCounts(person));
+    }
+
+    // Marks in date order; an immutable view over the record version, not a copy
+    public Map<LocalDate, Boolean> getAttendanceRecord(Person person) {
+        checkMember(person);
+        return new AttendanceRecordView(person.getAttendanceBits().versionAt(epoch), manager.getCalendar());
+    }
+
+    // Visits the person's marks in date order with their epoch days, like Person.forEachMark,
+    // but without holding the record's lock while the consumer runs
+    public void forEachMark(Person person, AttendanceBits.MarkConsumer consumer) {
+        checkMember(person);
+        TermCalendar calendar = manager.getCalendar();
+        person.getAttendanceBits().versionAt(epoch)
+              .forEachMark((day, present) -> consumer.accept(calendar.epochDayOf((int) day), present));
+    }
+
+    // Same figures as AttendanceManager.computeStatistics, all taken at the view's moment
+    public AttendanceStatistics computeStatistics() {
+        checkOpen();
+        int studentCount = 0;
+        int teacherCount = 0;
+        double totalAttendance = 0;
+        int belowRequirement = 0;
+        for (Person person : persons) {
+            if (person instanceof Student) {
+                studentCount++;
+            } else if (person instanceof Teacher) {
+                teacherCount++;
+            }
+            double attendance = AttendanceBits.percentageOf(person.getAttendanceBits().countsAt(epoch));
+            totalAttendance += attendance;
+            if (attendance < person.getMinimumAttendanceRequirement()) {
+                belowRequirement++;
+            }
+        }
+        return new AttendanceStatistics(persons.size(), studentCount, teacherCount, totalAttendance,
+                                        belowRequirement, manager.getCalendar().size());
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            manager.closeView(epoch);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("View " + epoch + " is closed");
+        }
+    }
+
+    private void checkMember(Person person) {
+        checkOpen();
+        if (!contains(person)) {
+            throw new IllegalArgumentException("Person is not in this view: " + (person == null ? null : person.getId()));
+        }
+    }
+}
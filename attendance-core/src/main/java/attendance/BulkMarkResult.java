@@ -0,0 +1,34 @@
+// Outcome of a bulk attendance operation
+package attendance;
+
+import java.util.*;
+
+class BulkMarkResult {
+    private final int successCount;
+    private final List<String> failedIds;
+
+    BulkMarkResult(int successCount, List<String> failedIds) {
+        this.successCount = successCount;
+        this.failedIds = Collections.unmodifiableList(failedIds);
+    }
+
+    static BulkMarkResult merge(List<BulkMarkResult> parts) {
+        int successCount = 0;
+        List<String> failedIds = new ArrayList<>();
+        for (BulkMarkResult part : parts) {
+            successCount += part.successCount;
+            failedIds.addAll(part.failedIds);
+        }
+        return new BulkMarkResult(successCount, failedIds);
+    }
+
+    public int getSuccessCount() { return successCount; }
+    public int getFailureCount() { return failedIds.size(); }
+    public int getTotalCount() { return successCount + failedIds.size(); }
+    public List<String> getFailedIds() { return failedIds; }
+
+    @Override
+    public String toString() {
+        return successCount + " successful, " + failedIds.size() + " failed";
+    }
+}
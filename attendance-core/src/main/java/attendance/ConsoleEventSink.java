@@ -0,0 +1,12 @@
+// Sink that prints each event to standard output as it happens
+package attendance;
+
+class ConsoleEventSink implements AttendanceEventSink {
+    @Override
+    public boolean isEnabled() { return true; }
+
+    @Override
+    public void publish(AttendanceEvent event) {
+        System.out.println(event.format());
+    }
+}
@@ -0,0 +1,132 @@
+// Streams the registry and attendance marks to CSV in the formats CsvImporter reads back.
+// Rows are rendered into one reusable buffer and written to the channel in 64 KB blocks.
+// Each export reads an AttendanceView, so check-ins continue while rows are written.
+package attendance;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+
+class CsvExporter {
+    private static final int FLUSH_THRESHOLD = 64 * 1024;
+
+    private final AttendanceManager manager;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD + 1024);
+    private final Map<Long, String> dateText = new HashMap<>();
+    private WritableByteChannel channel;
+
+    public CsvExporter(AttendanceManager manager) {
+        if (manager == null) {
+            throw new IllegalArgumentException("Manager cannot be null");
+        }
+        this.manager = manager;
+    }
+
+    public long exportPersons(Path file) throws IOException {
+        try (FileChannel out = open(file)) {
+            return exportPersons(out);
+        }
+    }
+
+    // Returns the number of rows written
+    public synchronized long exportPersons(WritableByteChannel out) throws IOException {
+        begin(out, CsvImporter.PERSONS_HEADER);
+        long rows = 0;
+        for (Person person : manager.getAllPersons()) {
+            buffer.append(csv(person.getRole())).append(',').append(csv(person.getId())).append(',')
+                  .append(csv(person.getName())).append(',');
+            if (person instanceof Student) {
+                Student student = (Student) person;
+                buffer.append(csv(student.getGrade())).append(',').append(student.getGpa()).append(",,,,")
+                      .append(csv(String.join(";", student.getSubjects())));
+            } else if (person instanceof Teacher) {
+                Teacher teacher = (Teacher) person;
+                buffer.append(",,").append(csv(teacher.getSubject())).append(',').append(teacher.getYearsExperience())
+                      .append(',').append(teacher.getSalary()).append(',')
+                      .append(csv(String.join(";", teacher.getQualifications())));
+            } else {
+                buffer.append(",,,,,");
+            }
+            endRow();
+            rows++;
+        }
+        flush();
+        return rows;
+    }
+
+    public long exportAttendance(Path file) throws IOException {
+        try (FileChannel out = open(file)) {
+            return exportAttendance(out);
+        }
+    }
+
+    // One id,date,status row per marked day, grouped by person in date order
+    public synchronized long exportAttendance(WritableByteChannel out) throws IOException {
+        begin(out, CsvImporter.ATTENDANCE_HEADER);
+        long[] rows = new long[1];
+        IOException[] failure = new IOException[1];
+        try (AttendanceView view = manager.openView()) {
+            for (Person person : view.getPersons()) {
+                String id = csv(person.getId());
+                view.forEachMark(person, (day, present) -> {
+                    if (failure[0] != null) return;
+                    buffer.append(id).append(',').append(date(day)).append(',').append(present ? 'P' : 'A');
+                    rows[0]++;
+                    try {
+                        endRow();
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                });
+                if (failure[0] != null) throw failure[0];
+            }
+        }
+        flush();
+        return rows[0];
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void begin(WritableByteChannel out, String header) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output cannot be null");
+        }
+        channel = out;
+        buffer.setLength(0);
+        buffer.append(header).append('\n');
+    }
+
+    private String date(long epochDay) {
+        return dateText.computeIfAbsent(epochDay, day -> LocalDate.ofEpochDay(day).toString());
+    }
+
+    private void endRow() throws IOException {
+        buffer.append('\n');
+        if (buffer.length() >= FLUSH_THRESHOLD) flush();
+    }
+
+    private void flush() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toString().getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        buffer.setLength(0);
+    }
+
+    // Returns the value itself when no quoting is needed, which is the common case
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,505 @@
+// Streaming CSV import of persons and attendance over NIO channels.
+// The input is read in fixed-size chunks cut at line boundaries. Chunks are parsed in parallel
+// straight from their bytes, then applied to the manager in file order so later rows win.
+// At most inFlight chunks are held at once, which bounds memory whatever the file size.
+//
+// Persons:    role,id,name,grade,gpa,subject,years_experience,salary,tags
+//             Students fill grade, gpa and tags (subjects); teachers fill subject,
+//             years_experience, salary and tags (qualifications). Tags are separated by ';'.
+// Attendance: id,date,status with ISO dates (yyyy-MM-dd) and P/A, present/absent or true/false.
+// Fields may be quoted with "" escapes but cannot span lines.
+package attendance;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+class CsvImporter {
+    static final String PERSONS_HEADER = "role,id,name,grade,gpa,subject,years_experience,salary,tags";
+    static final String ATTENDANCE_HEADER = "id,date,status";
+    private static final int MAX_FIELDS = 9;
+
+    private final AttendanceManager manager;
+    private Executor executor = ForkJoinPool.commonPool();
+    private int chunkSize = 4 << 20;
+    private int inFlight = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    public CsvImporter(AttendanceManager manager) {
+        if (manager == null) {
+            throw new IllegalArgumentException("Manager cannot be null");
+        }
+        this.manager = manager;
+    }
+
+    // Executor that parses chunks; null parses on the importing thread
+    public CsvImporter executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    // Bytes per chunk; a line longer than this still imports, in a larger chunk
+    public CsvImporter chunkSize(int chunkSize) {
+        if (chunkSize < 1024) {
+            throw new IllegalArgumentException("Chunk size must be at least 1024 bytes, got: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    // Chunks read ahead of the one being applied
+    public CsvImporter inFlight(int inFlight) {
+        if (inFlight <= 0) {
+            throw new IllegalArgumentException("In-flight chunk count must be positive, got: " + inFlight);
+        }
+        this.inFlight = inFlight;
+        return this;
+    }
+
+    public ImportResult importPersons(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importPersons(in);
+        }
+    }
+
+    public ImportResult importPersons(ReadableByteChannel in) throws IOException {
+        return run(in, PERSONS_HEADER, PersonChunk::new);
+    }
+
+    public ImportResult importAttendance(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importAttendance(in);
+        }
+    }
+
+    public ImportResult importAttendance(ReadableByteChannel in) throws IOException {
+        return run(in, ATTENDANCE_HEADER, AttendanceChunk::new);
+    }
+
+    private ImportResult run(ReadableByteChannel in, String header,
+                             ChunkFactory factory) throws IOException {
+        if (in == null) {
+            throw new IllegalArgumentException("Input cannot be null");
+        }
+        Progress progress = new Progress();
+        Deque<CompletableFuture<Chunk>> pending = new ArrayDeque<>();
+        byte[] carry = new byte[0];
+        boolean first = true;
+        boolean eof = false;
+        while (!eof) {
+            byte[] data = new byte[Math.max(chunkSize, carry.length + 1)];
+            System.arraycopy(carry, 0, data, 0, carry.length);
+            int filled = carry.length;
+            int cut;
+            while (true) {
+                filled = fill(in, data, filled);
+                eof = filled < data.length;
+                cut = lastNewline(data, filled);
+                if (cut >= 0 || eof) break;
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            int end = eof ? filled : cut + 1;
+            carry = Arrays.copyOfRange(data, end, filled);
+            int start = 0;
+            if (first) {
+                first = false;
+                if (end == 0) break;
+                start = skipHeader(data, end, header);
+            }
+            if (end > start) {
+                Chunk chunk = factory.create(manager, data, start, end);
+                pending.add(executor == null
+                    ? CompletableFuture.completedFuture(chunk.parse())
+                    : CompletableFuture.supplyAsync(chunk::parse, executor));
+            }
+            while (pending.size() >= inFlight) {
+                applyNext(pending, progress);
+            }
+        }
+        while (!pending.isEmpty()) {
+            applyNext(pending, progress);
+        }
+        return new ImportResult(progress.rows, progress.imported, progress.errorCount, progress.errors);
+    }
+
+    private void applyNext(Deque<CompletableFuture<Chunk>> pending, Progress progress) {
+        Chunk chunk;
+        try {
+            chunk = pending.poll().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        progress.imported += chunk.apply();
+        progress.rows += chunk.rows;
+        chunk.errors.sort(Comparator.comparingLong(ImportResult.RowError::getLine));
+        for (ImportResult.RowError error : chunk.errors) {
+            progress.errorCount++;
+            if (progress.errors.size() < ImportResult.MAX_REPORTED_ERRORS) {
+                progress.errors.add(new ImportResult.RowError(progress.line + error.getLine(), error.getMessage()));
+            }
+        }
+        progress.line += chunk.lines;
+    }
+
+    private interface ChunkFactory {
+        Chunk create(AttendanceManager manager, byte[] data, int from, int to);
+    }
+
+    private static final class Progress {
+        // Lines consumed before the next chunk, starting after the header on line 1
+        long line = 1;
+        long rows;
+        long imported;
+        long errorCount;
+        final List<ImportResult.RowError> errors = new ArrayList<>();
+    }
+
+    private static int fill(ReadableByteChannel in, byte[] data, int filled) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data, filled, data.length - filled);
+        while (buffer.hasRemaining() && in.read(buffer) >= 0) {
+            // keep reading until the chunk is full or the input ends
+        }
+        return buffer.position();
+    }
+
+    private static int lastNewline(byte[] data, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (data[i] == '\n') return i;
+        }
+        return -1;
+    }
+
+    // Validates the header line and returns the offset of the first data line
+    private static int skipHeader(byte[] data, int end, String expected) {
+        int start = 0;
+        if (end >= 3 && (data[0] & 0xFF) == 0xEF && (data[1] & 0xFF) == 0xBB && (data[2] & 0xFF) == 0xBF) {
+            start = 3;
+        }
+        int lineEnd = start;
+        while (lineEnd < end && data[lineEnd] != '\n') lineEnd++;
+        String header = new String(data, start, lineEnd - start, StandardCharsets.UTF_8).trim();
+        if (!header.equalsIgnoreCase(expected)) {
+            throw new IllegalArgumentException("Expected CSV header \"" + expected + "\", got: \"" + header + "\"");
+        }
+        return Math.min(lineEnd + 1, end);
+    }
+
+    // One chunk of complete lines: parsed on a worker, applied on the importing thread
+    private abstract static class Chunk {
+        final AttendanceManager manager;
+        final byte[] data;
+        final int from;
+        final int to;
+        int lines;
+        int rows;
+        // Lines here are relative to the chunk, starting at 1
+        final List<ImportResult.RowError> errors = new ArrayList<>();
+        private final int[] starts = new int[MAX_FIELDS];
+        private final int[] ends = new int[MAX_FIELDS];
+        private final boolean[] escaped = new boolean[MAX_FIELDS];
+
+        Chunk(AttendanceManager manager, byte[] data, int from, int to) {
+            this.manager = manager;
+            this.data = data;
+            this.from = from;
+            this.to = to;
+        }
+
+        abstract int fieldCount();
+
+        abstract void parseRow(int line);
+
+        // Applies parsed rows in order and returns how many were imported
+        abstract long apply();
+
+        Chunk parse() {
+            int pos = from;
+            while (pos < to) {
+                int lineEnd = pos;
+                while (lineEnd < to && data[lineEnd] != '\n') lineEnd++;
+                int next = lineEnd + 1;
+                if (lineEnd > pos && data[lineEnd - 1] == '\r') lineEnd--;
+                lines++;
+                if (lineEnd > pos) {
+                    rows++;
+                    try {
+                        int fields = split(pos, lineEnd);
+                        if (fields != fieldCount()) {
+                            throw new IllegalArgumentException("Expected " + fieldCount() + " fields, got " + fields);
+                        }
+                        parseRow(lines);
+                    } catch (IllegalArgumentException | DateTimeException e) {
+                        error(lines, e.getMessage());
+                    }
+                }
+                pos = next;
+            }
+            return this;
+        }
+
+        void error(int line, String message) {
+            errors.add(new ImportResult.RowError(line, message));
+        }
+
+        private int split(int pos, int end) {
+            int field = 0;
+            while (true) {
+                if (field == MAX_FIELDS) {
+                    throw new IllegalArgumentException("Expected " + fieldCount() + " fields, got more than " + MAX_FIELDS);
+                }
+                if (pos < end && data[pos] == '"') {
+                    int start = ++pos;
+                    boolean hasEscapes = false;
+                    while (true) {
+                        if (pos >= end) {
+                            throw new IllegalArgumentException("Unterminated quoted field");
+                        }
+                        if (data[pos] == '"') {
+                            if (pos + 1 < end && data[pos + 1] == '"') {
+                                hasEscapes = true;
+                                pos += 2;
+                                continue;
+                            }
+                            break;
+                        }
+                        pos++;
+                    }
+                    starts[field] = start;
+                    ends[field] = pos;
+                    escaped[field++] = hasEscapes;
+                    pos++;
+                    if (pos == end) return field;
+                    if (data[pos] != ',') {
+                        throw new IllegalArgumentException("Unexpected text after quoted field");
+                    }
+                    pos++;
+                } else {
+                    int start = pos;
+                    while (pos < end && data[pos] != ',') pos++;
+                    starts[field] = start;
+                    ends[field] = pos;
+                    escaped[field++] = false;
+                    if (pos == end) return field;
+                    pos++;
+                }
+            }
+        }
+
+        String text(int field) {
+            String value = new String(data, starts[field], ends[field] - starts[field], StandardCharsets.UTF_8);
+            return escaped[field] ? value.replace("\"\"", "\"") : value;
+        }
+
+        boolean isBlank(int field) {
+            for (int i = starts[field]; i < ends[field]; i++) {
+                if (data[i] != ' ' && data[i] != '\t') return false;
+            }
+            return true;
+        }
+
+        int length(int field) {
+            return ends[field] - starts[field];
+        }
+
+        byte at(int field, int index) {
+            return data[starts[field] + index];
+        }
+
+        // Case-insensitive comparison against a lower-case ASCII token
+        boolean matches(int field, String token) {
+            if (length(field) != token.length()) return false;
+            for (int i = 0; i < token.length(); i++) {
+                if (Character.toLowerCase(at(field, i)) != token.charAt(i)) return false;
+            }
+            return true;
+        }
+    }
+
+    private static final class PersonChunk extends Chunk {
+        private final List<Person> persons = new ArrayList<>();
+        private int[] lineOf = new int[64];
+
+        PersonChunk(AttendanceManager manager, byte[] data, int from, int to) {
+            super(manager, data, from, to);
+        }
+
+        @Override
+        int fieldCount() { return 9; }
+
+        @Override
+        void parseRow(int line) {
+            Person person;
+            if (matches(0, "student")) {
+                Student student = new Student(text(2), text(1), text(3), decimal(4, "GPA"));
+                for (String subject : tags()) student.addSubject(subject);
+                person = student;
+            } else if (matches(0, "teacher")) {
+                Teacher teacher = new Teacher(text(2), text(1), text(5), integer(6, "years of experience"),
+                                              decimal(7, "salary"));
+                for (String qualification : tags()) teacher.addQualification(qualification);
+                person = teacher;
+            } else {
+                throw new IllegalArgumentException("Unknown role: " + text(0));
+            }
+            if (persons.size() == lineOf.length) lineOf = Arrays.copyOf(lineOf, lineOf.length * 2);
+            lineOf[persons.size()] = line;
+            persons.add(person);
+        }
+
+        private int integer(int field, String name) {
+            String value = required(field, name);
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            }
+        }
+
+        private double decimal(int field, String name) {
+            String value = required(field, name);
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid " + name + ": " + value);
+            }
+        }
+
+        private String required(int field, String name) {
+            if (isBlank(field)) {
+                throw new IllegalArgumentException("Missing " + name);
+            }
+            return text(field).trim();
+        }
+
+        private String[] tags() {
+            return isBlank(8) ? new String[0] : text(8).split(";");
+        }
+
+        @Override
+        long apply() {
+            BitSet rejected = manager.registerAll(persons);
+            for (int i = rejected.nextSetBit(0); i >= 0; i = rejected.nextSetBit(i + 1)) {
+                error(lineOf[i], "Person with ID " + persons.get(i).getId() + " already exists");
+            }
+            return persons.size() - rejected.cardinality();
+        }
+    }
+
+    private static final class AttendanceChunk extends Chunk {
+        private Person[] persons;
+        private long[] days;
+        private boolean[] present;
+        private int[] lineOf;
+        private int count;
+        // Files are usually grouped by date or by person, so the last date and person are reused
+        private int lastDate = -1;
+        private long lastEpochDay;
+        private String lastId;
+        private Person lastPerson;
+
+        AttendanceChunk(AttendanceManager manager, byte[] data, int from, int to) {
+            super(manager, data, from, to);
+            int capacity = Math.max(16, (to - from) / 24);
+            persons = new Person[capacity];
+            days = new long[capacity];
+            present = new boolean[capacity];
+            lineOf = new int[capacity];
+        }
+
+        @Override
+        int fieldCount() { return 3; }
+
+        // IDs are resolved here, on the parsing worker, so the in-order apply does no lookups
+        @Override
+        void parseRow(int line) {
+            if (isBlank(0)) {
+                throw new IllegalArgumentException("ID cannot be null or empty");
+            }
+            long epochDay = date(1);
+            boolean isPresent = status(2);
+            String id = text(0).trim();
+            if (!id.equals(lastId)) {
+                lastId = id;
+                lastPerson = manager.findPerson(id);
+            }
+            if (lastPerson == null) {
+                throw new IllegalArgumentException("No person found with ID: " + id);
+            }
+            if (count == persons.length) {
+                int capacity = count * 2;
+                persons = Arrays.copyOf(persons, capacity);
+                days = Arrays.copyOf(days, capacity);
+                present = Arrays.copyOf(present, capacity);
+                lineOf = Arrays.copyOf(lineOf, capacity);
+            }
+            persons[count] = lastPerson;
+            days[count] = epochDay;
+            present[count] = isPresent;
+            lineOf[count++] = line;
+        }
+
+        private long date(int field) {
+            if (length(field) != 10 || at(field, 4) != '-' || at(field, 7) != '-') {
+                throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd: " + text(field));
+            }
+            int year = digits(field, 0, 4);
+            int month = digits(field, 5, 2);
+            int day = digits(field, 8, 2);
+            int packed = year * 10000 + month * 100 + day;
+            if (packed != lastDate) {
+                lastEpochDay = LocalDate.of(year, month, day).toEpochDay();
+                lastDate = packed;
+            }
+            return lastEpochDay;
+        }
+
+        private int digits(int field, int offset, int length) {
+            int value = 0;
+            for (int i = offset; i < offset + length; i++) {
+                int digit = at(field, i) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd: " + text(field));
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        private boolean status(int field) {
+            if (matches(field, "p") || matches(field, "present") || matches(field, "true")) return true;
+            if (matches(field, "a") || matches(field, "absent") || matches(field, "false")) return false;
+            throw new IllegalArgumentException("Invalid status, expected P or A: " + text(field));
+        }
+
+        // Marks go through the logged, indexed path without per-mark follow-ups; the log is
+        // waited on once per chunk rather than once per row
+        @Override
+        long apply() {
+            long imported = 0;
+            long logPosition = 0;
+            long lastDay = Long.MIN_VALUE;
+            LocalDate date = null;
+            for (int i = 0; i < count; i++) {
+                if (days[i] != lastDay) {
+                    lastDay = days[i];
+                    date = LocalDate.ofEpochDay(lastDay);
+                }
+                try {
+                    logPosition = Math.max(logPosition, persons[i].applyMark(date, present[i]));
+                    imported++;
+                } catch (RuntimeException e) {
+                    error(lineOf[i], e.getMessage());
+                }
+            }
+            manager.awaitDurable(logPosition);
+            return imported;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+// Per-day present and absent counts for each role, maintained by the mark path so the
+// daily dashboard never scans the registry. Each role has one dense array of atomic counters
+// indexed by school day; writers never block each other and a query touches only its days.
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+class DailyRollup {
+    private final TermCalendar calendar;
+    // Present at 2 * dayIndex, absent at 2 * dayIndex + 1
+    private final ConcurrentMap<String, AtomicIntegerArray> roles = new ConcurrentHashMap<>();
+
+    DailyRollup(TermCalendar calendar) {
+        this.calendar = calendar;
+    }
+
+    // Applies one mark given the day's previous AttendanceBits state
+    public void record(String role, int dayIndex, int previous, boolean present) {
+        if (previous == (present ? AttendanceBits.PRESENT : AttendanceBits.ABSENT)) return;
+        AtomicIntegerArray counts = roles.get(role);
+        if (counts == null) {
+            // The capturing lambda allocates, so only the first mark for a role pays for it
+            counts = roles.computeIfAbsent(role, name -> new AtomicIntegerArray(calendar.size() * 2));
+        }
+        int slot = dayIndex << 1;
+        if (previous == AttendanceBits.PRESENT) {
+            counts.decrementAndGet(slot);
+        } else if (previous == AttendanceBits.ABSENT) {
+            counts.decrementAndGet(slot + 1);
+        }
+        counts.incrementAndGet(present ? slot : slot + 1);
+    }
+
+    // Counts the marks a registered person already carries; storage is keyed by school-day index
+    public void add(Person person) {
+        String role = person.getRole();
+        person.getAttendanceBits().forEachMark((day, present) -> record(role, (int) day, AttendanceBits.UNMARKED, present));
+    }
+
+    // Totals for any date; days that are not school days are all zero
+    public DayTotals totals(LocalDate date) {
+        int dayIndex = calendar.indexOf(date);
+        String[] roleNames = roleNames();
+        int[] present = new int[roleNames.length];
+        int[] absent = new int[roleNames.length];
+        if (dayIndex >= 0) {
+            fill(roleNames, dayIndex, present, absent);
+        }
+        return new DayTotals(date, roleNames, present, absent);
+    }
+
+    // One entry per school day in the inclusive index range
+    public List<DayTotals> totals(int fromIndex, int toIndex) {
+        String[] roleNames = roleNames();
+        List<DayTotals> result = new ArrayList<>(Math.max(0, toIndex - fromIndex + 1));
+        for (int dayIndex = fromIndex; dayIndex <= toIndex; dayIndex++) {
+            int[] present = new int[roleNames.length];
+            int[] absent = new int[roleNames.length];
+            fill(roleNames, dayIndex, present, absent);
+            result.add(new DayTotals(calendar.dateOf(dayIndex), roleNames, present, absent));
+        }
+        return result;
+    }
+
+    private void fill(String[] roleNames, int dayIndex, int[] present, int[] absent) {
+        int slot = dayIndex << 1;
+        for (int role = 0; role < roleNames.length; role++) {
+            AtomicIntegerArray counts = roles.get(roleNames[role]);
+            present[role] = counts.get(slot);
+            absent[role] = counts.get(slot + 1);
+        }
+    }
+
+    private String[] roleNames() {
+        String[] names = roles.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        return names;
+    }
+}
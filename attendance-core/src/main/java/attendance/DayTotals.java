@@ -0,0 +1,60 @@
+// Present and absent counts for one day, broken down by role
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+
+class DayTotals {
+    private final LocalDate date;
+    private final String[] roles;
+    private final int[] present;
+    private final int[] absent;
+
+    DayTotals(LocalDate date, String[] roles, int[] present, int[] absent) {
+        this.date = date;
+        this.roles = roles;
+        this.present = present;
+        this.absent = absent;
+    }
+
+    public LocalDate getDate() { return date; }
+    public List<String> getRoles() { return Collections.unmodifiableList(Arrays.asList(roles)); }
+
+    public int getPresent() { return sum(present); }
+    public int getAbsent() { return sum(absent); }
+    public int getMarked() { return getPresent() + getAbsent(); }
+
+    public int getPresent(String role) {
+        int at = indexOf(role);
+        return at < 0 ? 0 : present[at];
+    }
+
+    public int getAbsent(String role) {
+        int at = indexOf(role);
+        return at < 0 ? 0 : absent[at];
+    }
+
+    private int indexOf(String role) {
+        for (int i = 0; i < roles.length; i++) {
+            if (roles[i].equals(role)) return i;
+        }
+        return -1;
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) total += count;
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(date.toString()).append(": ")
+            .append(getPresent()).append(" present, ").append(getAbsent()).append(" absent");
+        for (int i = 0; i < roles.length; i++) {
+            text.append(i == 0 ? " (" : ", ").append(roles[i]).append(' ')
+                .append(present[i]).append('/').append(present[i] + absent[i]);
+        }
+        return text.append(roles.length > 0 ? ")" : "").toString();
+    }
+}
@@ -0,0 +1,47 @@
+// Stub transport that appends each batch to a local file, one tab-separated line per notification,
+// so outbox behaviour can be checked without a mail or SMS gateway
+package attendance;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+class FileNotificationTransport implements NotificationTransport {
+    private final Path file;
+    private long batches;
+
+    public FileNotificationTransport(Path file) {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void deliver(List<Notification> batch) throws IOException {
+        StringBuilder text = new StringBuilder(batch.size() * 64);
+        long batchNumber = ++batches;
+        for (Notification notification : batch) {
+            text.append(batchNumber).append('\t').append(notification.getKind()).append('\t')
+                .append(notification.getRecipient()).append('\t').append(notification.getDate());
+            if (notification.getDetail() != null) {
+                text.append('\t').append(notification.getDetail());
+            }
+            text.append('\n');
+        }
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                StandardOpenOption.APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    public Path getFile() { return file; }
+    public synchronized long getBatchCount() { return batches; }
+}
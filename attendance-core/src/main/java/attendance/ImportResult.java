@@ -0,0 +1,50 @@
+// Outcome of a CSV import: row counts plus the first validation errors by line number
+package attendance;
+
+import java.util.*;
+
+class ImportResult {
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    static final class RowError {
+        private final long line;
+        private final String message;
+
+        RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return "line " + line + ": " + message;
+        }
+    }
+
+    private final long rowsRead;
+    private final long importedCount;
+    private final long errorCount;
+    private final List<RowError> errors;
+
+    ImportResult(long rowsRead, long importedCount, long errorCount, List<RowError> errors) {
+        this.rowsRead = rowsRead;
+        this.importedCount = importedCount;
+        this.errorCount = errorCount;
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+    }
+
+    public long getRowsRead() { return rowsRead; }
+    public long getImportedCount() { return importedCount; }
+    public long getErrorCount() { return errorCount; }
+
+    // At most MAX_REPORTED_ERRORS entries, in file order; getErrorCount() has the full total
+    public List<RowError> getErrors() { return errors; }
+
+    @Override
+    public String toString() {
+        return importedCount + " imported, " + errorCount + " rejected of " + rowsRead + " rows";
+    }
+}
@@ -0,0 +1,11 @@
+// Sink that discards every event
+package attendance;
+
+class NoOpEventSink implements AttendanceEventSink {
+    @Override
+    public boolean isEnabled() { return false; }
+
+    @Override
+    public void publish(AttendanceEvent event) {
+    }
+}
@@ -0,0 +1,43 @@
+// One coalesced absence alert, built by NotificationOutbox at dispatch time
+package attendance;
+
+import java.time.LocalDate;
+
+class Notification {
+    enum Kind { PARENT_ABSENCE, SUBSTITUTE_REQUEST }
+
+    private final Kind kind;
+    private final Person person;
+    private final LocalDate date;
+    private final String detail;
+
+    Notification(Kind kind, Person person, LocalDate date, String detail) {
+        this.kind = kind;
+        this.person = person;
+        this.date = date;
+        this.detail = detail;
+    }
+
+    public Kind getKind() { return kind; }
+    public Person getPerson() { return person; }
+    public LocalDate getDate() { return date; }
+    // Subject to cover for substitute requests; null otherwise
+    public String getDetail() { return detail; }
+
+    // Who receives it; the outbox sends at most one notification per recipient per day
+    public String getRecipient() {
+        return kind == Kind.PARENT_ABSENCE ? "parents:" + person.getId() : "substitutes:" + person.getId();
+    }
+
+    // The event the console-era code published synchronously for this absence
+    AttendanceEvent toEvent() {
+        return kind == Kind.PARENT_ABSENCE
+            ? AttendanceEvent.parentNotified((Student) person, date)
+            : AttendanceEvent.substituteArranged((Teacher) person, date, detail);
+    }
+
+    @Override
+    public String toString() {
+        return kind + " " + getRecipient() + " " + date + (detail != null ? " " + detail : "");
+    }
+}
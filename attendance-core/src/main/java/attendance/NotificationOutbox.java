@@ -0,0 +1,463 @@
+// Outbox for absence alerts: the mark path only queues a (handle, school day) key, coalesced so each
+// recipient hears at most once per day, and a background scheduler delivers the queue in batches
+// through a NotificationTransport, backing off exponentially while the transport fails.
+// Entries leave the queue only once delivered. With persistTo each alert is appended to a file as
+// it is queued, and the file is rewritten without the delivered ones after each batch, so
+// undelivered alerts survive a restart (and may then be sent twice).
+// Absences corrected to present before dispatch are dropped instead of sent.
+package attendance;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+class NotificationOutbox implements Closeable {
+    // One daemon thread shared by every outbox that does not bring its own scheduler
+    private static final class SharedScheduler {
+        static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "attendance-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final AttendanceManager manager;
+    private final NotificationTransport transport;
+    private final Runnable dispatchTask = this::dispatchScheduled;
+    private final Object lock = new Object();
+    private final Object dispatchLock = new Object();
+
+    // Guarded by lock
+    // Per school day, the handles already queued or sent for that day
+    private BitSet[] queued;
+    // (handle << 32) | dayIndex in arrival order; head..tail is the undelivered queue
+    private long[] pending = new long[1024];
+    private int head;
+    private int tail;
+    private boolean scheduled;
+    private boolean dirty;
+    private boolean closed;
+    private long coalescedCount;
+
+    // Guarded by dispatchLock; read without it by the getters
+    private int failures;
+    private volatile long deliveredCount;
+    private volatile long batchCount;
+    private volatile long cancelledCount;
+    private volatile long droppedCount;
+
+    private volatile int batchSize = 500;
+    private volatile long flushMillis = 200;
+    private volatile long backoffMillis = 500;
+    private volatile long maxBackoffMillis = 60_000;
+    private volatile int maxAttempts = 10;
+    private volatile Path file;
+    // Appends newly queued alerts to the persisted file; guarded by lock
+    private FileChannel journal;
+    private volatile ScheduledExecutorService scheduler;
+
+    public NotificationOutbox(AttendanceManager manager, NotificationTransport transport) {
+        if (manager == null || transport == null) {
+            throw new IllegalArgumentException("Manager and transport cannot be null");
+        }
+        this.manager = manager;
+        this.transport = transport;
+    }
+
+    // Publishes each notification as the event the mark path used to emit directly; every manager starts with it
+    static NotificationTransport eventSinkTransport(AttendanceManager manager) {
+        return new EventSinkTransport(manager);
+    }
+
+    private static final class EventSinkTransport implements NotificationTransport {
+        private final AttendanceManager manager;
+
+        EventSinkTransport(AttendanceManager manager) {
+            this.manager = manager;
+        }
+
+        @Override
+        public void deliver(List<Notification> batch) {
+            AttendanceEventSink sink = manager.getEventSink();
+            for (Notification notification : batch) {
+                sink.publish(notification.toEvent());
+            }
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return manager.getEventSink().isEnabled();
+        }
+    }
+
+    // An empty outbox for the following term's manager with this one's transport (the successor's own
+    // event sink when this one uses the default), batching, backoff and scheduler. The queue file is
+    // not carried over: its entries name this term's school days, so this outbox keeps it and the
+    // successor needs persistTo with a file of its own.
+    NotificationOutbox forNextTerm(AttendanceManager successor) {
+        NotificationTransport nextTransport = transport instanceof EventSinkTransport
+            ? eventSinkTransport(successor) : transport;
+        NotificationOutbox next = new NotificationOutbox(successor, nextTransport);
+        next.batchSize = batchSize;
+        next.flushMillis = flushMillis;
+        next.backoffMillis = backoffMillis;
+        next.maxBackoffMillis = maxBackoffMillis;
+        next.maxAttempts = maxAttempts;
+        next.scheduler = scheduler;
+        return next;
+    }
+
+    public NotificationOutbox batchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, got: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    // How long the first queued alert waits for others to join its batch
+    public NotificationOutbox flushInterval(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Flush interval cannot be negative, got: " + millis);
+        }
+        this.flushMillis = millis;
+        return this;
+    }
+
+    // Retry delay after the first failure, doubling per consecutive failure up to maxMillis
+    public NotificationOutbox backoff(long initialMillis, long maxMillis) {
+        if (initialMillis <= 0 || maxMillis < initialMillis) {
+            throw new IllegalArgumentException("Backoff must satisfy 0 < initial <= max, got: " +
+                                               initialMillis + ", " + maxMillis);
+        }
+        this.backoffMillis = initialMillis;
+        this.maxBackoffMillis = maxMillis;
+        return this;
+    }
+
+    // Attempts per batch before it is dropped and counted
+    public NotificationOutbox maxAttempts(int maxAttempts) {
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("Max attempts must be positive, got: " + maxAttempts);
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    public NotificationOutbox scheduler(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    // Keeps the queue in the file, one "id,date" line per alert, and requeues what an earlier run left there;
+    // call once the registry has been loaded so the IDs resolve
+    public NotificationOutbox persistTo(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+        int restored = 0;
+        int skipped = 0;
+        if (Files.exists(file)) {
+            TermCalendar calendar = manager.getCalendar();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                int comma = line.lastIndexOf(',');
+                if (comma < 0) continue;
+                int handle = manager.handleOf(line.substring(0, comma));
+                int dayIndex;
+                try {
+                    dayIndex = calendar.indexOf(LocalDate.parse(line.substring(comma + 1)));
+                } catch (RuntimeException e) {
+                    dayIndex = -1;
+                }
+                if (handle < 0 || dayIndex < 0) {
+                    skipped++;
+                } else if (queue(handle, dayIndex)) {
+                    restored++;
+                }
+            }
+        }
+        this.file = file;
+        synchronized (dispatchLock) {
+            synchronized (lock) {
+                dirty = true;
+            }
+            // Writes what was restored back in the file's format and opens the journal on it
+            persistIfDirty();
+        }
+        if (skipped > 0) {
+            System.err.println("⚠️  Outbox skipped " + skipped + " entries for unknown persons or days in " + file);
+        }
+        if (restored > 0) {
+            synchronized (lock) {
+                scheduleIfIdle();
+            }
+        }
+        return this;
+    }
+
+    // Called from the mark path on an absence; allocates only when the queue or a day's bitset grows,
+    // or to journal the alert when the queue is persisted
+    void enqueue(Person person, int dayIndex) {
+        if (!transport.isEnabled()) return;
+        if (dayIndex < 0) {
+            throw new IllegalArgumentException("Not a school day index: " + dayIndex);
+        }
+        int handle = person.getHandle();
+        synchronized (lock) {
+            if (closed) return;
+            if (queue(handle, dayIndex)) {
+                if (journal != null) {
+                    append(person.getId(), dayIndex);
+                }
+                scheduleIfIdle();
+            } else {
+                coalescedCount++;
+            }
+        }
+    }
+
+    // Caller holds lock; a failed append leaves the queue dirty, so the next rewrite includes the alert
+    private void append(String id, int dayIndex) {
+        String line = id + ',' + manager.getCalendar().dateOf(dayIndex) + '\n';
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                journal.write(bytes);
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️  Could not persist notification for " + id + ": " + e.getMessage());
+            dirty = true;
+        }
+    }
+
+    // Delivers everything queued on the calling thread; false when a batch failed and was left queued
+    public boolean flush() {
+        while (true) {
+            synchronized (lock) {
+                if (head == tail) return true;
+            }
+            if (dispatchBatch() > 0) return false;
+        }
+    }
+
+    // Stops dispatching; whatever is still queued stays in the persisted file for the next run
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        synchronized (dispatchLock) {
+            persistIfDirty();
+            synchronized (lock) {
+                closeJournal();
+            }
+        }
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return tail - head;
+        }
+    }
+
+    public long getCoalescedCount() {
+        synchronized (lock) {
+            return coalescedCount;
+        }
+    }
+
+    public NotificationTransport getTransport() { return transport; }
+    public int getBatchSize() { return batchSize; }
+    public int getMaxAttempts() { return maxAttempts; }
+    public long getDeliveredCount() { return deliveredCount; }
+    public long getBatchCount() { return batchCount; }
+    public long getCancelledCount() { return cancelledCount; }
+    public long getDroppedCount() { return droppedCount; }
+
+    // Adds the key unless that person already has an alert for the day
+    private boolean queue(int handle, int dayIndex) {
+        synchronized (lock) {
+            if (queued == null) {
+                queued = new BitSet[manager.getCalendar().size()];
+            }
+            BitSet day = queued[dayIndex];
+            if (day == null) {
+                day = queued[dayIndex] = new BitSet();
+            }
+            if (day.get(handle)) return false;
+            day.set(handle);
+            if (tail == pending.length) {
+                if (head > 0) {
+                    System.arraycopy(pending, head, pending, 0, tail - head);
+                    tail -= head;
+                    head = 0;
+                } else {
+                    pending = Arrays.copyOf(pending, pending.length * 2);
+                }
+            }
+            pending[tail++] = ((long) handle << 32) | dayIndex;
+            dirty = true;
+            return true;
+        }
+    }
+
+    // Caller holds lock
+    private void scheduleIfIdle() {
+        if (!scheduled && !closed) {
+            scheduled = true;
+            schedule(flushMillis);
+        }
+    }
+
+    private void schedule(long delayMillis) {
+        ScheduledExecutorService executor = scheduler;
+        (executor != null ? executor : SharedScheduler.INSTANCE).schedule(dispatchTask, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void dispatchScheduled() {
+        long delay;
+        try {
+            delay = dispatchBatch();
+        } catch (RuntimeException e) {
+            System.err.println("❌ Outbox dispatch failed: " + e.getMessage());
+            delay = backoffMillis;
+        }
+        synchronized (lock) {
+            if (head == tail || closed) {
+                scheduled = false;
+            } else {
+                schedule(delay);
+            }
+        }
+    }
+
+    // Sends the oldest batchSize alerts; returns 0 when the queue advanced, or the backoff before a retry
+    private long dispatchBatch() {
+        synchronized (dispatchLock) {
+            long[] keys;
+            synchronized (lock) {
+                keys = Arrays.copyOfRange(pending, head, head + Math.min(batchSize, tail - head));
+            }
+            if (keys.length == 0) return 0;
+            TermCalendar calendar = manager.getCalendar();
+            List<Notification> batch = new ArrayList<>(keys.length);
+            BitSet cancelled = new BitSet(keys.length);
+            for (int i = 0; i < keys.length; i++) {
+                Person person = manager.personAt((int) (keys[i] >>> 32));
+                int dayIndex = (int) keys[i];
+                Notification notification = person == null ? null : person.absenceNotification(calendar.dateOf(dayIndex));
+                if (notification == null || person.getAttendanceBits().stateOf(dayIndex) != AttendanceBits.ABSENT) {
+                    cancelled.set(i);
+                } else {
+                    batch.add(notification);
+                }
+            }
+            try {
+                if (!batch.isEmpty()) {
+                    transport.deliver(batch);
+                    batchCount++;
+                }
+                deliveredCount += batch.size();
+                failures = 0;
+            } catch (IOException | RuntimeException e) {
+                if (++failures < maxAttempts) {
+                    long delay = Math.min(maxBackoffMillis, backoffMillis << Math.min(failures - 1, 30));
+                    System.err.println("⚠️  Notification delivery failed (attempt " + failures + "), retrying in " +
+                                       delay + " ms: " + e.getMessage());
+                    return delay;
+                }
+                System.err.println("❌ Dropping " + batch.size() + " notifications after " + failures +
+                                   " failed attempts: " + e.getMessage());
+                droppedCount += batch.size();
+                failures = 0;
+            }
+            synchronized (lock) {
+                // A corrected absence may be marked absent again later the same day and should alert then
+                for (int i = cancelled.nextSetBit(0); i >= 0; i = cancelled.nextSetBit(i + 1)) {
+                    queued[(int) keys[i]].clear((int) (keys[i] >>> 32));
+                }
+                head += keys.length;
+                if (head == tail) {
+                    head = tail = 0;
+                }
+                dirty = true;
+            }
+            cancelledCount += cancelled.cardinality();
+            // Trims the delivered and cancelled alerts from the file
+            persistIfDirty();
+            return 0;
+        }
+    }
+
+    // Rewrites the persisted queue through a temporary file; caller holds dispatchLock. The journal
+    // moves to the temporary file as the queue is read, so an alert queued meanwhile is appended there
+    // rather than lost, and the rename keeps the journal on the live file.
+    private void persistIfDirty() {
+        Path target = file;
+        if (target == null) return;
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long[] keys;
+        FileChannel previous;
+        synchronized (lock) {
+            if (!dirty) return;
+            FileChannel next;
+            try {
+                // Left over only if an earlier rewrite failed
+                Files.deleteIfExists(temp);
+                next = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.err.println("⚠️  Could not persist notification outbox: " + e.getMessage());
+                return;
+            }
+            dirty = false;
+            keys = Arrays.copyOfRange(pending, head, tail);
+            previous = journal;
+            journal = next;
+        }
+        closeQuietly(previous);
+        TermCalendar calendar = manager.getCalendar();
+        StringBuilder text = new StringBuilder(keys.length * 24);
+        for (long key : keys) {
+            Person person = manager.personAt((int) (key >>> 32));
+            if (person == null) continue;
+            text.append(person.getId()).append(',').append(calendar.dateOf((int) key)).append('\n');
+        }
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            FileChannel channel;
+            synchronized (lock) {
+                channel = journal;
+                // Under lock, so no alert is appended in the middle of the rewrite
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("⚠️  Could not persist notification outbox: " + e.getMessage());
+            synchronized (lock) {
+                dirty = true;
+            }
+        }
+    }
+
+    // Caller holds lock
+    private void closeJournal() {
+        closeQuietly(journal);
+        journal = null;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing buffered: every write went straight to the channel
+        }
+    }
+}
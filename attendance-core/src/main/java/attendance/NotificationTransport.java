@@ -0,0 +1,14 @@
+// Delivery channel behind NotificationOutbox; a batch either goes out whole or is retried whole
+package attendance;
+
+import java.io.IOException;
+import java.util.List;
+
+interface NotificationTransport {
+    void deliver(List<Notification> batch) throws IOException;
+
+    // Disabled transports let the outbox skip queueing entirely
+    default boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,150 @@
+// Attendance words of registered persons in direct ByteBuffers, outside the Java heap, so a
+// district-scale matrix neither grows the heap nor adds to what the collector scans. Each row is
+// wordsPerRow marked/present word pairs, interleaved so one day's two bits share a cache line;
+// rows are allocated in chunks of 16,384, so growth never copies. A store serves one manager at
+// a time; close it once detached to free the memory straight away instead of when the buffers
+// are next collected. Direct memory is capped by -XX:MaxDirectMemorySize (the heap size by default).
+package attendance;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+class OffHeapAttendanceStore implements AttendanceStore {
+    private static final int CHUNK_BITS = 14;
+    private static final int ROWS_PER_CHUNK = 1 << CHUNK_BITS;
+
+    private final int wordsPerRow;
+    // Grown under the store's lock; readers only touch rows that existed when they were moved in
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private volatile LongBuffer[] words = new LongBuffer[0];
+    private AttendanceManager owner;
+    private boolean closed;
+
+    public OffHeapAttendanceStore(int schoolDays) {
+        if (schoolDays <= 0) {
+            throw new IllegalArgumentException("School days must be positive, got: " + schoolDays);
+        }
+        this.wordsPerRow = (schoolDays + 63) >>> 6;
+    }
+
+    @Override
+    public int getWordsPerRow() {
+        return wordsPerRow;
+    }
+
+    @Override
+    public synchronized void ensureCapacity(int rows) {
+        if (closed) {
+            throw new IllegalStateException("Attendance store is closed");
+        }
+        int needed = (rows + ROWS_PER_CHUNK - 1) >>> CHUNK_BITS;
+        if (needed <= chunks.length) return;
+        ByteBuffer[] grownChunks = Arrays.copyOf(chunks, needed);
+        LongBuffer[] grownWords = Arrays.copyOf(words, needed);
+        for (int chunk = chunks.length; chunk < needed; chunk++) {
+            grownChunks[chunk] = ByteBuffer.allocateDirect(ROWS_PER_CHUNK * wordsPerRow * 2 * Long.BYTES)
+                                           .order(ByteOrder.nativeOrder());
+            grownWords[chunk] = grownChunks[chunk].asLongBuffer();
+        }
+        words = grownWords;
+        chunks = grownChunks;
+    }
+
+    @Override
+    public long getMarked(int row, int word) {
+        return words[row >>> CHUNK_BITS].get(indexOf(row, word));
+    }
+
+    @Override
+    public long getPresent(int row, int word) {
+        return words[row >>> CHUNK_BITS].get(indexOf(row, word) + 1);
+    }
+
+    @Override
+    public void set(int row, int word, long marked, long present) {
+        LongBuffer chunk = words[row >>> CHUNK_BITS];
+        int index = indexOf(row, word);
+        chunk.put(index, marked);
+        chunk.put(index + 1, present);
+    }
+
+    private int indexOf(int row, int word) {
+        return ((row & (ROWS_PER_CHUNK - 1)) * wordsPerRow + word) << 1;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return (long) chunks.length * ROWS_PER_CHUNK * wordsPerRow * 2 * Long.BYTES;
+    }
+
+    @Override
+    public synchronized void attach(AttendanceManager manager) {
+        if (closed) {
+            throw new IllegalStateException("Attendance store is closed");
+        }
+        if (owner != null && owner != manager) {
+            throw new IllegalStateException("Attendance store already serves " + owner.getInstitutionName());
+        }
+        owner = manager;
+    }
+
+    @Override
+    public synchronized void detach(AttendanceManager manager) {
+        if (owner == manager) {
+            owner = null;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        if (owner != null) {
+            throw new IllegalStateException("Attendance store still serves " + owner.getInstitutionName() +
+                                            "; detach it with setAttendanceStore(null) first");
+        }
+        closed = true;
+        ByteBuffer[] freed = chunks;
+        words = new LongBuffer[0];
+        chunks = new ByteBuffer[0];
+        for (ByteBuffer chunk : freed) {
+            Cleaner.free(chunk);
+        }
+    }
+
+    // sun.misc.Unsafe.invokeCleaner from the jdk.unsupported module, looked up reflectively;
+    // without it the buffers are freed when collected
+    private static final class Cleaner {
+        private static final Object UNSAFE;
+        private static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                Class<?> type = Class.forName("sun.misc.Unsafe");
+                Field field = type.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                unsafe = field.get(null);
+                invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                unsafe = null;
+                invokeCleaner = null;
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+
+        static void free(ByteBuffer buffer) {
+            if (INVOKE_CLEANER == null) return;
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException e) {
+                // Left to the collector
+            }
+        }
+    }
+}
@@ -0,0 +1,342 @@
+// Abstract base class defining contract for all persons
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+abstract class Person {
+    private String name;
+    private String id;
+    private final AttendanceBits attendanceRecord;
+    private volatile AttendanceManager manager;
+    private AttendanceThresholdIndex.Entry thresholdEntry;
+    private volatile int handle = -1;
+    // Thresholds currently below under the owner's policy engine; guarded by the record's lock
+    private int policyBand;
+    private static final AtomicInteger totalPersons = new AtomicInteger();
+    private static final AttendanceEventSink UNREGISTERED_SINK = new ConsoleEventSink();
+
+    protected Person(String name, String id) throws IllegalArgumentException {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be null or empty");
+        }
+        if (id == null || id.trim().isEmpty()) {
+            throw new IllegalArgumentException("ID cannot be null or empty");
+        }
+        this.name = name.trim();
+        this.id = id.trim();
+        this.attendanceRecord = new AttendanceBits();
+        totalPersons.incrementAndGet();
+    }
+
+    public String getName() { return name; }
+    public String getId() { return id; }
+    public static int getTotalPersons() { return totalPersons.get(); }
+
+    public abstract String getRole();
+    public abstract double getMinimumAttendanceRequirement();
+    public abstract void handleLowAttendance();
+
+    // Same profile with no attendance and no warnings, for registering in the next term
+    protected abstract Person copyProfile();
+
+    // Takes over the details of a profile recovered from the log, through the setters so the
+    // owner's indexes follow; profiles of another role are ignored
+    protected abstract void restoreProfile(Person profile);
+
+    public void markAttendance(LocalDate date, boolean present) {
+        try {
+            recordAttendance(date, present, true);
+        } catch (Exception e) {
+            System.err.println("Error marking attendance: " + e.getMessage());
+        }
+    }
+
+    // Records a mark and runs the role-specific follow-up; unlike markAttendance,
+    // failures reach the caller so batch paths can count them
+    void recordAttendance(LocalDate date, boolean present, boolean echo) {
+        long logPosition = applyMark(date, present);
+        finishMark(date, present, echo, logPosition);
+    }
+
+    // Index-based form for registered persons, behind AttendanceManager.markAttendance(int, int, boolean);
+    // allocates nothing when the event sink is disabled
+    void recordAttendance(int dayIndex, boolean present, boolean echo) {
+        AttendanceManager owner = manager;
+        long logPosition = applyMark(owner, dayIndex, present);
+        finishMark(owner.getCalendar().dateOf(dayIndex), present, echo, logPosition);
+    }
+
+    // Batch form of the index path for registered persons: apply each mark with applyMark(int, boolean),
+    // wait once for the highest log position, then run completeMark for each
+    long applyMark(int dayIndex, boolean present) {
+        return applyMark(manager, dayIndex, present);
+    }
+
+    void completeMark(int dayIndex, boolean present, boolean echo) {
+        followUp(manager.getCalendar().dateOf(dayIndex), present, echo);
+    }
+
+    private void finishMark(LocalDate date, boolean present, boolean echo, long logPosition) {
+        AttendanceManager owner = manager;
+        if (owner != null) {
+            owner.awaitDurable(logPosition);
+        }
+        followUp(date, present, echo);
+    }
+
+    private void followUp(LocalDate date, boolean present, boolean echo) {
+        AttendanceEventSink sink = eventSink();
+        if (echo && sink.isEnabled()) {
+            sink.publish(AttendanceEvent.marked(this, date, present));
+        }
+        onAttendanceMarked(date, present);
+    }
+
+    // Logs and stores a mark and updates the owner's indexes, without waiting for the log
+    // or running follow-ups; returns the log position to wait on, or 0 when unlogged
+    long applyMark(LocalDate date, boolean present) {
+        if (date == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        AttendanceManager owner = manager;
+        if (owner == null) {
+            // Reading the owner under the record's lock means registration sees every mark exactly once
+            synchronized (attendanceRecord) {
+                owner = manager;
+                if (owner == null) {
+                    attendanceRecord.mark(date.toEpochDay(), present);
+                    return 0;
+                }
+            }
+        }
+        int dayIndex = owner.getCalendar().indexOf(date);
+        if (dayIndex < 0) {
+            throw new IllegalArgumentException("Not a school day: " + date);
+        }
+        return applyMark(owner, dayIndex, present);
+    }
+
+    private long applyMark(AttendanceManager owner, int dayIndex, boolean present) {
+        AttendancePolicyEngine policy = owner.getPolicyEngine();
+        long logPosition;
+        int previous;
+        long previousCounts;
+        // Holding the record's lock keeps log order and apply order identical for this person
+        synchronized (attendanceRecord) {
+            // Checked under the record's lock, so AttendanceManager.freeze can drain marks in flight
+            owner.checkNotFrozen();
+            // The view epoch is read before appending: a view opened together with a log position
+            // (AttendanceManager.writeSnapshot) then sees every mark logged before that position
+            long viewEpoch = owner.getViewEpoch();
+            long oldestOpenView = owner.getOldestOpenView();
+            logPosition = owner.logMark(this, dayIndex, present);
+            attendanceRecord.preserve(viewEpoch, oldestOpenView);
+            previousCounts = attendanceRecord.getCounts();
+            previous = attendanceRecord.mark(dayIndex, present);
+            int previousBand = policyBand;
+            int band = policyBand = policy.bandOf(this, attendanceRecord.getCounts());
+            // Signalled under the record's lock, which the engine also holds when it retires a settled person
+            if (band != previousBand) {
+                policy.signal(this, previousBand, previousCounts);
+            }
+        }
+        owner.attendanceChanged(this, dayIndex, previous, present);
+        owner.getMetrics().markRecorded();
+        return logPosition;
+    }
+
+    // Applies a mark recovered from the write-ahead log, without logging or follow-up;
+    // false when the owner's calendar has no such school day
+    boolean restoreAttendance(LocalDate date, boolean present) {
+        AttendanceManager owner = manager;
+        int day = owner.getCalendar().indexOf(date);
+        if (day < 0) return false;
+        int previous;
+        // Replayed history moves the band silently; policies only react to new marks
+        synchronized (attendanceRecord) {
+            attendanceRecord.preserve(owner.getViewEpoch(), owner.getOldestOpenView());
+            previous = attendanceRecord.mark(day, present);
+            policyBand = owner.getPolicyEngine().bandOf(this, attendanceRecord.getCounts());
+        }
+        owner.attendanceChanged(this, day, previous, present);
+        return true;
+    }
+
+    // Visits every mark in date order with its epoch day, whatever the storage numbering
+    void forEachMark(AttendanceBits.MarkConsumer consumer) {
+        synchronized (attendanceRecord) {
+            AttendanceManager owner = manager;
+            if (owner == null) {
+                attendanceRecord.forEachMark(consumer);
+            } else {
+                TermCalendar calendar = owner.getCalendar();
+                attendanceRecord.forEachMark((day, present) -> consumer.accept(calendar.epochDayOf((int) day), present));
+            }
+        }
+    }
+
+    // Epoch days of the first and last marks; Long.MAX_VALUE and Long.MIN_VALUE when unmarked
+    long getFirstMarkedEpochDay() {
+        synchronized (attendanceRecord) {
+            long day = attendanceRecord.getFirstMarkedDay();
+            AttendanceManager owner = manager;
+            return owner == null || day == Long.MAX_VALUE ? day : owner.getCalendar().epochDayOf((int) day);
+        }
+    }
+
+    long getLastMarkedEpochDay() {
+        synchronized (attendanceRecord) {
+            long day = attendanceRecord.getLastMarkedDay();
+            AttendanceManager owner = manager;
+            return owner == null || day == Long.MIN_VALUE ? day : owner.getCalendar().epochDayOf((int) day);
+        }
+    }
+
+    AttendanceBits getAttendanceBits() {
+        return attendanceRecord;
+    }
+
+    AttendanceThresholdIndex.Entry getThresholdEntry() {
+        return thresholdEntry;
+    }
+
+    void setThresholdEntry(AttendanceThresholdIndex.Entry thresholdEntry) {
+        this.thresholdEntry = thresholdEntry;
+    }
+
+    // Joins the manager, renumbering marks from epoch days to its school-day index; marks on
+    // days the calendar does not have are dropped and counted in the return value
+    int attachTo(AttendanceManager manager) {
+        synchronized (attendanceRecord) {
+            TermCalendar calendar = manager.getCalendar();
+            int dropped = attendanceRecord.renumber(calendar::indexOf);
+            policyBand = manager.getPolicyEngine().bandOf(this, attendanceRecord.getCounts());
+            this.manager = manager;
+            return dropped;
+        }
+    }
+
+    // Re-derives the band after the owner switches policy engines, without firing rules
+    void resetPolicyBand(AttendancePolicyEngine policy) {
+        synchronized (attendanceRecord) {
+            policyBand = policy.bandOf(this, attendanceRecord.getCounts());
+        }
+    }
+
+    AttendanceManager getManager() {
+        return manager;
+    }
+
+    // Dense registry slot assigned by the owning manager; -1 until registered
+    int getHandle() {
+        return handle;
+    }
+
+    void setHandle(int handle) {
+        this.handle = handle;
+    }
+
+    // Events go to the owning manager's sink; persons not yet registered print to the console
+    protected AttendanceEventSink eventSink() {
+        AttendanceManager owner = manager;
+        return owner != null ? owner.getEventSink() : UNREGISTERED_SINK;
+    }
+
+    // Hook for subclasses that react to a recorded mark
+    protected void onAttendanceMarked(LocalDate date, boolean present) {
+    }
+
+    // Alert this absence should raise, built when the outbox dispatches it; null means none
+    protected Notification absenceNotification(LocalDate date) {
+        return null;
+    }
+
+    // Registered persons queue the alert on the owner's outbox, which coalesces and sends it
+    // off the mark path; persons not yet registered print it to the console straight away
+    protected void notifyAbsence(LocalDate date) {
+        AttendanceManager owner = manager;
+        if (owner != null) {
+            owner.getNotificationOutbox().enqueue(this, owner.getCalendar().indexOf(date));
+            return;
+        }
+        Notification notification = absenceNotification(date);
+        if (notification != null && UNREGISTERED_SINK.isEnabled()) {
+            UNREGISTERED_SINK.publish(notification.toEvent());
+        }
+    }
+
+    // Subclass setters call this under the record's lock once a detail has changed, so the log
+    // orders profile changes with registration; returns the log position to wait on, or 0
+    protected long logProfile() {
+        AttendanceManager owner = manager;
+        return owner != null ? owner.logProfile(this) : 0;
+    }
+
+    // Waits for a logged profile change outside the record's lock, as marks do
+    protected void awaitProfile(long logPosition) {
+        AttendanceManager owner = manager;
+        if (owner != null) {
+            owner.awaitDurable(logPosition);
+        }
+    }
+
+    // New read-only list with the item added, for the copy-on-write lists subclasses expose
+    protected static List<String> appended(List<String> list, String item) {
+        String[] items = list.toArray(new String[list.size() + 1]);
+        items[list.size()] = item;
+        return List.of(items);
+    }
+
+    public double getAttendancePercentage() {
+        return attendanceRecord.getPercentage();
+    }
+
+    // Attendance over the inclusive date range; days without a mark are not counted
+    public double getAttendancePercentage(LocalDate from, LocalDate to) {
+        return AttendanceBits.percentageOf(getAttendanceCounts(from, to));
+    }
+
+    // Present count in the high 32 bits, marked count in the low 32 bits, for the inclusive range
+    long getAttendanceCounts(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range cannot be null");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end " + to + " is before start " + from);
+        }
+        synchronized (attendanceRecord) {
+            AttendanceManager owner = manager;
+            if (owner == null) {
+                return attendanceRecord.getCounts(from.toEpochDay(), to.toEpochDay());
+            }
+            TermCalendar calendar = owner.getCalendar();
+            return attendanceRecord.getCounts(calendar.ceilingIndex(from), calendar.floorIndex(to));
+        }
+    }
+
+    public void displayInfo() {
+        System.out.println("\n" + "=".repeat(40));
+        System.out.println("📋 " + getRole().toUpperCase() + " PROFILE");
+        System.out.println("=".repeat(40));
+        System.out.println("Name: " + name);
+        System.out.println("ID: " + id);
+        System.out.println("Attendance: " + String.format("%.1f%%", getAttendancePercentage()));
+        System.out.println("Required: " + String.format("%.1f%%", getMinimumAttendanceRequirement()));
+        if (getAttendancePercentage() < getMinimumAttendanceRequirement()) {
+            System.out.println("⚠️  Status: BELOW REQUIREMENT");
+        } else {
+            System.out.println("✅ Status: MEETS REQUIREMENT");
+        }
+    }
+
+    // Marks in date order: a read-only view of the current version, which repeated calls share
+    // until the next mark, so callers in loops no longer copy the record each time
+    public Map<LocalDate, Boolean> getAttendanceRecord() {
+        synchronized (attendanceRecord) {
+            AttendanceManager owner = manager;
+            return new AttendanceRecordView(attendanceRecord.snapshot(), owner == null ? null : owner.getCalendar());
+        }
+    }
+}
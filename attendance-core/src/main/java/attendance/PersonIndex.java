@@ -0,0 +1,78 @@
+// Secondary indexes over role, student grade, student subjects and teacher subject.
+// Each distinct value maps to a posting list of person handles; the owning manager keeps
+// them current when setGrade, addSubject or setSubject change a registered person.
+package attendance;
+
+import java.util.*;
+
+class PersonIndex {
+    private final Map<String, PostingList> byRole = new HashMap<>();
+    private final Map<String, PostingList> byGrade = new HashMap<>();
+    private final Map<String, PostingList> bySubject = new HashMap<>();
+    private final Map<String, PostingList> byTeachingSubject = new HashMap<>();
+
+    public synchronized void add(Person person) {
+        int handle = person.getHandle();
+        posting(byRole, person.getRole()).add(handle);
+        if (person instanceof Student) {
+            Student student = (Student) person;
+            posting(byGrade, student.getGrade()).add(handle);
+            for (String subject : student.getSubjects()) {
+                posting(bySubject, subject).add(handle);
+            }
+        } else if (person instanceof Teacher) {
+            posting(byTeachingSubject, ((Teacher) person).getSubject()).add(handle);
+        }
+    }
+
+    public synchronized void gradeChanged(Student student, String previousGrade) {
+        move(byGrade, student.getHandle(), previousGrade, student.getGrade());
+    }
+
+    public synchronized void subjectAdded(Student student, String subject) {
+        posting(bySubject, subject).add(student.getHandle());
+    }
+
+    public synchronized void teachingSubjectChanged(Teacher teacher, String previousSubject) {
+        move(byTeachingSubject, teacher.getHandle(), previousSubject, teacher.getSubject());
+    }
+
+    // Sorted handles matching every given value; a null argument means "any"
+    public synchronized int[] find(String role, String grade, String subject, String teachingSubject) {
+        List<int[]> lists = new ArrayList<>(4);
+        if (!collect(byRole, role, lists) || !collect(byGrade, grade, lists)
+                || !collect(bySubject, subject, lists) || !collect(byTeachingSubject, teachingSubject, lists)) {
+            return new int[0];
+        }
+        return lists.isEmpty() ? null : PostingList.intersect(lists.toArray(new int[0][]));
+    }
+
+    public synchronized Set<String> getGrades() { return new TreeSet<>(byGrade.keySet()); }
+    public synchronized Set<String> getSubjects() { return new TreeSet<>(bySubject.keySet()); }
+    public synchronized Set<String> getTeachingSubjects() { return new TreeSet<>(byTeachingSubject.keySet()); }
+
+    // False when the value is constrained but has no postings, so the whole query is empty
+    private static boolean collect(Map<String, PostingList> index, String value, List<int[]> lists) {
+        if (value == null) return true;
+        PostingList list = index.get(value.trim());
+        if (list == null || list.size() == 0) return false;
+        lists.add(list.toArray());
+        return true;
+    }
+
+    private static void move(Map<String, PostingList> index, int handle, String from, String to) {
+        if (Objects.equals(from, to)) return;
+        if (from != null) {
+            PostingList previous = index.get(from);
+            if (previous != null) {
+                previous.remove(handle);
+                if (previous.size() == 0) index.remove(from);
+            }
+        }
+        posting(index, to).add(handle);
+    }
+
+    private static PostingList posting(Map<String, PostingList> index, String value) {
+        return index.computeIfAbsent(value, key -> new PostingList());
+    }
+}
@@ -0,0 +1,82 @@
+// Composite lookup over the secondary indexes, e.g. Grade 10 students taking Physics below 75%:
+//   manager.query().role("Student").grade("Grade 10").subject("Physics").attendanceBelow(75).list()
+// Posting lists are intersected first, and a query on attendance alone goes to the threshold index,
+// so only matching persons are ever touched.
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+
+class PersonQuery {
+    private final AttendanceManager manager;
+    private String role;
+    private String grade;
+    private String subject;
+    private String teachingSubject;
+    private double below = Double.NaN;
+
+    PersonQuery(AttendanceManager manager) {
+        this.manager = manager;
+    }
+
+    public PersonQuery role(String role) {
+        this.role = role;
+        return this;
+    }
+
+    // Student grade level
+    public PersonQuery grade(String grade) {
+        this.grade = grade;
+        return this;
+    }
+
+    // A subject a student is enrolled in
+    public PersonQuery subject(String subject) {
+        this.subject = subject;
+        return this;
+    }
+
+    // The subject a teacher teaches
+    public PersonQuery teaching(String subject) {
+        this.teachingSubject = subject;
+        return this;
+    }
+
+    public PersonQuery attendanceBelow(double threshold) {
+        this.below = threshold;
+        return this;
+    }
+
+    public List<Person> list() {
+        List<Person> result = new ArrayList<>();
+        int[] handles = manager.getPersonIndex().find(role, grade, subject, teachingSubject);
+        if (handles == null) {
+            // Only attendance is constrained: the threshold index has exactly those persons
+            if (!Double.isNaN(below)) return manager.getPersonsBelow(below);
+            result.addAll(manager.persons());
+            return result;
+        }
+        for (int handle : handles) {
+            Person person = manager.personAt(handle);
+            if (person != null && matchesAttendance(person)) result.add(person);
+        }
+        return result;
+    }
+
+    public int count() {
+        if (Double.isNaN(below)) {
+            int[] handles = manager.getPersonIndex().find(role, grade, subject, teachingSubject);
+            return handles == null ? manager.persons().size() : handles.length;
+        }
+        return list().size();
+    }
+
+    // Pooled attendance of the matching persons over the inclusive date range
+    public double attendancePercentage(LocalDate from, LocalDate to) {
+        return AttendanceManager.getAttendancePercentage(list(), from, to);
+    }
+
+    private boolean matchesAttendance(Person person) {
+        return Double.isNaN(below) || person.getAttendancePercentage() < below;
+    }
+}
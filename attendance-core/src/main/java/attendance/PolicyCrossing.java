@@ -0,0 +1,42 @@
+// A settled move of one person across policy thresholds, as handed to AttendancePolicyEngine rules.
+// Percentages treat a person with no marks as 100%, so a first absence counts as a drop.
+package attendance;
+
+class PolicyCrossing {
+    private final Person person;
+    private final double previousPercentage;
+    private final double percentage;
+    private final int previousBand;
+    private final int band;
+
+    PolicyCrossing(Person person, double previousPercentage, double percentage, int previousBand, int band) {
+        this.person = person;
+        this.previousPercentage = previousPercentage;
+        this.percentage = percentage;
+        this.previousBand = previousBand;
+        this.band = band;
+    }
+
+    public Person getPerson() { return person; }
+    public double getPreviousPercentage() { return previousPercentage; }
+    public double getPercentage() { return percentage; }
+
+    // Number of thresholds the person is below, before and after
+    public int getPreviousBand() { return previousBand; }
+    public int getBand() { return band; }
+
+    public boolean isDownward() { return band > previousBand; }
+
+    public boolean crossedBelow(double threshold) {
+        return previousPercentage >= threshold && percentage < threshold;
+    }
+
+    public boolean crossedAbove(double threshold) {
+        return previousPercentage < threshold && percentage >= threshold;
+    }
+
+    @Override
+    public String toString() {
+        return person.getId() + String.format(": %.1f%% -> %.1f%%", previousPercentage, percentage);
+    }
+}
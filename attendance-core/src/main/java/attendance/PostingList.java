@@ -0,0 +1,94 @@
+// Sorted, duplicate-free list of person handles used by the secondary indexes
+package attendance;
+
+import java.util.Arrays;
+
+class PostingList {
+    private static final int[] EMPTY = new int[0];
+
+    private int[] handles = EMPTY;
+    private int size;
+
+    public int size() { return size; }
+
+    public boolean add(int handle) {
+        // Handles are issued in increasing order, so registration always hits the append path
+        if (size == 0 || handles[size - 1] < handle) {
+            ensureCapacity(size + 1);
+            handles[size++] = handle;
+            return true;
+        }
+        int at = Arrays.binarySearch(handles, 0, size, handle);
+        if (at >= 0) return false;
+        int insertAt = -at - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(handles, insertAt, handles, insertAt + 1, size - insertAt);
+        handles[insertAt] = handle;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int handle) {
+        int at = Arrays.binarySearch(handles, 0, size, handle);
+        if (at < 0) return false;
+        System.arraycopy(handles, at + 1, handles, at, size - at - 1);
+        size--;
+        return true;
+    }
+
+    public boolean contains(int handle) {
+        return Arrays.binarySearch(handles, 0, size, handle) >= 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(handles, size);
+    }
+
+    // Intersects sorted handle arrays, smallest first, galloping through the larger ones
+    static int[] intersect(int[][] lists) {
+        if (lists.length == 0) return EMPTY;
+        int[][] sorted = lists.clone();
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a.length, b.length));
+        int[] result = sorted[0];
+        int resultSize = result.length;
+        for (int list = 1; list < sorted.length && resultSize > 0; list++) {
+            int[] other = sorted[list];
+            int[] next = new int[resultSize];
+            int nextSize = 0;
+            int from = 0;
+            for (int i = 0; i < resultSize && from < other.length; i++) {
+                int at = gallop(other, from, result[i]);
+                if (at < other.length && other[at] == result[i]) {
+                    next[nextSize++] = result[i];
+                    from = at + 1;
+                } else {
+                    from = at;
+                }
+            }
+            result = next;
+            resultSize = nextSize;
+        }
+        return resultSize == result.length ? result : Arrays.copyOf(result, resultSize);
+    }
+
+    // First index at or after from whose value is >= target
+    private static int gallop(int[] values, int from, int target) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < values.length && values[high] < target) {
+            low = high + 1;
+            high = from + step;
+            step <<= 1;
+        }
+        high = Math.min(high, values.length);
+        int at = Arrays.binarySearch(values, low, high, target);
+        return at >= 0 ? at : -at - 1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > handles.length) {
+            handles = Arrays.copyOf(handles, Math.max(capacity, Math.max(4, handles.length * 2)));
+        }
+    }
+}
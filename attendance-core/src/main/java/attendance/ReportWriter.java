@@ -0,0 +1,401 @@
+// Streams an attendance report in one pass over the registry to a Writer or byte channel.
+// Rows are rendered into a single reusable buffer, so memory use does not grow with the registry.
+// The pass reads an AttendanceView, so rows and totals agree however long the report takes and
+// pages follow registration order while check-ins continue.
+package attendance;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.*;
+import java.time.LocalDate;
+import java.util.List;
+
+class ReportWriter {
+    enum Format { TEXT, CSV, JSON }
+
+    private static final int BUFFER_SIZE = 8192;
+    // Widest run of padded TEXT columns, including the largest padding
+    private static final int ROW_RESERVE = 128;
+    private static final String CSV_HEADER =
+        "role,id,name,attendance,required,status,marked_days,present_days,grade,gpa,subjects,subject,experience,salary_category";
+
+    private final AttendanceManager manager;
+    private final Format format;
+    private int offset;
+    private int limit = Integer.MAX_VALUE;
+    private Charset charset = StandardCharsets.UTF_8;
+
+    // Reusable output state, valid for the duration of one writeTo call
+    private final char[] chars = new char[BUFFER_SIZE];
+    private int length;
+    private Writer writer;
+    private WritableByteChannel channel;
+    private CharsetEncoder encoder;
+    private ByteBuffer bytes;
+
+    public ReportWriter(AttendanceManager manager, Format format) {
+        if (manager == null || format == null) {
+            throw new IllegalArgumentException("Manager and format cannot be null");
+        }
+        this.manager = manager;
+        this.format = format;
+    }
+
+    // Skips the first offset rows of the registry
+    public ReportWriter offset(int offset) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative, got: " + offset);
+        }
+        this.offset = offset;
+        return this;
+    }
+
+    // Writes at most limit rows
+    public ReportWriter limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative, got: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    // Page numbers start at 0
+    public ReportWriter page(int page, int pageSize) {
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Invalid page " + page + " of size " + pageSize);
+        }
+        offset((int) Math.min(Integer.MAX_VALUE, (long) page * pageSize));
+        return limit(pageSize);
+    }
+
+    // Encoding used when writing to a byte channel
+    public ReportWriter charset(Charset charset) {
+        if (charset == null) {
+            throw new IllegalArgumentException("Charset cannot be null");
+        }
+        this.charset = charset;
+        return this;
+    }
+
+    // Returns the number of person rows written
+    public synchronized int writeTo(Writer out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Writer cannot be null");
+        }
+        writer = out;
+        try {
+            int rows = render();
+            out.flush();
+            return rows;
+        } finally {
+            writer = null;
+        }
+    }
+
+    public synchronized int writeTo(WritableByteChannel out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Channel cannot be null");
+        }
+        channel = out;
+        encoder = charset.newEncoder()
+                         .onMalformedInput(CodingErrorAction.REPLACE)
+                         .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        if (bytes == null) {
+            bytes = ByteBuffer.allocate(BUFFER_SIZE * 4);
+        }
+        try {
+            return render();
+        } finally {
+            channel = null;
+            encoder = null;
+        }
+    }
+
+    private int render() throws IOException {
+        length = 0;
+        writeHeader();
+        int rows = 0;
+        int studentCount = 0;
+        int teacherCount = 0;
+        int belowRequirement = 0;
+        double totalAttendance = 0;
+        try (AttendanceView view = manager.openView()) {
+            List<Person> persons = view.getPersons();
+            for (Person person : persons.subList(Math.min(offset, persons.size()), persons.size())) {
+                if (rows >= limit) break;
+                long counts = view.getAttendanceCounts(person);
+                double attendance = AttendanceBits.percentageOf(counts);
+                if (person instanceof Student) studentCount++;
+                else if (person instanceof Teacher) teacherCount++;
+                if (attendance < person.getMinimumAttendanceRequirement()) belowRequirement++;
+                totalAttendance += attendance;
+                writeRow(person, counts, rows);
+                rows++;
+            }
+        }
+        writeFooter(rows, studentCount, teacherCount, belowRequirement, rows == 0 ? 0 : totalAttendance / rows);
+        drain(true);
+        return rows;
+    }
+
+    private void writeHeader() throws IOException {
+        switch (format) {
+            case TEXT:
+                append("=".repeat(60)).newLine();
+                append("COMPREHENSIVE ATTENDANCE REPORT").newLine();
+                append("Institution: ").append(manager.getInstitutionName()).newLine();
+                append("Report Date: ").append(LocalDate.now().toString()).newLine();
+                append("=".repeat(60)).newLine();
+                pad("Role", 8).pad("ID", 10).pad("Name", 24).padLeft("Attend", 7).padLeft("Req", 7)
+                    .append("  ").pad("Status", 7).append("  Details").newLine();
+                break;
+            case CSV:
+                append(CSV_HEADER).newLine();
+                break;
+            case JSON:
+                append("{\"institution\":").jsonString(manager.getInstitutionName())
+                    .append(",\"reportDate\":\"").append(LocalDate.now().toString()).append("\",\"persons\":[");
+                break;
+        }
+    }
+
+    private void writeRow(Person person, long counts, int row) throws IOException {
+        double attendance = AttendanceBits.percentageOf(counts);
+        double required = person.getMinimumAttendanceRequirement();
+        boolean below = attendance < required;
+        int markedDays = (int) counts;
+        int presentDays = (int) (counts >>> 32);
+        Student student = person instanceof Student ? (Student) person : null;
+        Teacher teacher = person instanceof Teacher ? (Teacher) person : null;
+        switch (format) {
+            case TEXT:
+                reserve(ROW_RESERVE);
+                pad(person.getRole(), 8).pad(person.getId(), 10).pad(person.getName(), 24);
+                int start = length;
+                fixed(attendance, 1).append('%');
+                padTo(start, 7, true);
+                start = length;
+                fixed(required, 1).append('%');
+                padTo(start, 7, true);
+                append("  ").pad(below ? "BELOW" : "MEETS", 7).append("  ");
+                if (student != null) {
+                    append(student.getGrade()).append(", GPA ").fixed(student.getGpa(), 2)
+                        .append(", ").number(student.getSubjects().size()).append(" subjects");
+                } else if (teacher != null) {
+                    append(teacher.getSubject()).append(", ").number(teacher.getYearsExperience())
+                        .append(" yrs, ").append(teacher.getSalaryCategory());
+                }
+                newLine();
+                break;
+            case CSV:
+                csv(person.getRole()).append(',').csv(person.getId()).append(',').csv(person.getName()).append(',')
+                    .fixed(attendance, 1).append(',').fixed(required, 1).append(',')
+                    .append(below ? "BELOW" : "MEETS").append(',')
+                    .number(markedDays).append(',').number(presentDays).append(',');
+                if (student != null) {
+                    csv(student.getGrade()).append(',').fixed(student.getGpa(), 2).append(',')
+                        .number(student.getSubjects().size()).append(",,,");
+                } else if (teacher != null) {
+                    append(",,,").csv(teacher.getSubject()).append(',').number(teacher.getYearsExperience())
+                        .append(',').csv(teacher.getSalaryCategory());
+                } else {
+                    append(",,,,,");
+                }
+                newLine();
+                break;
+            case JSON:
+                if (row > 0) append(',');
+                append("{\"role\":").jsonString(person.getRole())
+                    .append(",\"id\":").jsonString(person.getId())
+                    .append(",\"name\":").jsonString(person.getName())
+                    .append(",\"attendance\":").fixed(attendance, 1)
+                    .append(",\"required\":").fixed(required, 1)
+                    .append(",\"belowRequirement\":").append(below ? "true" : "false")
+                    .append(",\"markedDays\":").number(markedDays)
+                    .append(",\"presentDays\":").number(presentDays);
+                if (student != null) {
+                    append(",\"grade\":").jsonString(student.getGrade())
+                        .append(",\"gpa\":").fixed(student.getGpa(), 2)
+                        .append(",\"subjects\":").number(student.getSubjects().size());
+                } else if (teacher != null) {
+                    append(",\"subject\":").jsonString(teacher.getSubject())
+                        .append(",\"experience\":").number(teacher.getYearsExperience())
+                        .append(",\"salaryCategory\":").jsonString(teacher.getSalaryCategory());
+                }
+                append('}');
+                break;
+        }
+    }
+
+    private void writeFooter(int rows, int students, int teachers, int below, double average) throws IOException {
+        switch (format) {
+            case TEXT:
+                append("-".repeat(60)).newLine();
+                append("Rows: ").number(rows).append("  Students: ").number(students)
+                    .append("  Teachers: ").number(teachers).newLine();
+                append("Average Attendance: ").fixed(average, 1).append("%  Below Requirements: ").number(below).newLine();
+                break;
+            case CSV:
+                break;
+            case JSON:
+                append("],\"summary\":{\"rows\":").number(rows)
+                    .append(",\"students\":").number(students)
+                    .append(",\"teachers\":").number(teachers)
+                    .append(",\"averageAttendance\":").fixed(average, 1)
+                    .append(",\"belowRequirement\":").number(below).append("}}").newLine();
+                break;
+        }
+    }
+
+    private ReportWriter append(char c) throws IOException {
+        if (length == chars.length) drain(false);
+        chars[length++] = c;
+        return this;
+    }
+
+    private ReportWriter append(String text) throws IOException {
+        int from = 0;
+        while (from < text.length()) {
+            if (length == chars.length) drain(false);
+            int count = Math.min(text.length() - from, chars.length - length);
+            text.getChars(from, from + count, chars, length);
+            length += count;
+            from += count;
+        }
+        return this;
+    }
+
+    private ReportWriter newLine() throws IOException {
+        return append('\n');
+    }
+
+    private ReportWriter number(long value) throws IOException {
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) divisor *= 10;
+        for (; divisor > 0; divisor /= 10) {
+            append((char) ('0' + (value / divisor) % 10));
+        }
+        return this;
+    }
+
+    // Fixed-point rendering without String.format
+    private ReportWriter fixed(double value, int decimals) throws IOException {
+        long scale = decimals == 1 ? 10 : 100;
+        long scaled = Math.round(value * scale);
+        if (scaled < 0) {
+            append('-');
+            scaled = -scaled;
+        }
+        number(scaled / scale).append('.');
+        long fraction = scaled % scale;
+        if (decimals == 2 && fraction < 10) append('0');
+        return number(fraction);
+    }
+
+    private ReportWriter pad(String text, int width) throws IOException {
+        int start = length;
+        append(text.length() > width - 1 ? text.substring(0, width - 1) : text);
+        return padTo(start, width, false);
+    }
+
+    private ReportWriter padLeft(String text, int width) throws IOException {
+        int start = length;
+        append(text);
+        return padTo(start, width, true);
+    }
+
+    // Pads the text appended since start to width columns; callers reserve room first
+    private ReportWriter padTo(int start, int width, boolean alignRight) {
+        int written = length - start;
+        if (written >= width) return this;
+        int padding = width - written;
+        if (alignRight) {
+            System.arraycopy(chars, start, chars, start + padding, written);
+            java.util.Arrays.fill(chars, start, start + padding, ' ');
+        } else {
+            java.util.Arrays.fill(chars, start + written, start + written + padding, ' ');
+        }
+        length += padding;
+        return this;
+    }
+
+    // Drains early so a run of fixed-width columns never straddles a drain
+    private void reserve(int room) throws IOException {
+        if (chars.length - length < room) drain(false);
+    }
+
+    private ReportWriter csv(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) return append(value);
+        append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') append('"');
+            append(c);
+        }
+        return append('"');
+    }
+
+    private ReportWriter jsonString(String value) throws IOException {
+        append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': append("\\\""); break;
+                case '\\': append("\\\\"); break;
+                case '\n': append("\\n"); break;
+                case '\r': append("\\r"); break;
+                case '\t': append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+                    } else {
+                        append(c);
+                    }
+            }
+        }
+        return append('"');
+    }
+
+    private void drain(boolean endOfInput) throws IOException {
+        if (writer != null) {
+            writer.write(chars, 0, length);
+        } else {
+            CharBuffer pending = CharBuffer.wrap(chars, 0, length);
+            while (true) {
+                CoderResult result = encoder.encode(pending, bytes, endOfInput);
+                if (endOfInput && result.isUnderflow()) {
+                    result = encoder.flush(bytes);
+                }
+                writeBytes();
+                if (result.isUnderflow()) break;
+            }
+            // A dangling high surrogate stays in the encoder's input; keep it for the next drain
+            if (pending.hasRemaining()) {
+                int leftover = pending.remaining();
+                System.arraycopy(chars, pending.position(), chars, 0, leftover);
+                length = leftover;
+                return;
+            }
+        }
+        length = 0;
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
@@ -0,0 +1,134 @@
+// Student class extends Person
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class Student extends Person {
+    private String grade;
+    private double gpa;
+    // Copy-on-write: readers share the current list, additions publish a new one
+    private volatile List<String> subjects;
+    // Raised by the policy engine's thread, read by reports and displayInfo
+    private final AtomicInteger warningCount = new AtomicInteger();
+
+    public Student(String name, String id, String grade, double gpa) throws IllegalArgumentException {
+        super(name, id);
+        setGrade(grade);
+        setGpa(gpa);
+        this.subjects = List.of();
+    }
+
+    public void setGpa(double gpa) throws IllegalArgumentException {
+        if (gpa < 0.0 || gpa > 4.0) {
+            throw new IllegalArgumentException("GPA must be between 0.0 and 4.0, got: " + gpa);
+        }
+        long logPosition;
+        synchronized (getAttendanceBits()) {
+            this.gpa = gpa;
+            logPosition = logProfile();
+        }
+        awaitProfile(logPosition);
+    }
+
+    public void setGrade(String grade) throws IllegalArgumentException {
+        if (grade == null || grade.trim().isEmpty()) {
+            throw new IllegalArgumentException("Grade cannot be null or empty");
+        }
+        // Under the record's lock, like registration's indexing, so the grade postings never miss a change
+        long logPosition;
+        synchronized (getAttendanceBits()) {
+            String previous = this.grade;
+            this.grade = grade.trim();
+            AttendanceManager owner = getManager();
+            if (owner != null) {
+                owner.gradeChanged(this, previous);
+            }
+            logPosition = logProfile();
+        }
+        awaitProfile(logPosition);
+    }
+
+    public double getGpa() { return gpa; }
+    public String getGrade() { return grade; }
+    public List<String> getSubjects() { return subjects; }
+    public int getWarningCount() { return warningCount.get(); }
+
+    public void addSubject(String subject) {
+        if (subject != null && !subject.trim().isEmpty()) {
+            long logPosition;
+            synchronized (getAttendanceBits()) {
+                subjects = appended(subjects, subject.trim());
+                AttendanceManager owner = getManager();
+                if (owner != null) {
+                    owner.subjectAdded(this, subject.trim());
+                }
+                logPosition = logProfile();
+            }
+            awaitProfile(logPosition);
+        }
+    }
+
+    @Override
+    protected Person copyProfile() {
+        Student copy = new Student(getName(), getId(), grade, gpa);
+        copy.subjects = subjects;
+        return copy;
+    }
+
+    // Subjects are only ever appended, so the logged list extends this one
+    @Override
+    protected void restoreProfile(Person profile) {
+        if (!(profile instanceof Student)) return;
+        Student source = (Student) profile;
+        setGrade(source.grade);
+        setGpa(source.gpa);
+        List<String> logged = source.subjects;
+        for (int i = subjects.size(); i < logged.size(); i++) {
+            addSubject(logged.get(i));
+        }
+    }
+
+    @Override
+    public String getRole() { return "Student"; }
+
+    @Override
+    public double getMinimumAttendanceRequirement() { return 75.0; }
+
+    @Override
+    public void handleLowAttendance() {
+        int warnings = warningCount.incrementAndGet();
+        AttendanceEventSink sink = eventSink();
+        if (sink.isEnabled()) {
+            sink.publish(AttendanceEvent.studentWarning(this, warnings));
+        }
+    }
+
+    @Override
+    protected void onAttendanceMarked(LocalDate date, boolean present) {
+        if (!present) {
+            notifyAbsence(date);
+        }
+    }
+
+    @Override
+    protected Notification absenceNotification(LocalDate date) {
+        return new Notification(Notification.Kind.PARENT_ABSENCE, this, date, null);
+    }
+
+    @Override
+    public void displayInfo() {
+        super.displayInfo();
+        System.out.println("Grade Level: " + grade);
+        System.out.println("GPA: " + String.format("%.2f", gpa));
+        System.out.println("Enrolled Subjects: " + subjects.size());
+        for (int i = 0; i < subjects.size(); i++) {
+            System.out.println("  " + (i + 1) + ". " + subjects.get(i));
+        }
+        int warnings = warningCount.get();
+        if (warnings > 0) {
+            System.out.println("⚠️  Total Warnings: " + warnings);
+        }
+    }
+}
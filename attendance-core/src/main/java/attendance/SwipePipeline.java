@@ -0,0 +1,378 @@
+// Ingestion pipeline for raw kiosk swipes: any number of producer threads publish into a pre-allocated
+// ring of slots, and one applier thread drains it in batches through four stages: validate (a school
+// day of the calendar), resolve the ID to a registered person, drop repeated swipes by the same person
+// on the same day inside the dedup window, and apply the surviving marks through the logged, indexed
+// path, waiting for the log once per batch. Corrections skip the window and restart it.
+// A slot is a row of parallel arrays and the applier's per-person state is indexed by handle, so
+// publishing and applying allocate nothing per event. When the ring is full the OverflowPolicy
+// decides between waiting and dropping; drops, duplicates and rejected events are counted.
+package attendance;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.LockSupport;
+
+class SwipePipeline implements Closeable {
+    enum OverflowPolicy {
+        // Producers wait for a free slot; nothing is lost
+        BLOCK,
+        // The incoming event is refused and counted
+        DROP_NEWEST,
+        // Swipes are refused and counted while corrections wait: a kiosk swipe is repeated, a correction is not
+        DROP_SWIPES
+    }
+
+    private static final byte SWIPE = 0;
+    private static final byte CORRECT_PRESENT = 1;
+    private static final byte CORRECT_ABSENT = 2;
+    // Set in claimed by close(); producers that see it are refused
+    private static final long CLOSED = Long.MIN_VALUE;
+
+    private final AttendanceManager manager;
+    private final OverflowPolicy overflowPolicy;
+    private final int mask;
+
+    // Slot rows, written by the producer that claimed the sequence before it publishes it
+    private final String[] ids;
+    private final long[] days;
+    private final long[] times;
+    private final byte[] kinds;
+    // Sequence last published into each slot, -1 before the first lap
+    private final AtomicLongArray published;
+
+    // Next sequence to claim, with CLOSED set once the pipeline stops accepting events
+    private final AtomicLong claimed = new AtomicLong();
+    // Every sequence below this one has been applied and its slot may be reused
+    private volatile long consumed;
+    private final LongAdder droppedCount = new LongAdder();
+    private final Thread applier;
+    // Set if the applier thread dies; from then on nothing published would ever be applied
+    private volatile Throwable applierFailure;
+
+    private volatile int batchSize = 256;
+    private volatile long dedupWindowMillis = 60_000;
+
+    // Applier state: the batch being applied, and per handle the school day and time of the last swipe
+    // that opened a dedup window (day -1 means none)
+    private Person[] batchPersons = new Person[0];
+    private int[] batchDays = new int[0];
+    private boolean[] batchPresent = new boolean[0];
+    private int[] windowDay = new int[0];
+    private long[] windowStart = new long[0];
+
+    // Written by the applier once per batch
+    private volatile long appliedCount;
+    private volatile long duplicateCount;
+    private volatile long unknownCount;
+    private volatile long invalidCount;
+    private volatile long failedCount;
+    private volatile long batchCount;
+
+    public SwipePipeline(AttendanceManager manager, int capacity, OverflowPolicy overflowPolicy) {
+        if (manager == null || overflowPolicy == null) {
+            throw new IllegalArgumentException("Manager and overflow policy cannot be null");
+        }
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two, got: " + capacity);
+        }
+        this.manager = manager;
+        this.overflowPolicy = overflowPolicy;
+        this.mask = capacity - 1;
+        this.ids = new String[capacity];
+        this.days = new long[capacity];
+        this.times = new long[capacity];
+        this.kinds = new byte[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.applier = new Thread(this::applyLoop, "attendance-swipe-applier");
+        this.applier.setDaemon(true);
+        this.applier.start();
+    }
+
+    // Most events the applier takes at once, and so the most marks per wait on the log
+    public SwipePipeline batchSize(int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive, got: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    // Repeated swipes by one person on one school day within this many milliseconds of the swipe that
+    // opened the window are dropped; 0 applies every swipe
+    public SwipePipeline dedupWindow(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Dedup window cannot be negative, got: " + millis);
+        }
+        this.dedupWindowMillis = millis;
+        return this;
+    }
+
+    // Marks the person present on the epoch day, swiped at timeMillis; false when refused by the
+    // overflow policy or after close. Throws IllegalStateException once the applier has stopped.
+    public boolean swipe(String id, long epochDay, long timeMillis) {
+        return publish(id, epochDay, timeMillis, SWIPE, overflowPolicy == OverflowPolicy.BLOCK);
+    }
+
+    // Late correction of a day's mark, applied whatever swipes came before it
+    public boolean correct(String id, long epochDay, boolean present) {
+        return publish(id, epochDay, 0, present ? CORRECT_PRESENT : CORRECT_ABSENT,
+                       overflowPolicy != OverflowPolicy.DROP_NEWEST);
+    }
+
+    private boolean publish(String id, long epochDay, long timeMillis, byte kind, boolean wait) {
+        long sequence = claim(wait);
+        if (sequence < 0) {
+            droppedCount.increment();
+            return false;
+        }
+        int slot = (int) sequence & mask;
+        ids[slot] = id;
+        days[slot] = epochDay;
+        times[slot] = timeMillis;
+        kinds[slot] = kind;
+        published.lazySet(slot, sequence);
+        return true;
+    }
+
+    // Next free sequence, or -1 when the ring is full and the caller may not wait, or after close
+    private long claim(boolean wait) {
+        int idle = 0;
+        while (true) {
+            long sequence = claimed.get();
+            if (sequence < 0) return -1;
+            checkApplier();
+            if (sequence - consumed > mask) {
+                if (!wait) return -1;
+                idle = idle(idle);
+            } else if (claimed.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    // Spins briefly, then yields, then parks; returns the next round
+    private static int idle(int round) {
+        if (round < 64) {
+            Thread.onSpinWait();
+        } else if (round < 128) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+        return round + 1;
+    }
+
+    private void applyLoop() {
+        try {
+            int idle = 0;
+            while (true) {
+                long next = consumed;
+                int count = available(next);
+                if (count == 0) {
+                    long end = claimed.get();
+                    if (end < 0 && next == (end & ~CLOSED)) return;
+                    idle = idle(idle);
+                    continue;
+                }
+                idle = 0;
+                long start = System.nanoTime();
+                try {
+                    applyBatch(next, count);
+                } catch (RuntimeException e) {
+                    // A batch that fails outright counts as failed as a whole; the ring keeps draining
+                    Arrays.fill(batchPersons, 0, count, null);
+                    for (int i = 0; i < count; i++) {
+                        ids[(int) (next + i) & mask] = null;
+                    }
+                    failedCount += count;
+                    batchCount++;
+                    System.err.println("❌ Swipe batch failed: " + e.getMessage());
+                }
+                consumed = next + count;
+                manager.getMetrics().record(AttendanceMetrics.Operation.INGEST_BATCH, start);
+            }
+        } catch (Throwable t) {
+            applierFailure = t;
+            throw t;
+        }
+    }
+
+    private void checkApplier() {
+        Throwable failure = applierFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Swipe applier has stopped", failure);
+        }
+    }
+
+    // Published events from next onwards, stopping at the first gap or the batch size
+    private int available(long next) {
+        int limit = batchSize;
+        int count = 0;
+        while (count < limit && published.get((int) (next + count) & mask) == next + count) {
+            count++;
+        }
+        return count;
+    }
+
+    private void applyBatch(long first, int count) {
+        if (batchPersons.length < count) {
+            batchPersons = new Person[count];
+            batchDays = new int[count];
+            batchPresent = new boolean[count];
+        }
+        TermCalendar calendar = manager.getCalendar();
+        AttendanceMetrics metrics = manager.getMetrics();
+        long window = dedupWindowMillis;
+        int marks = 0;
+        int duplicates = 0;
+        int unknown = 0;
+        int invalid = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = (int) (first + i) & mask;
+            String id = ids[slot];
+            ids[slot] = null;
+            // Validate
+            int dayIndex = id == null ? -1 : calendar.indexOf(days[slot]);
+            if (dayIndex < 0) {
+                invalid++;
+                metrics.markFailed();
+                continue;
+            }
+            // Resolve
+            Person person = manager.findPerson(id);
+            if (person == null) {
+                unknown++;
+                metrics.markFailed();
+                continue;
+            }
+            // Deduplicate
+            int handle = person.getHandle();
+            if (handle >= windowDay.length) {
+                growWindows(handle);
+            }
+            byte kind = kinds[slot];
+            if (kind == SWIPE) {
+                long time = times[slot];
+                if (windowDay[handle] == dayIndex && time >= windowStart[handle] && time - windowStart[handle] < window) {
+                    duplicates++;
+                    continue;
+                }
+                windowDay[handle] = dayIndex;
+                windowStart[handle] = time;
+            } else {
+                windowDay[handle] = -1;
+            }
+            batchPersons[marks] = person;
+            batchDays[marks] = dayIndex;
+            batchPresent[marks] = kind != CORRECT_ABSENT;
+            marks++;
+        }
+        applyMarks(marks);
+        duplicateCount += duplicates;
+        unknownCount += unknown;
+        invalidCount += invalid;
+        batchCount++;
+    }
+
+    // Apply: every mark is logged and stored first, the log is waited on once, then follow-ups run
+    private void applyMarks(int marks) {
+        long logPosition = 0;
+        int applied = 0;
+        int failed = 0;
+        for (int i = 0; i < marks; i++) {
+            try {
+                logPosition = Math.max(logPosition, batchPersons[i].applyMark(batchDays[i], batchPresent[i]));
+                applied++;
+            } catch (RuntimeException e) {
+                manager.getMetrics().markFailed();
+                batchPersons[i] = null;
+                failed++;
+            }
+        }
+        try {
+            manager.awaitDurable(logPosition);
+        } catch (RuntimeException e) {
+            // Applied in memory but not known to be durable: the marks count as failed and get no follow-ups
+            System.err.println("❌ Swipe batch could not be made durable: " + e.getMessage());
+            for (int i = 0; i < marks; i++) {
+                if (batchPersons[i] == null) continue;
+                batchPersons[i] = null;
+                manager.getMetrics().markFailed();
+                applied--;
+                failed++;
+            }
+        }
+        for (int i = 0; i < marks; i++) {
+            Person person = batchPersons[i];
+            if (person == null) continue;
+            batchPersons[i] = null;
+            try {
+                person.completeMark(batchDays[i], batchPresent[i], true);
+            } catch (RuntimeException e) {
+                System.err.println("❌ Swipe follow-up failed for " + person.getId() + ": " + e.getMessage());
+            }
+        }
+        appliedCount += applied;
+        failedCount += failed;
+    }
+
+    private void growWindows(int handle) {
+        int length = Math.max(handle + 1, windowDay.length * 2);
+        int from = windowDay.length;
+        windowDay = Arrays.copyOf(windowDay, length);
+        windowStart = Arrays.copyOf(windowStart, length);
+        Arrays.fill(windowDay, from, length, -1);
+    }
+
+    // Waits until every event published before the call has been applied; throws IllegalStateException
+    // if the applier stops first
+    public void flush() {
+        long target = claimed.get() & ~CLOSED;
+        int idle = 0;
+        while (consumed < target) {
+            checkApplier();
+            if (!applier.isAlive() && consumed < target) {
+                checkApplier();
+                throw new IllegalStateException("Swipe applier has stopped");
+            }
+            idle = idle(idle);
+        }
+    }
+
+    // Refuses further events, applies everything already published and stops the applier
+    @Override
+    public void close() {
+        long sequence;
+        do {
+            sequence = claimed.get();
+        } while (sequence >= 0 && !claimed.compareAndSet(sequence, sequence | CLOSED));
+        try {
+            applier.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public OverflowPolicy getOverflowPolicy() { return overflowPolicy; }
+    public int getCapacity() { return mask + 1; }
+    public long getPublishedCount() { return claimed.get() & ~CLOSED; }
+    public int getPendingCount() { return (int) (getPublishedCount() - consumed); }
+    public long getAppliedCount() { return appliedCount; }
+    public long getDuplicateCount() { return duplicateCount; }
+    public long getUnknownCount() { return unknownCount; }
+    public long getInvalidCount() { return invalidCount; }
+    public long getFailedCount() { return failedCount; }
+    public long getDroppedCount() { return droppedCount.sum(); }
+    public long getBatchCount() { return batchCount; }
+
+    @Override
+    public String toString() {
+        return "Swipes: " + getPublishedCount() + " published, " + appliedCount + " applied, " + duplicateCount +
+               " duplicate, " + unknownCount + " unknown, " + invalidCount + " invalid, " + failedCount +
+               " failed, " + getDroppedCount() + " dropped";
+    }
+}
@@ -0,0 +1,155 @@
+// Teacher class extends Person
+package attendance;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class Teacher extends Person {
+    private String subject;
+    private int yearsExperience;
+    private double salary;
+    // Copy-on-write: readers share the current list, additions publish a new one
+    private volatile List<String> qualifications;
+    // Raised by the policy engine's thread, read by reports and displayInfo
+    private final AtomicInteger substituteRequests = new AtomicInteger();
+
+    public Teacher(String name, String id, String subject, int yearsExperience, double salary)
+            throws IllegalArgumentException {
+        super(name, id);
+        setSubject(subject);
+        setYearsExperience(yearsExperience);
+        setSalary(salary);
+        this.qualifications = List.of();
+    }
+
+    public void setSubject(String subject) throws IllegalArgumentException {
+        if (subject == null || subject.trim().isEmpty()) {
+            throw new IllegalArgumentException("Subject cannot be null or empty");
+        }
+        // Under the record's lock, like registration's indexing, so the subject postings never miss a change
+        long logPosition;
+        synchronized (getAttendanceBits()) {
+            String previous = this.subject;
+            this.subject = subject.trim();
+            AttendanceManager owner = getManager();
+            if (owner != null) {
+                owner.teachingSubjectChanged(this, previous);
+            }
+            logPosition = logProfile();
+        }
+        awaitProfile(logPosition);
+    }
+
+    public void setYearsExperience(int years) throws IllegalArgumentException {
+        if (years < 0) {
+            throw new IllegalArgumentException("Years of experience cannot be negative");
+        }
+        long logPosition;
+        synchronized (getAttendanceBits()) {
+            this.yearsExperience = years;
+            logPosition = logProfile();
+        }
+        awaitProfile(logPosition);
+    }
+
+    public void setSalary(double salary) throws IllegalArgumentException {
+        if (salary < 0) {
+            throw new IllegalArgumentException("Salary cannot be negative");
+        }
+        long logPosition;
+        synchronized (getAttendanceBits()) {
+            this.salary = salary;
+            logPosition = logProfile();
+        }
+        awaitProfile(logPosition);
+    }
+
+    public String getSubject() { return subject; }
+    public int getYearsExperience() { return yearsExperience; }
+    public double getSalary() { return salary; }
+    public List<String> getQualifications() { return qualifications; }
+    public int getSubstituteRequests() { return substituteRequests.get(); }
+
+    public void addQualification(String qualification) {
+        if (qualification != null && !qualification.trim().isEmpty()) {
+            long logPosition;
+            synchronized (getAttendanceBits()) {
+                qualifications = appended(qualifications, qualification.trim());
+                logPosition = logProfile();
+            }
+            awaitProfile(logPosition);
+        }
+    }
+
+    public String getSalaryCategory() {
+        if (salary < 40000) return "Entry Level";
+        else if (salary < 70000) return "Mid Level";
+        else if (salary < 100000) return "Senior Level";
+        else return "Executive Level";
+    }
+
+    @Override
+    protected Person copyProfile() {
+        Teacher copy = new Teacher(getName(), getId(), subject, yearsExperience, salary);
+        copy.qualifications = qualifications;
+        return copy;
+    }
+
+    // Qualifications are only ever appended, so the logged list extends this one
+    @Override
+    protected void restoreProfile(Person profile) {
+        if (!(profile instanceof Teacher)) return;
+        Teacher source = (Teacher) profile;
+        setSubject(source.subject);
+        setYearsExperience(source.yearsExperience);
+        setSalary(source.salary);
+        List<String> logged = source.qualifications;
+        for (int i = qualifications.size(); i < logged.size(); i++) {
+            addQualification(logged.get(i));
+        }
+    }
+
+    @Override
+    public String getRole() { return "Teacher"; }
+
+    @Override
+    public double getMinimumAttendanceRequirement() { return 90.0; }
+
+    @Override
+    public void handleLowAttendance() {
+        int requests = substituteRequests.incrementAndGet();
+        AttendanceEventSink sink = eventSink();
+        if (sink.isEnabled()) {
+            sink.publish(AttendanceEvent.teacherAbsenceProtocol(this, requests));
+        }
+    }
+
+    @Override
+    protected void onAttendanceMarked(LocalDate date, boolean present) {
+        if (!present) {
+            notifyAbsence(date);
+        }
+    }
+
+    @Override
+    protected Notification absenceNotification(LocalDate date) {
+        return new Notification(Notification.Kind.SUBSTITUTE_REQUEST, this, date, subject);
+    }
+
+    @Override
+    public void displayInfo() {
+        super.displayInfo();
+        System.out.println("Subject: " + subject);
+        System.out.println("Experience: " + yearsExperience + " years");
+        System.out.println("Salary Category: " + getSalaryCategory());
+        System.out.println("Qualifications: " + qualifications.size());
+        for (String qual : qualifications) {
+            System.out.println("  • " + qual);
+        }
+        int requests = substituteRequests.get();
+        if (requests > 0) {
+            System.out.println("📋 Substitute Requests: " + requests);
+        }
+    }
+}
@@ -0,0 +1,442 @@
+// Immutable, compressed attendance for one closed term, read through a memory-mapped file.
+//
+// Layout: a fixed header, the institution name, the term's school days as epoch days, an index
+// of fixed-width entries sorted by the UTF-8 bytes of each ID, the IDs and names, then each
+// person's day states run-length encoded. A run is one varint, length << 2 | state, with states
+// UNMARKED, ABSENT and PRESENT, so a full term of unbroken presence costs two bytes. Whole-term
+// counts sit in the index; range queries walk the runs without expanding them.
+package attendance;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32;
+
+class TermArchive {
+    private static final int MAGIC = 0x41544152; // "ATAR"
+    private static final int VERSION = 1;
+
+    private static final int ROLE_STUDENT = 0;
+    private static final int ROLE_TEACHER = 1;
+
+    // magic, version, personCount, dayCount, start, end, bodyCrc, institution length,
+    // calendar, index, strings and runs offsets, createdAt
+    private static final int HEADER_SIZE = 64;
+    // stringOffset, runOffset, present, marked, role
+    private static final int ENTRY_SIZE = 20;
+
+    private final Path file;
+    private final ByteBuffer data;
+    private final int personCount;
+    private final int dayCount;
+    private final LocalDate start;
+    private final LocalDate end;
+    private final int bodyCrc;
+    private final String institutionName;
+    private final int calendarOffset;
+    private final int indexOffset;
+    private final int stringsOffset;
+    private final int runsOffset;
+    private final long createdAt;
+
+    private TermArchive(Path file, ByteBuffer data) throws IOException {
+        this.file = file;
+        this.data = data;
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a term archive: " + file);
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported term archive version " + data.getInt(4) + ": " + file);
+        }
+        this.personCount = data.getInt(8);
+        this.dayCount = data.getInt(12);
+        this.start = LocalDate.ofEpochDay(data.getLong(16));
+        this.end = LocalDate.ofEpochDay(data.getLong(24));
+        this.bodyCrc = data.getInt(32);
+        int institutionLength = data.getInt(36);
+        this.calendarOffset = data.getInt(40);
+        this.indexOffset = data.getInt(44);
+        this.stringsOffset = data.getInt(48);
+        this.runsOffset = data.getInt(52);
+        this.createdAt = data.getLong(56);
+        byte[] institution = new byte[institutionLength];
+        data.duplicate().position(HEADER_SIZE).get(institution);
+        this.institutionName = new String(institution, StandardCharsets.UTF_8);
+    }
+
+    public static TermArchive open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Term archive larger than 2 GB is not supported: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.BIG_ENDIAN);
+            return new TermArchive(file, mapped);
+        }
+    }
+
+    // Term dates from the header alone, without mapping the file; { start, end }
+    static LocalDate[] readTerm(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+            }
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a term archive: " + file);
+        }
+        return new LocalDate[] { LocalDate.ofEpochDay(header.getLong(16)), LocalDate.ofEpochDay(header.getLong(24)) };
+    }
+
+    // Freezes the term as one consistent view and writes it to file, replacing it atomically;
+    // marks on later check-ins are not included
+    public static void write(AttendanceManager term, Path file) throws IOException {
+        TermCalendar calendar = term.getCalendar();
+        int days = calendar.size();
+        byte[] institution = utf8(term.getInstitutionName() == null ? "" : term.getInstitutionName());
+        try (AttendanceView view = term.openView()) {
+            List<Person> persons = view.getPersons();
+            int count = persons.size();
+            byte[][] ids = new byte[count][];
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = utf8(persons.get(i).getId());
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(ids[a], ids[b]));
+
+            ByteArrayOutputStream strings = new ByteArrayOutputStream();
+            ByteArrayOutputStream runs = new ByteArrayOutputStream();
+            ByteBuffer index = ByteBuffer.allocate(count * ENTRY_SIZE);
+            byte[] states = new byte[days];
+            for (int position = 0; position < count; position++) {
+                Person person = persons.get(order[position]);
+                byte[] name = utf8(person.getName());
+                byte[] id = ids[order[position]];
+                if (id.length > 0xFFFF || name.length > 0xFFFF) {
+                    throw new IOException("ID or name longer than 65535 bytes: " + person.getId());
+                }
+                long counts = view.getAttendanceCounts(person);
+                index.putInt(strings.size()).putInt(runs.size())
+                     .putInt((int) (counts >>> 32)).putInt((int) counts)
+                     .putInt(person instanceof Teacher ? ROLE_TEACHER : ROLE_STUDENT);
+                putString(strings, id);
+                putString(strings, name);
+
+                Arrays.fill(states, (byte) AttendanceBits.UNMARKED);
+                view.forEachMark(person, (day, present) ->
+                    states[calendar.indexOf(day)] =
+                        (byte) (present ? AttendanceBits.PRESENT : AttendanceBits.ABSENT));
+                int runStart = 0;
+                for (int day = 1; day <= days; day++) {
+                    if (day == days || states[day] != states[runStart]) {
+                        putVarint(runs, ((long) (day - runStart) << 2) | states[runStart]);
+                        runStart = day;
+                    }
+                }
+            }
+
+            int calendarOffset = (int) align(HEADER_SIZE + institution.length);
+            int indexOffset = calendarOffset + 8 * days;
+            int stringsOffset = indexOffset + count * ENTRY_SIZE;
+            int runsOffset = stringsOffset + strings.size();
+            long total = (long) runsOffset + runs.size();
+            if (total > Integer.MAX_VALUE) {
+                throw new IOException("Term archive larger than 2 GB is not supported (" + total + " bytes)");
+            }
+            ByteBuffer out = ByteBuffer.allocate((int) total);
+            out.position(HEADER_SIZE);
+            out.put(institution);
+            out.position(calendarOffset);
+            for (int day = 0; day < days; day++) {
+                out.putLong(calendar.epochDayOf(day));
+            }
+            out.put(index.array());
+            out.put(strings.toByteArray());
+            out.put(runs.toByteArray());
+
+            out.putInt(0, MAGIC);
+            out.putInt(4, VERSION);
+            out.putInt(8, count);
+            out.putInt(12, days);
+            out.putLong(16, calendar.getStart().toEpochDay());
+            out.putLong(24, calendar.getEnd().toEpochDay());
+            out.putInt(32, bodyCrc(out, total));
+            out.putInt(36, institution.length);
+            out.putInt(40, calendarOffset);
+            out.putInt(44, indexOffset);
+            out.putInt(48, stringsOffset);
+            out.putInt(52, runsOffset);
+            out.putLong(56, System.currentTimeMillis());
+
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.rewind();
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    public Path getFile() { return file; }
+    public String getInstitutionName() { return institutionName; }
+    public int getPersonCount() { return personCount; }
+    public int getSchoolDayCount() { return dayCount; }
+    public LocalDate getStart() { return start; }
+    public LocalDate getEnd() { return end; }
+    public long getCreatedAt() { return createdAt; }
+    public long getSizeBytes() { return data.capacity(); }
+
+    public boolean covers(LocalDate date) {
+        return !date.isBefore(start) && !date.isAfter(end);
+    }
+
+    // Position of the ID in the sorted index, or -1
+    public int indexOf(String id) {
+        if (id == null) return -1;
+        byte[] key = utf8(id);
+        int low = 0;
+        int high = personCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compared = compareId(middle, key);
+            if (compared < 0) low = middle + 1;
+            else if (compared > 0) high = middle - 1;
+            else return middle;
+        }
+        return -1;
+    }
+
+    public boolean contains(String id) {
+        return indexOf(id) >= 0;
+    }
+
+    public String getId(int entry) { return string(stringOffsetOf(entry)); }
+
+    public String getName(int entry) {
+        int offset = stringOffsetOf(entry);
+        return string(offset + 2 + (data.getShort(offset) & 0xFFFF));
+    }
+
+    public String getRole(int entry) {
+        return data.getInt(entryAt(entry) + 16) == ROLE_TEACHER ? "Teacher" : "Student";
+    }
+
+    public int getPresentCount(int entry) { return data.getInt(entryAt(entry) + 8); }
+    public int getMarkedCount(int entry) { return data.getInt(entryAt(entry) + 12); }
+
+    public double getAttendancePercentage(int entry) {
+        return AttendanceBits.percentageOf(((long) getPresentCount(entry) << 32) | getMarkedCount(entry));
+    }
+
+    // Whole term by ID; NaN when the person was not registered that term
+    public double getAttendancePercentage(String id) {
+        int entry = indexOf(id);
+        return entry < 0 ? Double.NaN : getAttendancePercentage(entry);
+    }
+
+    // Present count in the high 32 bits, marked count in the low 32 bits, for the inclusive range;
+    // 0 when the person was not registered that term
+    public long getAttendanceCounts(String id, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        int entry = indexOf(id);
+        return entry < 0 ? 0 : countRuns(entry, ceilingIndex(from), floorIndex(to));
+    }
+
+    public double getAttendancePercentage(String id, LocalDate from, LocalDate to) {
+        return AttendanceBits.percentageOf(getAttendanceCounts(id, from, to));
+    }
+
+    // Pooled counts for everyone in the term over the inclusive range, packed the same way
+    public long getAttendanceCounts(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        int fromDay = ceilingIndex(from);
+        int toDay = floorIndex(to);
+        if (fromDay == 0 && toDay == dayCount - 1) {
+            long present = 0;
+            long marked = 0;
+            for (int entry = 0; entry < personCount; entry++) {
+                present += getPresentCount(entry);
+                marked += getMarkedCount(entry);
+            }
+            return (present << 32) | marked;
+        }
+        long present = 0;
+        long marked = 0;
+        for (int entry = 0; entry < personCount; entry++) {
+            long counts = countRuns(entry, fromDay, toDay);
+            present += counts >>> 32;
+            marked += (int) counts;
+        }
+        return (present << 32) | marked;
+    }
+
+    public double getAttendancePercentage(LocalDate from, LocalDate to) {
+        long counts = getAttendanceCounts(from, to);
+        long marked = counts & 0xFFFFFFFFL;
+        return marked == 0 ? 0.0 : (counts >>> 32) * 100.0 / marked;
+    }
+
+    // Marks in date order with their epoch days, decoded from the runs
+    public void forEachMark(int entry, AttendanceBits.MarkConsumer consumer) {
+        int position = runsOffset + data.getInt(entryAt(entry) + 4);
+        int day = 0;
+        while (day < dayCount) {
+            long run = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data.get(position++);
+                run |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            int length = (int) (run >>> 2);
+            int state = (int) (run & 3);
+            if (state != AttendanceBits.UNMARKED) {
+                for (int i = day; i < day + length; i++) {
+                    consumer.accept(epochDayOf(i), state == AttendanceBits.PRESENT);
+                }
+            }
+            day += length;
+        }
+    }
+
+    public Map<LocalDate, Boolean> getAttendanceRecord(String id) {
+        int entry = indexOf(id);
+        if (entry < 0) return Collections.emptyMap();
+        Map<LocalDate, Boolean> record = new LinkedHashMap<>();
+        forEachMark(entry, (day, present) -> record.put(LocalDate.ofEpochDay(day), present));
+        return record;
+    }
+
+    // Checks the stored checksum against the file contents; touches every page
+    public boolean verifyChecksum() {
+        return bodyCrc(data, data.capacity()) == bodyCrc;
+    }
+
+    // Sums the runs overlapping school-day indexes [fromDay, toDay], stopping after the last
+    private long countRuns(int entry, int fromDay, int toDay) {
+        if (toDay < fromDay) return 0;
+        int position = runsOffset + data.getInt(entryAt(entry) + 4);
+        long present = 0;
+        long marked = 0;
+        int day = 0;
+        while (day <= toDay) {
+            long run = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data.get(position++);
+                run |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            int length = (int) (run >>> 2);
+            int state = (int) (run & 3);
+            int overlap = Math.min(day + length - 1, toDay) - Math.max(day, fromDay) + 1;
+            if (overlap > 0 && state != AttendanceBits.UNMARKED) {
+                marked += overlap;
+                if (state == AttendanceBits.PRESENT) present += overlap;
+            }
+            day += length;
+        }
+        return (present << 32) | marked;
+    }
+
+    // First school-day index on or after the date; dayCount when there is none
+    private int ceilingIndex(LocalDate date) {
+        long target = date.toEpochDay();
+        int low = 0;
+        int high = dayCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (epochDayOf(middle) < target) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    // Last school-day index on or before the date; -1 when there is none
+    private int floorIndex(LocalDate date) {
+        return ceilingIndex(date.plusDays(1)) - 1;
+    }
+
+    private long epochDayOf(int day) {
+        return data.getLong(calendarOffset + 8 * day);
+    }
+
+    private int entryAt(int entry) {
+        if (entry < 0 || entry >= personCount) {
+            throw new IllegalArgumentException("Entry " + entry + " is outside 0.." + (personCount - 1));
+        }
+        return indexOffset + ENTRY_SIZE * entry;
+    }
+
+    private int stringOffsetOf(int entry) {
+        return stringsOffset + data.getInt(entryAt(entry));
+    }
+
+    private int compareId(int entry, byte[] key) {
+        int offset = stringOffsetOf(entry);
+        int length = data.getShort(offset) & 0xFFFF;
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+            int compared = Integer.compare(data.get(offset + 2 + i) & 0xFF, key[i] & 0xFF);
+            if (compared != 0) return compared;
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private String string(int offset) {
+        byte[] bytes = new byte[data.getShort(offset) & 0xFFFF];
+        data.duplicate().position(offset + 2).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Date range cannot be null");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Range end " + to + " is before start " + from);
+        }
+    }
+
+    private static void putString(ByteArrayOutputStream out, byte[] value) {
+        out.write(value.length >>> 8);
+        out.write(value.length);
+        out.write(value, 0, value.length);
+    }
+
+    private static void putVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static int bodyCrc(ByteBuffer buffer, long total) {
+        CRC32 crc = new CRC32();
+        ByteBuffer body = buffer.duplicate();
+        body.position(HEADER_SIZE).limit((int) total);
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,197 @@
+// Term calendar: the school days between a start and end date, after weekend rules, holidays
+// and closures. A dense table over every calendar day of the term maps a date to its school-day
+// index with one array lookup; attendance is stored, counted and reported by that index.
+package attendance;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+class TermCalendar {
+    static final int MAX_TERM_DAYS = 3660;
+
+    private final LocalDate start;
+    private final LocalDate end;
+    private final long startDay;
+    // Per calendar day: the school-day index, or -(index of the next school day) - 1 when closed
+    private final int[] table;
+    private final long[] schoolDays;
+    // Shared LocalDate per school day, so index-based callers never allocate one
+    private final LocalDate[] dates;
+    private final List<LocalDate> schoolDayList;
+
+    private TermCalendar(LocalDate start, LocalDate end, Set<DayOfWeek> weekend, Set<Long> closed) {
+        this.start = start;
+        this.end = end;
+        this.startDay = start.toEpochDay();
+        this.table = new int[(int) (end.toEpochDay() - startDay + 1)];
+        long[] days = new long[table.length];
+        int count = 0;
+        DayOfWeek weekday = start.getDayOfWeek();
+        for (int offset = 0; offset < table.length; offset++) {
+            long day = startDay + offset;
+            if (weekend.contains(weekday) || closed.contains(day)) {
+                table[offset] = -count - 1;
+            } else {
+                table[offset] = count;
+                days[count++] = day;
+            }
+            weekday = weekday.plus(1);
+        }
+        this.schoolDays = Arrays.copyOf(days, count);
+        this.dates = new LocalDate[count];
+        for (int index = 0; index < count; index++) {
+            dates[index] = LocalDate.ofEpochDay(schoolDays[index]);
+        }
+        this.schoolDayList = List.of(dates);
+    }
+
+    public static Builder builder(LocalDate start, LocalDate end) {
+        return new Builder(start, end);
+    }
+
+    // The first count Monday-to-Friday days on or after start
+    public static TermCalendar weekdaysFrom(LocalDate start, int count) {
+        if (start == null) {
+            throw new IllegalArgumentException("Start date cannot be null");
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("School day count must be positive, got: " + count);
+        }
+        LocalDate end = start;
+        int added = 0;
+        while (true) {
+            if (end.getDayOfWeek().getValue() <= 5 && ++added == count) break;
+            end = end.plusDays(1);
+        }
+        return builder(start, end).build();
+    }
+
+    static final class Builder {
+        private final LocalDate start;
+        private final LocalDate end;
+        private final Set<DayOfWeek> weekend = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+        private final Set<Long> closed = new HashSet<>();
+
+        private Builder(LocalDate start, LocalDate end) {
+            if (start == null || end == null) {
+                throw new IllegalArgumentException("Term start and end cannot be null");
+            }
+            if (end.isBefore(start)) {
+                throw new IllegalArgumentException("Term end " + end + " is before start " + start);
+            }
+            if (end.toEpochDay() - start.toEpochDay() >= MAX_TERM_DAYS) {
+                throw new IllegalArgumentException("Term cannot span more than " + MAX_TERM_DAYS + " days");
+            }
+            this.start = start;
+            this.end = end;
+        }
+
+        // Replaces the default Saturday and Sunday weekend; no arguments means no weekend
+        public Builder weekend(DayOfWeek... days) {
+            weekend.clear();
+            for (DayOfWeek day : days) {
+                if (day == null) {
+                    throw new IllegalArgumentException("Weekend day cannot be null");
+                }
+                weekend.add(day);
+            }
+            return this;
+        }
+
+        public Builder holiday(LocalDate date) {
+            if (date == null) {
+                throw new IllegalArgumentException("Holiday cannot be null");
+            }
+            closed.add(date.toEpochDay());
+            return this;
+        }
+
+        public Builder holidays(Collection<LocalDate> dates) {
+            for (LocalDate date : dates) holiday(date);
+            return this;
+        }
+
+        // Closes every day in the inclusive range, e.g. a mid-term break
+        public Builder closure(LocalDate from, LocalDate to) {
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Closure dates cannot be null");
+            }
+            if (to.isBefore(from)) {
+                throw new IllegalArgumentException("Closure end " + to + " is before start " + from);
+            }
+            for (long day = Math.max(from.toEpochDay(), start.toEpochDay());
+                 day <= Math.min(to.toEpochDay(), end.toEpochDay()); day++) {
+                closed.add(day);
+            }
+            return this;
+        }
+
+        public TermCalendar build() {
+            return new TermCalendar(start, end, weekend, closed);
+        }
+    }
+
+    // School-day index of the date, or -1 when it is outside the term or not a school day
+    public int indexOf(LocalDate date) {
+        return indexOf(date.toEpochDay());
+    }
+
+    public int indexOf(long epochDay) {
+        long offset = epochDay - startDay;
+        if (offset < 0 || offset >= table.length) return -1;
+        int entry = table[(int) offset];
+        return entry >= 0 ? entry : -1;
+    }
+
+    public boolean isSchoolDay(LocalDate date) {
+        return indexOf(date) >= 0;
+    }
+
+    // First school-day index on or after the date; size() when there is none
+    public int ceilingIndex(LocalDate date) {
+        long offset = date.toEpochDay() - startDay;
+        if (offset < 0) return 0;
+        if (offset >= table.length) return schoolDays.length;
+        int entry = table[(int) offset];
+        return entry >= 0 ? entry : -entry - 1;
+    }
+
+    // Last school-day index on or before the date; -1 when there is none
+    public int floorIndex(LocalDate date) {
+        long offset = date.toEpochDay() - startDay;
+        if (offset < 0) return -1;
+        if (offset >= table.length) return schoolDays.length - 1;
+        int entry = table[(int) offset];
+        return entry >= 0 ? entry : -entry - 2;
+    }
+
+    public long epochDayOf(int index) {
+        return schoolDays[checkIndex(index)];
+    }
+
+    public LocalDate dateOf(int index) {
+        return dates[checkIndex(index)];
+    }
+
+    public int size() { return schoolDays.length; }
+    public LocalDate getStart() { return start; }
+    public LocalDate getEnd() { return end; }
+
+    // Read-only; the calendar never changes, so every caller shares one list
+    public List<LocalDate> getSchoolDays() {
+        return schoolDayList;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= schoolDays.length) {
+            throw new IllegalArgumentException("School day index " + index + " is outside 0.." + (schoolDays.length - 1));
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "Term " + start + " to " + end + " (" + schoolDays.length + " school days)";
+    }
+}
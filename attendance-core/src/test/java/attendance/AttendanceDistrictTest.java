@@ -0,0 +1,62 @@
+// District routing: registrations must land in the school their ID prefix routes to
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.*;
+
+class AttendanceDistrictTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 10);
+
+    private PrintStream originalErr;
+
+    @BeforeEach
+    void silenceConsole() {
+        originalErr = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    void registrationFollowsIdRoutes() {
+        AttendanceDistrict district = new AttendanceDistrict("North District");
+        AttendanceManager alpha = new AttendanceManager("Alpha High", CALENDAR);
+        AttendanceManager beta = new AttendanceManager("Beta High", CALENDAR);
+        district.addSchool(alpha, "A");
+        district.addSchool(beta, "B", "BX");
+
+        district.registerPerson("Alpha High", new Student("Misrouted", "B001", "Grade 10", 3.0));
+        assertNull(alpha.findPerson("B001"));
+        assertNull(district.findPerson("B001"));
+
+        district.registerPerson("Beta High", new Student("Routed", "B001", "Grade 10", 3.0));
+        assertSame(beta, district.findPerson("B001").getManager());
+
+        // IDs no prefix covers may go to any school; lookups fall back to scanning every school
+        district.registerPerson("Alpha High", new Student("Unrouted", "Z001", "Grade 10", 3.0));
+        assertSame(alpha, district.findPerson("Z001").getManager());
+    }
+
+    @Test
+    void personBelongsToOneSchool() {
+        AttendanceManager alpha = new AttendanceManager("Alpha High", CALENDAR);
+        AttendanceManager beta = new AttendanceManager("Beta High", CALENDAR);
+        Student student = new Student("Shared", "S001", "Grade 10", 3.0);
+        alpha.registerPerson(student);
+
+        beta.registerPerson(student);
+        assertNull(beta.findPerson("S001"));
+        assertEquals(-1, beta.handleOf("S001"));
+        assertTrue(beta.registerAll(List.of(student)).get(0));
+        assertSame(alpha, student.getManager());
+        assertEquals(0, student.getHandle());
+    }
+}
@@ -0,0 +1,163 @@
+// Closing a term: marks racing with closeTerm are either in the archive or refused, the
+// successor keeps the closing term's configuration, and a failed close leaves the term live
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+class AttendanceHistoryTest {
+    private static final TermCalendar FALL = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 80);
+    private static final TermCalendar SPRING = TermCalendar.weekdaysFrom(LocalDate.of(2026, 1, 5), 60);
+    private static final int PERSONS = 2000;
+
+    @TempDir
+    Path directory;
+
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+
+    @BeforeEach
+    void silenceConsole() {
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @Test
+    void marksRacingCloseTermAreArchivedOrRefused() throws Exception {
+        AttendanceManager fall = newTerm();
+        AttendanceHistory history = new AttendanceHistory(directory, fall);
+
+        // One marker per person slice; every mark that returns normally must reach the archive
+        int markers = 4;
+        AtomicIntegerArray accepted = new AtomicIntegerArray(PERSONS);
+        ExecutorService executor = Executors.newFixedThreadPool(markers);
+        Future<?>[] futures = new Future<?>[markers];
+        for (int m = 0; m < markers; m++) {
+            int first = m;
+            futures[m] = executor.submit(() -> {
+                for (int day = 0; day < FALL.size(); day++) {
+                    for (int handle = first; handle < PERSONS; handle += markers) {
+                        try {
+                            fall.markAttendance(handle, day, true);
+                        } catch (IllegalStateException closed) {
+                            return null;
+                        }
+                        accepted.incrementAndGet(handle);
+                    }
+                }
+                return null;
+            });
+        }
+        // Let the markers get going, so the close lands in the middle of the sweep
+        while (accepted.get(0) == 0) {
+            Thread.onSpinWait();
+        }
+        history.closeTerm(SPRING);
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        TermArchive archive = history.getArchive(FALL.getStart());
+        for (int handle = 0; handle < PERSONS; handle++) {
+            String id = fall.personAt(handle).getId();
+            assertEquals(accepted.get(handle), archive.getMarkedCount(archive.indexOf(id)), "archived marks of " + id);
+        }
+        assertThrows(IllegalStateException.class, () -> fall.markAttendance(0, 0, true));
+        assertSame(history.getLiveTerm(), history.getLiveTerm().findPerson("S0").getManager());
+    }
+
+    @Test
+    void nextTermKeepsConfiguration() throws Exception {
+        AttendanceManager fall = newTerm();
+        Executor bulkExecutor = Runnable::run;
+        fall.setBulkExecutor(bulkExecutor);
+        fall.setBulkBatchSize(7);
+        NotificationTransport transport = batch -> { };
+        fall.setNotificationOutbox(new NotificationOutbox(fall, transport).batchSize(3).maxAttempts(2));
+
+        AttendanceManager spring = fall.startNextTerm(SPRING);
+        assertEquals(PERSONS, spring.getAllPersons().size());
+        assertSame(bulkExecutor, spring.getBulkExecutor());
+        assertEquals(7, spring.getBulkBatchSize());
+        NotificationOutbox outbox = spring.getNotificationOutbox();
+        assertNotSame(fall.getNotificationOutbox(), outbox);
+        assertSame(transport, outbox.getTransport());
+        assertEquals(3, outbox.getBatchSize());
+        assertEquals(2, outbox.getMaxAttempts());
+    }
+
+    @Test
+    void loggedTermNeedsItsOwnLogForTheNextTerm() throws Exception {
+        try (AttendanceLog fallLog = AttendanceLog.open(directory.resolve("fall.log"), AttendanceLog.Durability.SYNC, 0)) {
+            AttendanceManager fall = new AttendanceManager("History Academy", FALL, fallLog);
+            fall.registerPerson(new Student("Student", "S0", "Grade 10", 3.0));
+            assertThrows(IllegalStateException.class, () -> fall.startNextTerm(SPRING));
+            assertThrows(IllegalArgumentException.class, () -> fall.startNextTerm(SPRING, fallLog));
+
+            Path springFile = directory.resolve("spring.log");
+            try (AttendanceLog springLog = AttendanceLog.open(springFile, AttendanceLog.Durability.SYNC, 0)) {
+                AttendanceManager spring = fall.startNextTerm(SPRING, springLog);
+                spring.markAttendance(0, 0, true);
+            }
+            try (AttendanceLog springLog = AttendanceLog.open(springFile, AttendanceLog.Durability.SYNC, 0)) {
+                AttendanceManager restored = new AttendanceManager("History Academy", SPRING, springLog);
+                assertEquals(Boolean.TRUE, restored.findPerson("S0").getAttendanceRecord().get(SPRING.dateOf(0)));
+            }
+        }
+    }
+
+    @Test
+    void failedCloseLeavesNoSuccessorAndNoArchive() throws Exception {
+        try (AttendanceLog fallLog = AttendanceLog.open(directory.resolve("fall.log"), AttendanceLog.Durability.SYNC, 0)) {
+            AttendanceManager fall = new AttendanceManager("History Academy", FALL, fallLog);
+            fall.registerPerson(new Student("Student", "S0", "Grade 10", 3.0));
+            AttendanceHistory history = new AttendanceHistory(directory, fall);
+            Path archive = directory.resolve(FALL.getStart() + "_" + FALL.getEnd() + ".term");
+
+            // The archive cannot be written over a directory, so the successor is never built
+            Files.createDirectory(archive);
+            Path springFile = directory.resolve("spring.log");
+            try (AttendanceLog springLog = AttendanceLog.open(springFile, AttendanceLog.Durability.SYNC, 0)) {
+                assertThrows(IOException.class, () -> history.closeTerm(SPRING, springLog));
+            }
+            assertEquals(8, Files.size(springFile), "nothing logged for a successor");
+            Files.delete(archive);
+
+            // A successor that cannot be built takes its archive with it
+            assertThrows(IllegalArgumentException.class, () -> history.closeTerm(SPRING, fallLog));
+            assertFalse(Files.exists(archive));
+            assertSame(fall, history.getLiveTerm());
+            assertEquals(0, history.getArchivedTermCount());
+            fall.markAttendance(0, 0, true);
+            assertEquals(100.0, fall.findPerson("S0").getAttendancePercentage());
+        }
+    }
+
+    private static AttendanceManager newTerm() {
+        AttendanceManager manager = new AttendanceManager("History Academy", FALL);
+        manager.setEventSink(new NoOpEventSink());
+        for (int i = 0; i < PERSONS; i++) {
+            manager.registerPerson(new Student("Student " + i, "S" + i, "Grade 10", 3.0));
+        }
+        return manager;
+    }
+}
@@ -0,0 +1,64 @@
+// Error responses of the HTTP API, including marks refused by a frozen term
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import org.junit.jupiter.api.*;
+
+class AttendanceHttpServerTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 10);
+
+    private PrintStream originalErr;
+    private AttendanceManager manager;
+    private AttendanceHttpServer server;
+    private HttpClient client;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        originalErr = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        manager = new AttendanceManager("Http Academy", CALENDAR);
+        manager.setEventSink(new NoOpEventSink());
+        manager.registerPerson(new Student("Student", "S1", "Grade 10", 3.0));
+        server = AttendanceHttpServer.start(manager, 0);
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+        System.setErr(originalErr);
+    }
+
+    @Test
+    void checkInAndClientErrors() throws Exception {
+        assertEquals(200, post("/checkin?id=S1&date=" + CALENDAR.dateOf(0)).statusCode());
+        assertEquals(404, post("/checkin?id=S2&date=" + CALENDAR.dateOf(0)).statusCode());
+        assertEquals(400, post("/checkin?id=S1&date=2025-09-06").statusCode());
+    }
+
+    @Test
+    void frozenTermAnswers409() throws Exception {
+        manager.freeze();
+        HttpResponse<String> response = post("/checkin?id=S1&date=" + CALENDAR.dateOf(0));
+        assertEquals(409, response.statusCode());
+        assertTrue(response.body().startsWith("{\"error\":"), response.body());
+        assertTrue(response.body().contains("is closed for marking"), response.body());
+    }
+
+    private HttpResponse<String> post(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+            .timeout(Duration.ofSeconds(10))
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,94 @@
+// Round trip of records through the write-ahead log: marks with IDs that are not plain ASCII, and profile changes
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AttendanceLogTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void markIdsSurviveReplayWithTheSameEncodingAsRegistrations() throws Exception {
+        List<String> ids = List.of("S001", "Sé", "S中", "S😀", "S\uD800", "S\uD800x", "S\uDC00",
+                                   "\uDBFF", "S😀\uD800é");
+        Path file = directory.resolve("attendance.log");
+        LocalDate date = LocalDate.of(2025, 9, 1);
+        try (AttendanceLog log = AttendanceLog.open(file, AttendanceLog.Durability.SYNC, 0)) {
+            log.replay(replayInto(new ArrayList<>()));
+            for (String id : ids) {
+                log.awaitDurable(log.appendMark(id, date, true));
+            }
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (AttendanceLog log = AttendanceLog.open(file, AttendanceLog.Durability.SYNC, 0)) {
+            assertEquals(ids.size(), log.replay(replayInto(replayed)), "records replayed intact");
+        }
+        List<String> expected = new ArrayList<>();
+        for (String id : ids) {
+            expected.add(new String(id.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+        }
+        assertEquals(expected, replayed);
+    }
+
+    @Test
+    void profileChangesSurviveReplay() throws Exception {
+        TermCalendar calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 10);
+        Path file = directory.resolve("profiles.log");
+        try (AttendanceLog log = AttendanceLog.open(file, AttendanceLog.Durability.SYNC, 0)) {
+            AttendanceManager manager = new AttendanceManager("Log Academy", calendar, log);
+            manager.setEventSink(new NoOpEventSink());
+            Student student = new Student("Student", "S1", "Grade 9", 3.0);
+            Teacher teacher = new Teacher("Teacher", "T1", "Physics", 3, 40000);
+            manager.registerPerson(student);
+            manager.registerPerson(teacher);
+            student.setGrade("Grade 10");
+            student.setGpa(3.5);
+            student.addSubject("Math");
+            student.addSubject("Art");
+            teacher.setSubject("Chemistry");
+            teacher.setYearsExperience(4);
+            teacher.setSalary(45000);
+            teacher.addQualification("PhD");
+        }
+
+        try (AttendanceLog log = AttendanceLog.open(file, AttendanceLog.Durability.SYNC, 0)) {
+            AttendanceManager restored = new AttendanceManager("Log Academy", calendar, log);
+            Student student = (Student) restored.findPerson("S1");
+            assertEquals("Grade 10", student.getGrade());
+            assertEquals(3.5, student.getGpa());
+            assertEquals(List.of("Math", "Art"), student.getSubjects());
+            Teacher teacher = (Teacher) restored.findPerson("T1");
+            assertEquals("Chemistry", teacher.getSubject());
+            assertEquals(4, teacher.getYearsExperience());
+            assertEquals(45000, teacher.getSalary());
+            assertEquals(List.of("PhD"), teacher.getQualifications());
+            assertEquals(List.of(student), restored.query().grade("Grade 10").list());
+            assertEquals(List.of(), restored.query().grade("Grade 9").list());
+        }
+    }
+
+    private static AttendanceLog.ReplayHandler replayInto(List<String> ids) {
+        return new AttendanceLog.ReplayHandler() {
+            @Override
+            public void registered(Person person) {
+            }
+
+            @Override
+            public void profileUpdated(Person profile) {
+            }
+
+            @Override
+            public void marked(String id, LocalDate date, boolean present) {
+                ids.add(id);
+            }
+        };
+    }
+}
@@ -0,0 +1,75 @@
+// Metrics counters: every call is counted, failed marks on both paths are counted apart from
+// recorded ones, and sampling only thins the latency histograms
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import org.junit.jupiter.api.*;
+
+class AttendanceMetricsTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 10);
+
+    private PrintStream originalErr;
+
+    @BeforeEach
+    void silenceConsole() {
+        originalErr = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    void countersTrackCallsAndFailures() {
+        AttendanceManager manager = new AttendanceManager("Metrics Academy", CALENDAR);
+        manager.setEventSink(new NoOpEventSink());
+        AttendanceMetrics metrics = manager.getMetrics();
+        for (int i = 0; i < 10; i++) {
+            manager.registerPerson(new Student("Student " + i, "S" + i, "Grade 10", 3.0));
+        }
+        // A duplicate ID is still a registerPerson call
+        manager.registerPerson(new Student("Duplicate", "S0", "Grade 10", 3.0));
+        assertEquals(10, metrics.getRegisteredCount());
+        assertEquals(11, metrics.getOperationCount("registerPerson"));
+
+        metrics.setMarkSampling(4);
+        for (int handle = 0; handle < 10; handle++) {
+            for (int day = 0; day < CALENDAR.size(); day++) {
+                manager.markAttendance(handle, day, day % 5 != 0);
+            }
+        }
+        for (int i = 0; i < 10; i++) {
+            manager.markAttendanceForPerson("S" + i, CALENDAR.dateOf(0), true);
+        }
+        assertEquals(110, metrics.getMarkCount());
+        assertEquals(100, metrics.getOperationCount("markAttendance"));
+        assertEquals(10, metrics.getOperationCount("markAttendanceForPerson"));
+        long sampled = metrics.histogram(AttendanceMetrics.Operation.MARK).getCount();
+        assertTrue(sampled < 100, "1 in 4 marks timed, got " + sampled);
+        assertEquals(0, metrics.getMarkFailureCount());
+
+        // Unknown IDs and weekends fail on the ID path; bad handles and days throw on the handle path
+        manager.markAttendanceForPerson("S404", CALENDAR.dateOf(0), true);
+        manager.markAttendanceForPerson("S1", LocalDate.of(2025, 9, 6), true);
+        assertThrows(IllegalArgumentException.class, () -> manager.markAttendance(99, 0, true));
+        assertThrows(IllegalArgumentException.class, () -> manager.markAttendance(0, CALENDAR.size(), true));
+        assertEquals(4, metrics.getMarkFailureCount());
+        assertEquals(110, metrics.getMarkCount());
+        assertEquals(102, metrics.getOperationCount("markAttendance"));
+        assertEquals(12, metrics.getOperationCount("markAttendanceForPerson"));
+
+        // Everyone is at 90% after the ID-path corrections; three more absences take S3 to 60%
+        assertEquals(0, metrics.getBelowRequirementCount());
+        for (int day = 1; day < 4; day++) {
+            manager.markAttendance(3, day, false);
+        }
+        assertEquals(1, metrics.getBelowRequirementCount());
+        assertTrue(metrics.dump().contains("marks: 113"));
+    }
+}
@@ -0,0 +1,97 @@
+// Debounced policy crossings: one firing per settled band change, none for flips inside the window
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.*;
+
+class AttendancePolicyEngineTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 20);
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    private PrintStream originalOut;
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    void setUp() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+        System.setOut(originalOut);
+    }
+
+    @Test
+    void crossingsFireOncePerSettledBandChange() throws Exception {
+        List<PolicyCrossing> crossings = new CopyOnWriteArrayList<>();
+        List<AttendanceEvent> events = new CopyOnWriteArrayList<>();
+        AttendanceManager manager = new AttendanceManager("Policy Academy", CALENDAR);
+        manager.setEventSink(new AttendanceEventSink() {
+            @Override
+            public boolean isEnabled() { return true; }
+
+            @Override
+            public void publish(AttendanceEvent event) {
+                if (event.getType() == AttendanceEvent.Type.STUDENT_WARNING) events.add(event);
+            }
+        });
+        manager.setPolicyEngine(AttendancePolicyEngine.standard()
+            .addRule(crossings::add)
+            .debounce(DEBOUNCE_MILLIS)
+            .scheduler(scheduler));
+        Student student = new Student("Student", "S1", "Grade 10", 3.0);
+        manager.registerPerson(student);
+        int handle = student.getHandle();
+
+        for (int day = 0; day < 3; day++) {
+            manager.markAttendance(handle, day, true);
+        }
+        settle();
+        assertEquals(List.of(), crossings);
+
+        // 3 of 5 present drops below the 75% requirement
+        manager.markAttendance(handle, 3, false);
+        manager.markAttendance(handle, 4, false);
+        settle();
+        assertEquals(1, crossings.size());
+        assertTrue(crossings.get(0).isDownward());
+        assertTrue(crossings.get(0).crossedBelow(75.0));
+        assertEquals(1, student.getWarningCount());
+        assertEquals(1, events.size());
+
+        // Corrected up to 80% and back within the window: the settled band never changed
+        manager.markAttendance(handle, 4, true);
+        manager.markAttendance(handle, 4, false);
+        settle();
+        assertEquals(1, crossings.size());
+        assertEquals(1, student.getWarningCount());
+
+        // 8 of 10 present climbs back over the requirement; upward crossings never warn
+        for (int day = 5; day < 10; day++) {
+            manager.markAttendance(handle, day, true);
+        }
+        settle();
+        assertEquals(2, crossings.size());
+        assertFalse(crossings.get(1).isDownward());
+        assertTrue(crossings.get(1).crossedAbove(75.0));
+        assertEquals(1, student.getWarningCount());
+
+        student.displayInfo();
+        assertEquals(1, student.getWarningCount());
+        assertEquals(1, events.size());
+    }
+
+    // The scheduler is single-threaded, so a task due after the debounce window runs after every evaluation
+    private void settle() throws Exception {
+        scheduler.schedule(() -> null, DEBOUNCE_MILLIS + 50, TimeUnit.MILLISECONDS).get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,110 @@
+// Snapshots taken while check-ins and registrations keep arriving must restore, together with
+// the log written after them, to exactly the live state
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+class AttendanceSnapshotTest {
+    private static final int DAYS = 40;
+    private static final int PERSONS = 20_000;
+    private static final int MARKERS = 3;
+
+    @TempDir
+    Path directory;
+
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void silenceConsole() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    void snapshotUnderLoadRestoresToLiveState() throws Exception {
+        TermCalendar calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), DAYS);
+        Path logFile = directory.resolve("attendance.log");
+        Path snapshotFile = directory.resolve("attendance.snapshot");
+        AttendanceLog log = AttendanceLog.open(logFile, AttendanceLog.Durability.ASYNC, 100);
+        AttendanceManager manager = new AttendanceManager("Snapshot Academy", calendar, log);
+        manager.setEventSink(new NoOpEventSink());
+        for (int i = 0; i < PERSONS; i++) {
+            manager.registerPerson(new Student("Student " + i, "S" + i, "Grade 9", 3.0));
+        }
+
+        // Markers sweep the term a day at a time, so each snapshot sees days being marked for the
+        // first time, while registrations keep arriving alongside
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(MARKERS + 1);
+        List<Future<?>> markers = new ArrayList<>();
+        for (int t = 0; t < MARKERS; t++) {
+            int thread = t;
+            markers.add(executor.submit(() -> {
+                Random random = new Random(thread);
+                for (int day = 0; day < DAYS; day++) {
+                    for (int handle = thread; handle < PERSONS; handle += MARKERS) {
+                        manager.markAttendance(handle, day, random.nextInt(10) < 8);
+                    }
+                }
+                return null;
+            }));
+        }
+        Future<?> registrations = executor.submit(() -> {
+            for (int i = PERSONS; running.get(); i++) {
+                Teacher teacher = new Teacher("Teacher " + i, "T" + i, "Physics", 3, 40000);
+                manager.registerPerson(teacher);
+                manager.markAttendance(teacher.getHandle(), i % DAYS, false);
+            }
+            return null;
+        });
+        int snapshots = 0;
+        while (!allDone(markers)) {
+            manager.writeSnapshot(snapshotFile);
+            snapshots++;
+        }
+        running.set(false);
+        for (Future<?> marker : markers) {
+            marker.get();
+        }
+        registrations.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+        log.close();
+        assertTrue(snapshots > 1, "snapshots taken while marking");
+
+        AttendanceSnapshot snapshot = AttendanceSnapshot.open(snapshotFile);
+        assertTrue(snapshot.verifyChecksum());
+        try (AttendanceLog replayLog = AttendanceLog.open(logFile, AttendanceLog.Durability.ASYNC, 100)) {
+            AttendanceManager restored = new AttendanceManager(snapshot, calendar, replayLog);
+            assertEquals(0, restored.getDroppedMarkCount(), "marks dropped on restore");
+            List<Person> live = manager.getAllPersons();
+            assertEquals(live.size(), restored.getAllPersons().size());
+            for (Person person : live) {
+                Person copy = restored.findPerson(person.getId());
+                assertNotNull(copy, person.getId());
+                assertEquals(person.getAttendanceRecord(), copy.getAttendanceRecord(), person.getId());
+            }
+        }
+    }
+
+    private static boolean allDone(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            if (!future.isDone()) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,89 @@
+// Threshold index answers match a full scan at every tenth-of-a-percent bucket boundary
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class AttendanceThresholdIndexTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 20);
+
+    @Test
+    void belowQueriesMatchScanAtBucketBoundaries() {
+        AttendanceManager manager = new AttendanceManager("Threshold Academy", CALENDAR);
+        manager.setEventSink(new NoOpEventSink());
+        // Every present/marked fraction up to 20 marks, so exact requirements such as 3 of 4 (75%)
+        // and 9 of 10 (90%) sit on bucket boundaries, for both roles
+        List<Person> persons = new ArrayList<>();
+        for (int marked = 0; marked <= CALENDAR.size(); marked++) {
+            for (int present = 0; present <= marked; present++) {
+                String suffix = marked + "_" + present;
+                Person student = new Student("Student " + suffix, "S" + suffix, "Grade 10", 3.0);
+                Person teacher = new Teacher("Teacher " + suffix, "T" + suffix, "Physics", 5, 50000);
+                for (Person person : List.of(student, teacher)) {
+                    manager.registerPerson(person);
+                    for (int day = 0; day < marked; day++) {
+                        manager.markAttendance(person.getHandle(), day, day < present);
+                    }
+                    persons.add(person);
+                }
+            }
+        }
+        assertBelowMatchesScan(manager, persons);
+
+        // Corrections move persons across buckets, including onto and off the boundaries
+        Random random = new Random(13);
+        for (int i = 0; i < 2000; i++) {
+            Person person = persons.get(random.nextInt(persons.size()));
+            manager.markAttendance(person.getHandle(), random.nextInt(CALENDAR.size()), random.nextBoolean());
+        }
+        assertBelowMatchesScan(manager, persons);
+    }
+
+    private static void assertBelowMatchesScan(AttendanceManager manager, List<Person> persons) {
+        Set<Double> thresholds = new TreeSet<>();
+        for (int tenth = -1; tenth <= 1002; tenth++) {
+            thresholds.add(tenth / 10.0);
+        }
+        for (Person person : persons) {
+            double percentage = person.getAttendancePercentage();
+            thresholds.add(percentage);
+            thresholds.add(Math.nextDown(percentage));
+            thresholds.add(Math.nextUp(percentage));
+        }
+        for (double threshold : thresholds) {
+            Set<String> expected = new TreeSet<>();
+            Set<String> expectedStudents = new TreeSet<>();
+            for (Person person : persons) {
+                if (person.getAttendancePercentage() < threshold) {
+                    expected.add(person.getId());
+                    if (person instanceof Student) expectedStudents.add(person.getId());
+                }
+            }
+            assertEquals(expected, ids(manager.getPersonsBelow(threshold)), "below " + threshold);
+            assertEquals(expectedStudents, ids(manager.getPersonsBelow("Student", threshold)), "students below " + threshold);
+        }
+
+        int students = 0;
+        int teachers = 0;
+        for (Person person : persons) {
+            if (person.getAttendancePercentage() < person.getMinimumAttendanceRequirement()) {
+                if (person instanceof Student) students++;
+                else teachers++;
+            }
+        }
+        assertEquals(students, manager.countBelowRequirement("Student"));
+        assertEquals(teachers, manager.countBelowRequirement("Teacher"));
+        assertEquals(students + teachers, manager.countBelowRequirement());
+    }
+
+    private static Set<String> ids(List<Person> persons) {
+        Set<String> ids = new TreeSet<>();
+        for (Person person : persons) {
+            ids.add(person.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,119 @@
+// Read views keep showing the registry and attendance as of their opening while marks,
+// corrections and registrations continue on other threads
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.*;
+
+class AttendanceViewTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 40);
+    private static final int PERSONS = 500;
+
+    private PrintStream originalErr;
+
+    @BeforeEach
+    void silenceConsole() {
+        originalErr = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    void viewsStayIsolatedWhileMarkingContinues() throws Exception {
+        AttendanceManager manager = new AttendanceManager("View Academy", CALENDAR);
+        manager.setEventSink(new NoOpEventSink());
+        Random seed = new Random(23);
+        for (int i = 0; i < PERSONS; i++) {
+            Person person = i % 5 == 0 ? new Teacher("Teacher " + i, "T" + i, "Physics", 5, 50000)
+                                       : new Student("Student " + i, "S" + i, "Grade 10", 3.0);
+            manager.registerPerson(person);
+            for (int day = 0; day < 20; day++) {
+                manager.markAttendance(person.getHandle(), day, seed.nextInt(4) != 0);
+            }
+        }
+
+        Map<String, Map<LocalDate, Boolean>> first = capture(manager);
+        AttendanceView firstView = manager.openView();
+        AttendanceStatistics firstStatistics = firstView.computeStatistics();
+
+        // New days, corrections of old ones and new registrations, until stopped
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> writer = executor.submit(() -> {
+            Random random = new Random(29);
+            for (int i = 0; running.get(); i++) {
+                manager.markAttendance(random.nextInt(PERSONS), random.nextInt(CALENDAR.size()), random.nextBoolean());
+                if (i % 100 == 0) {
+                    manager.registerPerson(new Student("Late " + i, "L" + i, "Grade 10", 3.0));
+                }
+            }
+            return null;
+        });
+        for (int pass = 0; pass < 5; pass++) {
+            assertMatches(first, firstView);
+        }
+        running.set(false);
+        writer.get(1, TimeUnit.MINUTES);
+
+        Map<String, Map<LocalDate, Boolean>> second = capture(manager);
+        assertNotEquals(first, second);
+        AttendanceView secondView = manager.openView();
+        manager.markAttendance(0, 39, true);
+        manager.markAttendance(1, 0, !manager.findPerson("S1").getAttendanceRecord().get(CALENDAR.dateOf(0)));
+        assertMatches(first, firstView);
+        AttendanceStatistics statistics = firstView.computeStatistics();
+        assertEquals(firstStatistics.getRegistered(), statistics.getRegistered());
+        assertEquals(firstStatistics.getBelowRequirement(), statistics.getBelowRequirement());
+        assertEquals(firstStatistics.getAverageAttendance(), statistics.getAverageAttendance());
+        assertMatches(second, secondView);
+
+        Person late = manager.findPerson("L0");
+        assertFalse(firstView.contains(late));
+        assertTrue(secondView.contains(late));
+        assertThrows(IllegalArgumentException.class, () -> firstView.getAttendanceCounts(late));
+
+        firstView.close();
+        assertThrows(IllegalStateException.class, firstView::getPersons);
+        assertMatches(second, secondView);
+        secondView.close();
+        executor.shutdown();
+    }
+
+    private static Map<String, Map<LocalDate, Boolean>> capture(AttendanceManager manager) {
+        Map<String, Map<LocalDate, Boolean>> records = new LinkedHashMap<>();
+        for (Person person : manager.getAllPersons()) {
+            records.put(person.getId(), new TreeMap<>(person.getAttendanceRecord()));
+        }
+        return records;
+    }
+
+    private static void assertMatches(Map<String, Map<LocalDate, Boolean>> expected, AttendanceView view) {
+        assertEquals(expected.size(), view.getPersons().size());
+        for (Person person : view.getPersons()) {
+            Map<LocalDate, Boolean> record = expected.get(person.getId());
+            assertNotNull(record, person.getId());
+            assertEquals(record, new TreeMap<>(view.getAttendanceRecord(person)), person.getId());
+            int present = 0;
+            for (boolean mark : record.values()) {
+                if (mark) present++;
+            }
+            long counts = view.getAttendanceCounts(person);
+            assertEquals(record.size(), (int) counts, person.getId());
+            assertEquals(present, (int) (counts >>> 32), person.getId());
+            Map<LocalDate, Boolean> visited = new TreeMap<>();
+            view.forEachMark(person, (day, mark) -> visited.put(LocalDate.ofEpochDay(day), mark));
+            assertEquals(record, visited, person.getId());
+        }
+    }
+}
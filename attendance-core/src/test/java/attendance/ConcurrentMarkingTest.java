@@ -0,0 +1,146 @@
+// Stress test for concurrent check-ins: many threads mark overlapping persons through both mark
+// paths, and the counters, daily roll-ups and threshold index must match a sequential model
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.*;
+
+class ConcurrentMarkingTest {
+    private static final int PERSONS = 400;
+    private static final int DAYS = 30;
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 40;
+
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+
+    @BeforeEach
+    void silenceConsole() {
+        // Policy warnings print for every person that drops below a requirement
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @Test
+    void concurrentMarksMatchSequentialModel() throws Exception {
+        TermCalendar calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), DAYS);
+        AttendanceManager manager = new AttendanceManager("Stress Academy", calendar);
+        manager.setEventSink(new NoOpEventSink());
+        Person[] persons = new Person[PERSONS];
+        for (int i = 0; i < PERSONS; i++) {
+            persons[i] = i % 10 == 0
+                ? new Teacher("Teacher " + i, "T" + i, "Physics", 5, 50000)
+                : new Student("Student " + i, "S" + i, "Grade 10", 3.0);
+            manager.registerPerson(persons[i]);
+        }
+
+        // Each (person, day) cell belongs to one thread, so its last write is known; a person's
+        // days are spread across threads, so every record is written concurrently
+        Boolean[][] expected = new Boolean[PERSONS][DAYS];
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            Random random = new Random(thread);
+            List<int[]> plan = new ArrayList<>();
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int person = 0; person < PERSONS; person++) {
+                    for (int day = 0; day < DAYS; day++) {
+                        if ((person + day) % THREADS != thread || random.nextInt(4) != 0) continue;
+                        boolean present = random.nextInt(100) < 80;
+                        plan.add(new int[] {person, day, present ? 1 : 0, random.nextInt(2)});
+                        expected[person][day] = present;
+                    }
+                }
+            }
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int[] step : plan) {
+                    Person person = persons[step[0]];
+                    boolean present = step[2] == 1;
+                    if (step[3] == 0) {
+                        manager.markAttendanceForPerson(person.getId(), calendar.dateOf(step[1]), present);
+                    } else {
+                        manager.markAttendance(person.getHandle(), step[1], present);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        Map<String, int[]> presentByRoleDay = new HashMap<>();
+        Map<String, int[]> absentByRoleDay = new HashMap<>();
+        for (int i = 0; i < PERSONS; i++) {
+            Person person = persons[i];
+            int marked = 0;
+            int present = 0;
+            int[] rolePresent = presentByRoleDay.computeIfAbsent(person.getRole(), role -> new int[DAYS]);
+            int[] roleAbsent = absentByRoleDay.computeIfAbsent(person.getRole(), role -> new int[DAYS]);
+            Map<LocalDate, Boolean> record = person.getAttendanceRecord();
+            for (int day = 0; day < DAYS; day++) {
+                Boolean mark = expected[i][day];
+                assertEquals(mark, record.get(calendar.dateOf(day)), person.getId() + " on day " + day);
+                if (mark == null) continue;
+                marked++;
+                if (mark) {
+                    present++;
+                    rolePresent[day]++;
+                } else {
+                    roleAbsent[day]++;
+                }
+            }
+            long counts = person.getAttendanceBits().getCounts();
+            assertEquals(marked, (int) counts, "marked count of " + person.getId());
+            assertEquals(present, (int) (counts >>> 32), "present count of " + person.getId());
+        }
+
+        for (int day = 0; day < DAYS; day++) {
+            DayTotals totals = manager.getDailyTotals(calendar.dateOf(day));
+            for (String role : presentByRoleDay.keySet()) {
+                assertEquals(presentByRoleDay.get(role)[day], totals.getPresent(role), role + " present on day " + day);
+                assertEquals(absentByRoleDay.get(role)[day], totals.getAbsent(role), role + " absent on day " + day);
+            }
+        }
+
+        for (double threshold : new double[] {50, 75, 80, 90, 100}) {
+            Set<String> below = new TreeSet<>();
+            for (Person person : persons) {
+                if (person.getAttendancePercentage() < threshold) below.add(person.getId());
+            }
+            Set<String> indexed = new TreeSet<>();
+            for (Person person : manager.getPersonsBelow(threshold)) {
+                indexed.add(person.getId());
+            }
+            assertEquals(below, indexed, "persons below " + threshold);
+        }
+        for (String role : List.of("Student", "Teacher")) {
+            int count = 0;
+            for (Person person : persons) {
+                if (person.getRole().equals(role) &&
+                    person.getAttendancePercentage() < person.getMinimumAttendanceRequirement()) {
+                    count++;
+                }
+            }
+            assertEquals(count, manager.countBelowRequirement(role), role + " below requirement");
+        }
+    }
+}
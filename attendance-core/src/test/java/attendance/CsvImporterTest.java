@@ -0,0 +1,188 @@
+// CSV export and chunked import: round trips, quoting, BOM and CRLF input, and error line numbers
+// when rows straddle or outgrow the 1 KB chunks
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvImporterTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 20);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void exportImportsBackIntoAnotherManager() throws Exception {
+        AttendanceManager source = newManager();
+        Random random = new Random(11);
+        for (int i = 0; i < 300; i++) {
+            Person person;
+            if (i % 10 == 0) {
+                Teacher teacher = new Teacher("Teacher " + i, "T" + i, "Physics, Applied", 3 + i % 7, 40000 + i);
+                // Long enough that its row outgrows a chunk on its own
+                for (int q = 0; q < (i == 150 ? 80 : 2); q++) {
+                    teacher.addQualification("Qualification \"" + q + "\" in teaching");
+                }
+                person = teacher;
+            } else {
+                Student student = new Student("O\"Brien, Student " + i, "S" + i, "Grade " + (9 + i % 4), 2.5 + (i % 3) * 0.5);
+                student.addSubject("Math");
+                student.addSubject("Art, Modern");
+                person = student;
+            }
+            source.registerPerson(person);
+            for (int day = 0; day < CALENDAR.size(); day++) {
+                if (random.nextInt(4) != 0) {
+                    source.markAttendance(person.getHandle(), day, random.nextInt(5) != 0);
+                }
+            }
+        }
+        Path persons = directory.resolve("persons.csv");
+        Path attendance = directory.resolve("attendance.csv");
+        CsvExporter exporter = new CsvExporter(source);
+        assertEquals(300, exporter.exportPersons(persons));
+        long marks = exporter.exportAttendance(attendance);
+
+        AttendanceManager target = newManager();
+        CsvImporter importer = new CsvImporter(target).chunkSize(1024).inFlight(2);
+        ImportResult personResult = importer.importPersons(persons);
+        assertEquals(300, personResult.getImportedCount(), personResult.getErrors().toString());
+        ImportResult attendanceResult = importer.importAttendance(attendance);
+        assertEquals(marks, attendanceResult.getImportedCount(), attendanceResult.getErrors().toString());
+        assertEquals(0, attendanceResult.getErrorCount());
+
+        for (Person person : source.getAllPersons()) {
+            Person copy = target.findPerson(person.getId());
+            assertNotNull(copy, person.getId());
+            assertEquals(person.getName(), copy.getName());
+            if (person instanceof Student) {
+                Student student = (Student) person;
+                Student imported = (Student) copy;
+                assertEquals(student.getGrade(), imported.getGrade());
+                assertEquals(student.getGpa(), imported.getGpa());
+                assertEquals(student.getSubjects(), imported.getSubjects());
+            } else {
+                Teacher teacher = (Teacher) person;
+                Teacher imported = (Teacher) copy;
+                assertEquals(teacher.getSubject(), imported.getSubject());
+                assertEquals(teacher.getYearsExperience(), imported.getYearsExperience());
+                assertEquals(teacher.getSalary(), imported.getSalary());
+                assertEquals(teacher.getQualifications(), imported.getQualifications());
+            }
+            assertEquals(person.getAttendanceRecord(), copy.getAttendanceRecord(), person.getId());
+        }
+    }
+
+    @Test
+    void invalidRowsAreReportedByFileLine() throws Exception {
+        // Line 1 is the header; every row below is line lines.size() + 1 when added
+        List<String> lines = new ArrayList<>();
+        lines.add(CsvImporter.PERSONS_HEADER);
+        List<Long> expectedErrors = new ArrayList<>();
+        int valid = 0;
+        for (int i = 0; i < 120; i++) {
+            long line = lines.size() + 1;
+            if (i == 7) {
+                lines.add("student,S" + i + ",Student " + i + ",Grade 10,three,,,,");
+                expectedErrors.add(line);
+            } else if (i == 31) {
+                lines.add("janitor,J" + i + ",Janitor " + i + ",,,,,,");
+                expectedErrors.add(line);
+            } else if (i == 44) {
+                lines.add("teacher,T" + i + ",Teacher " + i + ",,,Physics,4.5,50000,");
+                expectedErrors.add(line);
+            } else if (i == 58) {
+                lines.add("");
+            } else if (i == 63) {
+                lines.add("student,S0,Duplicate,Grade 10,3.0,,,,");
+                expectedErrors.add(line);
+            } else if (i == 77) {
+                lines.add("student,S" + i + ",\"Unterminated,Grade 10,3.0,,,,");
+                expectedErrors.add(line);
+            } else if (i == 90) {
+                lines.add("teacher,T" + i + ",Teacher " + i + ",,,Physics,5,50000," + "Certified;".repeat(150) + "Final");
+                valid++;
+            } else if (i == 101) {
+                lines.add("student,S" + i + ",\"Lee, \"\"Ace\"\"\",Grade 11,3.5,,,,Math;Art");
+                valid++;
+            } else {
+                lines.add("student,S" + i + ",Student " + i + ",Grade 10,3.0,,,,Math");
+                valid++;
+            }
+        }
+        lines.add("student,S999,Last Student,Grade 12,3.9,,,,");
+        valid++;
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] body = (String.join("\r\n", lines) + "\r\n").getBytes(StandardCharsets.UTF_8);
+        assertTrue(body.length > 4 * 1024, "rows span several chunks");
+        Path file = directory.resolve("persons.csv");
+        Files.write(file, concat(bom, body));
+
+        AttendanceManager manager = newManager();
+        ImportResult result = new CsvImporter(manager).chunkSize(1024).inFlight(2).importPersons(file);
+        assertEquals(expectedErrors, lineNumbers(result));
+        assertEquals(valid, result.getImportedCount());
+        assertEquals(lines.size() - 2, result.getRowsRead());
+        assertEquals("Lee, \"Ace\"", manager.findPerson("S101").getName());
+        assertEquals(List.of("Math", "Art"), ((Student) manager.findPerson("S101")).getSubjects());
+        assertEquals(151, ((Teacher) manager.findPerson("T90")).getQualifications().size());
+        assertEquals("Student 0", manager.findPerson("S0").getName());
+        assertNotNull(manager.findPerson("S999"));
+
+        // Attendance with the same framing: bad dates, unknown IDs, bad statuses and weekend days
+        List<String> marks = new ArrayList<>();
+        marks.add(CsvImporter.ATTENDANCE_HEADER);
+        List<Long> expectedMarkErrors = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long line = marks.size() + 1;
+            String id = "S" + (10 + i % 20);
+            if (i % 41 == 3) {
+                marks.add(id + ",2025-13-01,P");
+                expectedMarkErrors.add(line);
+            } else if (i % 53 == 4) {
+                marks.add("S777," + CALENDAR.dateOf(0) + ",P");
+                expectedMarkErrors.add(line);
+            } else if (i % 67 == 5) {
+                marks.add(id + "," + CALENDAR.dateOf(0) + ",maybe");
+                expectedMarkErrors.add(line);
+            } else if (i % 71 == 6) {
+                marks.add(id + ",2025-09-06,A");
+                expectedMarkErrors.add(line);
+            } else {
+                marks.add(id + "," + CALENDAR.dateOf(i % CALENDAR.size()) + "," + (i % 3 == 0 ? "A" : "present"));
+            }
+        }
+        Path attendance = directory.resolve("attendance.csv");
+        Files.write(attendance, concat(bom, (String.join("\r\n", marks) + "\r\n").getBytes(StandardCharsets.UTF_8)));
+        ImportResult markResult = new CsvImporter(manager).chunkSize(1024).inFlight(2).importAttendance(attendance);
+        assertEquals(expectedMarkErrors, lineNumbers(markResult));
+        assertEquals(200 - expectedMarkErrors.size(), markResult.getImportedCount());
+    }
+
+    private static AttendanceManager newManager() {
+        AttendanceManager manager = new AttendanceManager("Csv Academy", CALENDAR);
+        manager.setEventSink(new NoOpEventSink());
+        return manager;
+    }
+
+    private static List<Long> lineNumbers(ImportResult result) {
+        List<Long> lines = new ArrayList<>();
+        for (ImportResult.RowError error : result.getErrors()) {
+            lines.add(error.getLine());
+        }
+        return lines;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] bytes = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        return bytes;
+    }
+}
@@ -0,0 +1,84 @@
+// Per-day roll-ups move counts on corrections instead of adding them, for every role
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+class DailyRollupTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 15);
+
+    private PrintStream originalOut;
+
+    @BeforeEach
+    void silenceConsole() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    void rollupsFollowCorrections() {
+        AttendanceManager manager = new AttendanceManager("Rollup Academy", CALENDAR);
+        manager.setEventSink(new NoOpEventSink());
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Person person = i % 3 == 0 ? new Teacher("Teacher " + i, "T" + i, "Physics", 5, 50000)
+                                       : new Student("Student " + i, "S" + i, "Grade 10", 3.0);
+            manager.registerPerson(person);
+            persons.add(person);
+        }
+        // Repeated marks of the same day: same status again, present to absent and back
+        Random random = new Random(19);
+        for (int i = 0; i < 5000; i++) {
+            Person person = persons.get(random.nextInt(persons.size()));
+            manager.markAttendance(person.getHandle(), random.nextInt(CALENDAR.size()), random.nextInt(3) != 0);
+        }
+        // A person registered with marks already on record joins the roll-ups with them
+        Student late = new Student("Late Student", "S999", "Grade 10", 3.0);
+        late.markAttendance(CALENDAR.dateOf(2), false);
+        late.markAttendance(CALENDAR.dateOf(3), true);
+        manager.registerPerson(late);
+        persons.add(late);
+        manager.markAttendance(late.getHandle(), 2, true);
+
+        List<DayTotals> totals = manager.getDailyTotals(CALENDAR.getStart(), CALENDAR.getEnd());
+        assertEquals(CALENDAR.size(), totals.size());
+        for (int day = 0; day < CALENDAR.size(); day++) {
+            LocalDate date = CALENDAR.dateOf(day);
+            Map<String, int[]> expected = new HashMap<>();
+            for (Person person : persons) {
+                Boolean present = person.getAttendanceRecord().get(date);
+                if (present == null) continue;
+                expected.computeIfAbsent(person.getRole(), role -> new int[2])[present ? 0 : 1]++;
+            }
+            DayTotals single = manager.getDailyTotals(date);
+            assertEquals(date, single.getDate());
+            assertEquals(date, totals.get(day).getDate());
+            int present = 0;
+            int absent = 0;
+            for (String role : List.of("Student", "Teacher")) {
+                int[] counts = expected.getOrDefault(role, new int[2]);
+                assertEquals(counts[0], single.getPresent(role), role + " present on " + date);
+                assertEquals(counts[1], single.getAbsent(role), role + " absent on " + date);
+                assertEquals(counts[0], totals.get(day).getPresent(role), role + " present on " + date);
+                present += counts[0];
+                absent += counts[1];
+            }
+            assertEquals(present, single.getPresent());
+            assertEquals(absent, single.getAbsent());
+            assertEquals(present + absent, single.getMarked());
+        }
+
+        // Weekend endpoints narrow to the school days inside the range
+        assertEquals(5, manager.getDailyTotals(LocalDate.of(2025, 9, 6), LocalDate.of(2025, 9, 14)).size());
+    }
+}
@@ -0,0 +1,75 @@
+// Date-range counts from the Fenwick trees match a scan of the record, across word boundaries,
+// after out-of-order corrections, and for ranges that start or end off the calendar
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+class DateRangeAttendanceTest {
+    // 150 school days span three 64-bit words per record
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 150);
+
+    @Test
+    void rangeCountsMatchScan() {
+        AttendanceManager manager = new AttendanceManager("Range Academy", CALENDAR);
+        manager.setEventSink(new NoOpEventSink());
+        Random random = new Random(17);
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Person person = i % 4 == 0 ? new Teacher("Teacher " + i, "T" + i, "Physics", 5, 50000)
+                                       : new Student("Student " + i, "S" + i, "Grade 10", 3.0);
+            manager.registerPerson(person);
+            persons.add(person);
+        }
+        // Later days first, then corrections of earlier ones
+        for (Person person : persons) {
+            for (int day = CALENDAR.size() - 1; day >= 0; day--) {
+                if (random.nextInt(3) != 0) manager.markAttendance(person.getHandle(), day, random.nextInt(4) != 0);
+            }
+        }
+        for (int i = 0; i < 3000; i++) {
+            Person person = persons.get(random.nextInt(persons.size()));
+            manager.markAttendance(person.getHandle(), random.nextInt(CALENDAR.size()), random.nextBoolean());
+        }
+
+        List<LocalDate[]> ranges = new ArrayList<>();
+        ranges.add(new LocalDate[] {CALENDAR.getStart(), CALENDAR.getEnd()});
+        ranges.add(new LocalDate[] {CALENDAR.dateOf(63), CALENDAR.dateOf(64)});
+        ranges.add(new LocalDate[] {CALENDAR.dateOf(64), CALENDAR.dateOf(64)});
+        ranges.add(new LocalDate[] {LocalDate.of(2025, 9, 6), LocalDate.of(2025, 9, 7)});
+        ranges.add(new LocalDate[] {LocalDate.of(2025, 1, 1), LocalDate.of(2025, 9, 3)});
+        ranges.add(new LocalDate[] {CALENDAR.dateOf(140), CALENDAR.getEnd().plusYears(1)});
+        ranges.add(new LocalDate[] {LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)});
+        for (int i = 0; i < 200; i++) {
+            LocalDate from = CALENDAR.getStart().plusDays(random.nextInt(215) - 2);
+            ranges.add(new LocalDate[] {from, from.plusDays(random.nextInt(120))});
+        }
+
+        for (LocalDate[] range : ranges) {
+            long pooledPresent = 0;
+            long pooledMarked = 0;
+            for (Person person : persons) {
+                int present = 0;
+                int marked = 0;
+                for (Map.Entry<LocalDate, Boolean> mark : person.getAttendanceRecord().entrySet()) {
+                    if (!mark.getKey().isBefore(range[0]) && !mark.getKey().isAfter(range[1])) {
+                        marked++;
+                        if (mark.getValue()) present++;
+                    }
+                }
+                long counts = person.getAttendanceCounts(range[0], range[1]);
+                assertEquals(marked, (int) counts, person.getId() + " marked " + range[0] + ".." + range[1]);
+                assertEquals(present, (int) (counts >>> 32), person.getId() + " present " + range[0] + ".." + range[1]);
+                pooledPresent += present;
+                pooledMarked += marked;
+            }
+            double expected = pooledMarked == 0 ? 0.0 : pooledPresent * 100.0 / pooledMarked;
+            assertEquals(expected, manager.getAttendancePercentage(range[0], range[1]), 1e-9);
+        }
+        assertThrows(IllegalArgumentException.class,
+                     () -> persons.get(0).getAttendanceCounts(CALENDAR.dateOf(5), CALENDAR.dateOf(4)));
+    }
+}
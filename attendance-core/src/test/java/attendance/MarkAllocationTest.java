@@ -0,0 +1,57 @@
+// Allocation check for the handle mark path: once warmed up, marking through
+// markAttendance(int, int, boolean) with events disabled must not allocate on the calling thread
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import org.junit.jupiter.api.*;
+
+class MarkAllocationTest {
+    private static final int PERSONS = 64;
+    private static final int DAYS = 20;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MARKS = 100_000;
+
+    @Test
+    void handleMarksDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "thread allocation counting unsupported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        TermCalendar calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), DAYS);
+        AttendanceManager manager = new AttendanceManager("Allocation Academy", calendar);
+        manager.setEventSink(new NoOpEventSink());
+        // Time every mark, so the histogram is on the measured path too
+        manager.getMetrics().setMarkSampling(1);
+        int[] handles = new int[PERSONS];
+        for (int i = 0; i < PERSONS; i++) {
+            Person person = new Student("Student " + i, "S" + i, "Grade 10", 3.0);
+            manager.registerPerson(person);
+            handles[i] = person.getHandle();
+        }
+
+        // Every person is present on every day, so no policy warning is built; the warm-up runs the
+        // measured loop itself, so it is compiled before the measurement
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            mark(manager, handles, MARKS);
+        }
+        long threadId = Thread.currentThread().getId();
+        // Reading the counter can allocate itself; measure that with nothing in between and subtract it
+        long overhead = threads.getThreadAllocatedBytes(threadId);
+        overhead = threads.getThreadAllocatedBytes(threadId) - overhead;
+        long before = threads.getThreadAllocatedBytes(threadId);
+        mark(manager, handles, MARKS);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before - overhead;
+        assertEquals(0, allocated, "bytes allocated by " + MARKS + " handle marks");
+    }
+
+    private static void mark(AttendanceManager manager, int[] handles, int marks) {
+        for (int i = 0; i < marks; i++) {
+            manager.markAttendance(handles[i % PERSONS], (i / PERSONS) % DAYS, true);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+// Persisted outbox: alerts reach the file when queued, leave it once delivered, and survive a restart
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+class NotificationOutboxTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 10);
+
+    @TempDir
+    Path directory;
+
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+
+    @BeforeEach
+    void silenceConsole() {
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @Test
+    void queuedAlertsArePersistedAndTrimmedOnDelivery() throws Exception {
+        Path file = directory.resolve("outbox.txt");
+        AtomicBoolean transportDown = new AtomicBoolean(true);
+        List<Notification> delivered = new ArrayList<>();
+        NotificationTransport transport = batch -> {
+            if (transportDown.get()) throw new IOException("gateway down");
+            delivered.addAll(batch);
+        };
+        AttendanceManager manager = newManager();
+        // Dispatch only runs on flush, so everything below happens before any batch is attempted
+        NotificationOutbox outbox = new NotificationOutbox(manager, transport).flushInterval(600_000).persistTo(file);
+        manager.setNotificationOutbox(outbox);
+
+        manager.markAttendance(0, 0, false);
+        manager.markAttendance(1, 0, false);
+        manager.markAttendance(1, 1, false);
+        assertEquals(Set.of("S0," + CALENDAR.dateOf(0), "S1," + CALENDAR.dateOf(0), "S1," + CALENDAR.dateOf(1)),
+                     lines(file));
+
+        // A restart before any dispatch still finds every alert
+        AttendanceManager restarted = newManager();
+        NotificationOutbox restored = new NotificationOutbox(restarted, transport).flushInterval(600_000).persistTo(file);
+        assertEquals(3, restored.getPendingCount());
+        restored.close();
+
+        assertFalse(outbox.flush());
+        assertEquals(3, lines(file).size());
+        transportDown.set(false);
+        assertTrue(outbox.flush());
+        assertEquals(3, delivered.size());
+        assertEquals(Set.of(), lines(file));
+
+        manager.markAttendance(2, 0, false);
+        assertEquals(Set.of("S2," + CALENDAR.dateOf(0)), lines(file));
+        outbox.close();
+    }
+
+    private static AttendanceManager newManager() {
+        AttendanceManager manager = new AttendanceManager("Outbox Academy", CALENDAR);
+        manager.setEventSink(new NoOpEventSink());
+        for (int i = 0; i < 3; i++) {
+            manager.registerPerson(new Student("Student " + i, "S" + i, "Grade 10", 3.0));
+        }
+        return manager;
+    }
+
+    private static Set<String> lines(Path file) throws IOException {
+        Set<String> lines = new HashSet<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.isEmpty()) lines.add(line);
+        }
+        return lines;
+    }
+}
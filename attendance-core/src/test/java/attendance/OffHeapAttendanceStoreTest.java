@@ -0,0 +1,113 @@
+// Moving records into an off-heap store and back keeps every count, and an attached store stays open
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.*;
+import org.junit.jupiter.api.*;
+
+class OffHeapAttendanceStoreTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 70);
+
+    private PrintStream originalErr;
+
+    @BeforeEach
+    void silenceConsole() {
+        originalErr = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    void countsSurviveMovesBetweenHeapAndStore() {
+        // The same persons and marks go to both managers; only one keeps its words off the heap
+        AttendanceManager heap = newManager();
+        AttendanceManager offHeap = newManager();
+        Random random = new Random(5);
+        register(heap, offHeap, 0, 200);
+        mark(heap, offHeap, 0, 30, random);
+
+        OffHeapAttendanceStore store = new OffHeapAttendanceStore(CALENDAR.size());
+        offHeap.setAttendanceStore(store);
+        assertSame(store, offHeap.getAttendanceStore());
+        assertMatches(heap, offHeap);
+
+        // Registrations and marks while attached go straight to the store's rows
+        register(heap, offHeap, 200, 220);
+        mark(heap, offHeap, 30, CALENDAR.size(), random);
+        assertMatches(heap, offHeap);
+        assertThrows(IllegalStateException.class, store::close);
+
+        offHeap.setAttendanceStore(null);
+        assertNull(offHeap.getAttendanceStore());
+        assertMatches(heap, offHeap);
+        store.close();
+        assertEquals(0, store.getAllocatedBytes());
+
+        mark(heap, offHeap, 0, 10, random);
+        assertMatches(heap, offHeap);
+    }
+
+    private static AttendanceManager newManager() {
+        AttendanceManager manager = new AttendanceManager("Store Academy", CALENDAR);
+        manager.setEventSink(new NoOpEventSink());
+        return manager;
+    }
+
+    private static void register(AttendanceManager heap, AttendanceManager offHeap, int from, int to) {
+        for (int i = from; i < to; i++) {
+            heap.registerPerson(person(i));
+            offHeap.registerPerson(person(i));
+        }
+    }
+
+    private static Person person(int i) {
+        return i % 5 == 0 ? new Teacher("Teacher " + i, "T" + i, "Physics", 5, 50000)
+                          : new Student("Student " + i, "S" + i, "Grade 10", 3.0);
+    }
+
+    private static void mark(AttendanceManager heap, AttendanceManager offHeap, int fromDay, int toDay, Random random) {
+        for (int handle = 0; handle < heap.getAllPersons().size(); handle++) {
+            for (int day = fromDay; day < toDay; day++) {
+                if (random.nextInt(5) == 0) continue;
+                boolean present = random.nextInt(10) < 8;
+                heap.markAttendance(handle, day, present);
+                offHeap.markAttendance(handle, day, present);
+            }
+        }
+    }
+
+    private static void assertMatches(AttendanceManager heap, AttendanceManager offHeap) {
+        LocalDate[][] ranges = {
+            {CALENDAR.getStart(), CALENDAR.getEnd()},
+            {CALENDAR.dateOf(3), CALENDAR.dateOf(11)},
+            {CALENDAR.dateOf(63), CALENDAR.dateOf(64)},
+            // Weekend edges and dates outside the term
+            {LocalDate.of(2025, 9, 6), LocalDate.of(2025, 10, 19)},
+            {LocalDate.of(2025, 8, 1), CALENDAR.dateOf(0)},
+            {LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 30)},
+        };
+        List<Person> persons = heap.getAllPersons();
+        assertEquals(persons.size(), offHeap.getAllPersons().size());
+        for (Person expected : persons) {
+            Person actual = offHeap.findPerson(expected.getId());
+            assertEquals(expected.getAttendancePercentage(), actual.getAttendancePercentage(), expected.getId());
+            assertEquals(expected.getAttendanceRecord(), actual.getAttendanceRecord(), expected.getId());
+            for (LocalDate[] range : ranges) {
+                assertEquals(expected.getAttendanceCounts(range[0], range[1]), actual.getAttendanceCounts(range[0], range[1]),
+                             expected.getId() + " " + range[0] + ".." + range[1]);
+            }
+        }
+        for (LocalDate[] range : ranges) {
+            assertEquals(heap.getAttendancePercentage(range[0], range[1]), offHeap.getAttendancePercentage(range[0], range[1]));
+        }
+        assertEquals(heap.countBelowRequirement(), offHeap.countBelowRequirement());
+    }
+}
@@ -0,0 +1,113 @@
+// Secondary indexes under concurrent profile changes, and attendance-only queries
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import org.junit.jupiter.api.*;
+
+class PersonQueryTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 20);
+    private static final String[] GRADES = {"Grade 9", "Grade 10", "Grade 11", "Grade 12"};
+
+    private PrintStream originalOut;
+    private PrintStream originalErr;
+
+    @BeforeEach
+    void silenceConsole() {
+        originalOut = System.out;
+        originalErr = System.err;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+    }
+
+    @Test
+    void gradeChangesDuringRegistrationStayIndexed() throws Exception {
+        int persons = 20_000;
+        AttendanceManager manager = new AttendanceManager("Query Academy", CALENDAR);
+        manager.setEventSink(new NoOpEventSink());
+        Student[] students = new Student[persons];
+        for (int i = 0; i < persons; i++) {
+            students[i] = new Student("Student " + i, "S" + i, GRADES[0], 3.0);
+        }
+
+        // One thread registers while another keeps regrading the same students
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<?> registrations = executor.submit(() -> {
+            for (Student student : students) {
+                manager.registerPerson(student);
+            }
+        });
+        Future<?> regrading = executor.submit(() -> {
+            Random random = new Random(7);
+            while (!registrations.isDone()) {
+                Student student = students[random.nextInt(persons)];
+                student.setGrade(GRADES[random.nextInt(GRADES.length)]);
+                student.addSubject("Subject " + random.nextInt(3));
+            }
+        });
+        registrations.get(1, TimeUnit.MINUTES);
+        regrading.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        for (String grade : GRADES) {
+            Set<String> expected = new TreeSet<>();
+            for (Student student : students) {
+                if (student.getGrade().equals(grade)) expected.add(student.getId());
+            }
+            assertEquals(expected, ids(manager.query().grade(grade).list()), "students in " + grade);
+        }
+        for (int s = 0; s < 3; s++) {
+            String subject = "Subject " + s;
+            Set<String> expected = new TreeSet<>();
+            for (Student student : students) {
+                if (student.getSubjects().contains(subject)) expected.add(student.getId());
+            }
+            assertEquals(expected, ids(manager.query().subject(subject).list()), "students taking " + subject);
+        }
+    }
+
+    @Test
+    void attendanceOnlyQueryMatchesScan() {
+        AttendanceManager manager = new AttendanceManager("Query Academy", CALENDAR);
+        manager.setEventSink(new NoOpEventSink());
+        Random random = new Random(3);
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Person person = i % 5 == 0
+                ? new Teacher("Teacher " + i, "T" + i, "Physics", 5, 50000)
+                : new Student("Student " + i, "S" + i, GRADES[i % GRADES.length], 3.0);
+            manager.registerPerson(person);
+            for (int day = 0; day < CALENDAR.size(); day++) {
+                manager.markAttendance(person.getHandle(), day, random.nextInt(10) < 8);
+            }
+            persons.add(person);
+        }
+        for (double threshold : new double[] {0, 60, 75, 80, 100, 101}) {
+            Set<String> expected = new TreeSet<>();
+            for (Person person : persons) {
+                if (person.getAttendancePercentage() < threshold) expected.add(person.getId());
+            }
+            assertEquals(expected, ids(manager.query().attendanceBelow(threshold).list()), "below " + threshold);
+            assertEquals(expected.size(), manager.query().attendanceBelow(threshold).count(), "count below " + threshold);
+        }
+    }
+
+    private static Set<String> ids(List<Person> persons) {
+        Set<String> ids = new TreeSet<>();
+        for (Person person : persons) {
+            ids.add(person.getId());
+        }
+        return ids;
+    }
+}
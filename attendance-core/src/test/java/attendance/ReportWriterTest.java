@@ -0,0 +1,40 @@
+// The console report is the streamed TEXT report
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import org.junit.jupiter.api.*;
+
+class ReportWriterTest {
+    @Test
+    void comprehensiveReportPrintsTextReport() throws Exception {
+        TermCalendar calendar = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 10);
+        AttendanceManager manager = new AttendanceManager("Report Academy", calendar);
+        manager.setEventSink(new NoOpEventSink());
+        for (int i = 0; i < 50; i++) {
+            Person person = i % 5 == 0
+                ? new Teacher("Teacher " + i, "T" + i, "Physics", 5, 50000)
+                : new Student("Student " + i, "S" + i, "Grade 10", 3.0);
+            manager.registerPerson(person);
+            for (int day = 0; day < calendar.size(); day++) {
+                manager.markAttendance(person.getHandle(), day, (i + day) % 4 != 0);
+            }
+        }
+        StringWriter expected = new StringWriter();
+        assertEquals(50, manager.report(ReportWriter.Format.TEXT).writeTo(expected));
+
+        PrintStream originalOut = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed, true));
+        try {
+            manager.generateComprehensiveReport();
+        } finally {
+            System.setOut(originalOut);
+        }
+        assertEquals(expected.toString(), printed.toString());
+    }
+}
@@ -0,0 +1,92 @@
+// Failure handling of the swipe pipeline: a batch that cannot be applied is counted and the ring
+// keeps draining, and once the applier is gone producers and flush fail instead of waiting forever
+package attendance;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.*;
+
+// A stuck producer or flush is the failure being tested for, so it must fail rather than hang
+@Timeout(value = 30, unit = TimeUnit.SECONDS, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+class SwipePipelineTest {
+    private static final TermCalendar CALENDAR = TermCalendar.weekdaysFrom(LocalDate.of(2025, 9, 1), 10);
+
+    private PrintStream originalErr;
+
+    @BeforeEach
+    void silenceConsole() {
+        originalErr = System.err;
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @AfterEach
+    void restoreConsole() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    void failedDurabilityWaitCountsBatchAndKeepsDraining() {
+        AtomicBoolean logFailing = new AtomicBoolean(true);
+        AttendanceManager manager = new AttendanceManager("Swipe Academy", CALENDAR) {
+            @Override
+            void awaitDurable(long logPosition) {
+                if (logFailing.get()) {
+                    throw new UncheckedIOException("disk full", new IOException("disk full"));
+                }
+            }
+        };
+        manager.setEventSink(new NoOpEventSink());
+        manager.registerPerson(new Student("Student", "S1", "Grade 10", 3.0));
+        long day = CALENDAR.epochDayOf(0);
+
+        try (SwipePipeline pipeline = new SwipePipeline(manager, 4, SwipePipeline.OverflowPolicy.BLOCK)) {
+            pipeline.dedupWindow(0);
+            // Several laps of a four-slot ring: a dead applier would leave BLOCK producers waiting here
+            for (int i = 0; i < 20; i++) {
+                assertTrue(pipeline.swipe("S1", day, i));
+            }
+            pipeline.flush();
+            assertEquals(20, pipeline.getFailedCount());
+            assertEquals(0, pipeline.getAppliedCount());
+
+            logFailing.set(false);
+            assertTrue(pipeline.swipe("S1", day, 100));
+            pipeline.flush();
+            assertEquals(1, pipeline.getAppliedCount());
+            assertEquals(0, pipeline.getPendingCount());
+        }
+    }
+
+    @Test
+    void deadApplierFailsProducersAndFlush() throws InterruptedException {
+        AtomicBoolean broken = new AtomicBoolean(false);
+        AttendanceManager manager = new AttendanceManager("Swipe Academy", CALENDAR) {
+            @Override
+            public TermCalendar getCalendar() {
+                if (broken.get()) throw new AssertionError("applier killed");
+                return super.getCalendar();
+            }
+        };
+        manager.setEventSink(new NoOpEventSink());
+        manager.registerPerson(new Student("Student", "S1", "Grade 10", 3.0));
+        long day = CALENDAR.epochDayOf(0);
+
+        SwipePipeline pipeline = new SwipePipeline(manager, 4, SwipePipeline.OverflowPolicy.BLOCK);
+        broken.set(true);
+        assertTrue(pipeline.swipe("S1", day, 0));
+        assertThrows(IllegalStateException.class, pipeline::flush);
+        assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 8; i++) {
+                pipeline.swipe("S1", day, i);
+            }
+        });
+        pipeline.close();
+    }
+}